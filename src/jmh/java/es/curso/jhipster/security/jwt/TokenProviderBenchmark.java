@@ -0,0 +1,77 @@
+package es.curso.jhipster.security.jwt;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the cost of signing and verifying HS512 and ES256 tokens.
+ * <p>
+ * Verification goes through {@link TokenProvider#getAuthentication(String)}, which always parses and verifies the
+ * token, unlike {@link TokenProvider#resolveAuthentication(String)} which only does it on the first use of a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    @Param({ "HS512", "ES256" })
+    private String algorithm;
+
+    private TokenProvider tokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm(algorithm);
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                applicationProperties,
+                new JWTKeyRing(applicationProperties),
+                Mockito.mock(TokenRevocationService.class),
+                new SimpleMeterRegistry()
+            );
+        authentication =
+            new UsernamePasswordAuthenticationToken("user", "", List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Authentication verify() {
+        return tokenProvider.getAuthentication(token);
+    }
+}
@@ -1,12 +1,22 @@
 package es.curso.jhipster.aop.logging;
 
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
@@ -16,15 +26,33 @@ import tech.jhipster.config.JHipsterConstants;
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile, where every call is traced. Outside of it, it can be enabled to
+ * trace a sample of the calls only: the latency of the sampled calls is recorded per method, and published as the
+ * {@code aop.method.latency} timer and {@code aop.method.latency.percentile} gauges. The logger and the meters of a
+ * method are resolved on its first traced call.
  */
 @Aspect
 public class LoggingAspect {
 
-    private final Environment env;
+    private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
 
-    public LoggingAspect(Environment env) {
-        this.env = env;
+    private final boolean developmentProfile;
+
+    private final double sampleRate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, MethodTrace> tracesByMethod = new ConcurrentHashMap<>();
+
+    /**
+     * Overloaded methods share their trace, as their meters have the same tags.
+     */
+    private final Map<String, MethodTrace> tracesByName = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, double sampleRate, MeterRegistry meterRegistry) {
+        this.developmentProfile = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+        this.sampleRate = sampleRate;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -50,13 +78,27 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the {@link MethodTrace} of the method of the given {@link JoinPoint}, creating it on first use.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point we want the trace for.
+     * @return {@link MethodTrace} of the method of the given {@link JoinPoint}.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    private MethodTrace trace(JoinPoint joinPoint) {
+        Signature signature = joinPoint.getSignature();
+        Method method = ((MethodSignature) signature).getMethod();
+        MethodTrace trace = tracesByMethod.get(method);
+        if (trace == null) {
+            trace =
+                tracesByMethod.computeIfAbsent(
+                    method,
+                    key ->
+                        tracesByName.computeIfAbsent(
+                            signature.getDeclaringTypeName() + '#' + signature.getName(),
+                            name -> new MethodTrace(signature, meterRegistry)
+                        )
+                );
+        }
+        return trace;
     }
 
     /**
@@ -67,27 +109,22 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = '{}' and exception = '{}'",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL",
-                    e.getMessage(),
-                    e
-                );
+        MethodTrace trace = trace(joinPoint);
+        if (developmentProfile) {
+            trace.logger.error(
+                "Exception in {}() with cause = '{}' and exception = '{}'",
+                trace.methodName,
+                e.getCause() != null ? e.getCause() : "NULL",
+                e.getMessage(),
+                e
+            );
         } else {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = {}",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL"
-                );
+            trace.logger.error("Exception in {}() with cause = {}", trace.methodName, e.getCause() != null ? e.getCause() : "NULL");
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and records its latency, for the sampled calls.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -95,19 +132,66 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            try {
+                return joinPoint.proceed();
+            } catch (IllegalArgumentException e) {
+                logIllegalArgument(trace(joinPoint), joinPoint);
+                throw e;
+            }
+        }
+        MethodTrace trace = trace(joinPoint);
+        Logger log = trace.logger;
         if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+            log.debug("Enter: {}() with argument[s] = {}", trace.methodName, Arrays.toString(joinPoint.getArgs()));
         }
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
             if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+                log.debug("Exit: {}() with result = {}", trace.methodName, result);
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            logIllegalArgument(trace, joinPoint);
             throw e;
+        } finally {
+            trace.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    private void logIllegalArgument(MethodTrace trace, JoinPoint joinPoint) {
+        trace.logger.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), trace.methodName);
+    }
+
+    /**
+     * The logger and the latency histogram of a method.
+     */
+    private static final class MethodTrace {
+
+        private final Logger logger;
+
+        private final String methodName;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private MethodTrace(Signature signature, MeterRegistry meterRegistry) {
+            this.logger = LoggerFactory.getLogger(signature.getDeclaringTypeName());
+            this.methodName = signature.getName();
+            String className = signature.getDeclaringType().getSimpleName();
+            FunctionTimer
+                .builder("aop.method.latency", latency, LatencyHistogram::getCount, LatencyHistogram::getTotalNanos, TimeUnit.NANOSECONDS)
+                .tags("class", className, "method", methodName)
+                .description("Latency of the sampled calls of the method")
+                .register(meterRegistry);
+            for (double quantile : QUANTILES) {
+                Gauge
+                    .builder("aop.method.latency.percentile", latency, histogram -> histogram.getValueAtQuantile(quantile) / 1e9)
+                    .tags("class", className, "method", methodName, "quantile", String.valueOf(quantile))
+                    .baseUnit("seconds")
+                    .description("Latency of the sampled calls of the method at the quantile, since the start")
+                    .register(meterRegistry);
+            }
         }
     }
 }
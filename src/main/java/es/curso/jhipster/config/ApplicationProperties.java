@@ -1,6 +1,12 @@
 package es.curso.jhipster.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Entregar.
@@ -9,4 +15,1172 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Search search = new Search();
+
+    private final Security security = new Security();
+
+    private final Cache cache = new Cache();
+
+    private final Logging logging = new Logging();
+
+    private final Profiler profiler = new Profiler();
+
+    private final Sql sql = new Sql();
+
+    private final ConnectionPool connectionPool = new ConnectionPool();
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
+    public Sql getSql() {
+        return sql;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    public static class ReadReplicas {
+
+        private boolean enabled = false;
+
+        private String selection = "least-loaded";
+
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+        private final List<Target> targets = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSelection() {
+            return selection;
+        }
+
+        public void setSelection(String selection) {
+            this.selection = selection;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public Duration getLagCheckInterval() {
+            return lagCheckInterval;
+        }
+
+        public void setLagCheckInterval(Duration lagCheckInterval) {
+            this.lagCheckInterval = lagCheckInterval;
+        }
+
+        public List<Target> getTargets() {
+            return targets;
+        }
+
+        /**
+         * A replica, whose pool has the settings of the primary one unless overridden.
+         */
+        public static class Target {
+
+            private String name;
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            private Integer maximumPoolSize;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public Integer getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(Integer maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+        }
+    }
+
+    public static class ConnectionPool {
+
+        private boolean enabled = true;
+
+        private boolean adaptive = true;
+
+        private int minSize = 5;
+
+        private int maxSize = 20;
+
+        private Duration sampleInterval = Duration.ofSeconds(5);
+
+        private Duration targetAcquireWait = Duration.ofMillis(5);
+
+        private double saturationFactor = 2;
+
+        private int shrinkAfter = 12;
+
+        private Duration heldThreshold = Duration.ofSeconds(2);
+
+        private Duration heldSampleInterval = Duration.ofMillis(500);
+
+        private int heldCapacity = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public void setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getSampleInterval() {
+            return sampleInterval;
+        }
+
+        public void setSampleInterval(Duration sampleInterval) {
+            this.sampleInterval = sampleInterval;
+        }
+
+        public Duration getTargetAcquireWait() {
+            return targetAcquireWait;
+        }
+
+        public void setTargetAcquireWait(Duration targetAcquireWait) {
+            this.targetAcquireWait = targetAcquireWait;
+        }
+
+        public double getSaturationFactor() {
+            return saturationFactor;
+        }
+
+        public void setSaturationFactor(double saturationFactor) {
+            this.saturationFactor = saturationFactor;
+        }
+
+        public int getShrinkAfter() {
+            return shrinkAfter;
+        }
+
+        public void setShrinkAfter(int shrinkAfter) {
+            this.shrinkAfter = shrinkAfter;
+        }
+
+        public Duration getHeldThreshold() {
+            return heldThreshold;
+        }
+
+        public void setHeldThreshold(Duration heldThreshold) {
+            this.heldThreshold = heldThreshold;
+        }
+
+        public Duration getHeldSampleInterval() {
+            return heldSampleInterval;
+        }
+
+        public void setHeldSampleInterval(Duration heldSampleInterval) {
+            this.heldSampleInterval = heldSampleInterval;
+        }
+
+        public int getHeldCapacity() {
+            return heldCapacity;
+        }
+
+        public void setHeldCapacity(int heldCapacity) {
+            this.heldCapacity = heldCapacity;
+        }
+    }
+
+    public static class Sql {
+
+        private boolean enabled = true;
+
+        private int maxShapes = 500;
+
+        private int repeatedQueryThreshold = 10;
+
+        private int topSize = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxShapes() {
+            return maxShapes;
+        }
+
+        public void setMaxShapes(int maxShapes) {
+            this.maxShapes = maxShapes;
+        }
+
+        public int getRepeatedQueryThreshold() {
+            return repeatedQueryThreshold;
+        }
+
+        public void setRepeatedQueryThreshold(int repeatedQueryThreshold) {
+            this.repeatedQueryThreshold = repeatedQueryThreshold;
+        }
+
+        public int getTopSize() {
+            return topSize;
+        }
+
+        public void setTopSize(int topSize) {
+            this.topSize = topSize;
+        }
+    }
+
+    public static class Profiler {
+
+        private boolean enabled = true;
+
+        private Duration defaultBudget = Duration.ofSeconds(1);
+
+        private final Map<String, Duration> budgets = new LinkedHashMap<>();
+
+        private int capacity = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDefaultBudget() {
+            return defaultBudget;
+        }
+
+        public void setDefaultBudget(Duration defaultBudget) {
+            this.defaultBudget = defaultBudget;
+        }
+
+        public Map<String, Duration> getBudgets() {
+            return budgets;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    public static class Logging {
+
+        private final Aspect aspect = new Aspect();
+
+        public Aspect getAspect() {
+            return aspect;
+        }
+
+        public static class Aspect {
+
+            private boolean enabled = false;
+
+            private double sampleRate = 0.01;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(double sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private String diskDirectory;
+
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public static class Invalidation {
+
+            private String transport = "jdbc";
+
+            private Duration pollInterval = Duration.ofSeconds(1);
+
+            private Duration pollOverlap = Duration.ofSeconds(10);
+
+            private Duration retention = Duration.ofHours(1);
+
+            private Duration purgeInterval = Duration.ofMinutes(10);
+
+            public String getTransport() {
+                return transport;
+            }
+
+            public void setTransport(String transport) {
+                this.transport = transport;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+
+            public Duration getPollOverlap() {
+                return pollOverlap;
+            }
+
+            public void setPollOverlap(Duration pollOverlap) {
+                this.pollOverlap = pollOverlap;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+
+            public Duration getPurgeInterval() {
+                return purgeInterval;
+            }
+
+            public void setPurgeInterval(Duration purgeInterval) {
+                this.purgeInterval = purgeInterval;
+            }
+        }
+
+        public static class WarmUp {
+
+            private boolean enabled = true;
+
+            private int experiencias = 1000;
+
+            private int users = 100;
+
+            private boolean gateReadiness = false;
+
+            private String snapshotFile;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getExperiencias() {
+                return experiencias;
+            }
+
+            public void setExperiencias(int experiencias) {
+                this.experiencias = experiencias;
+            }
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public boolean isGateReadiness() {
+                return gateReadiness;
+            }
+
+            public void setGateReadiness(boolean gateReadiness) {
+                this.gateReadiness = gateReadiness;
+            }
+
+            public String getSnapshotFile() {
+                return snapshotFile;
+            }
+
+            public void setSnapshotFile(String snapshotFile) {
+                this.snapshotFile = snapshotFile;
+            }
+        }
+
+        /**
+         * Settings of a cache, each unset one keeping the default of the cache.
+         */
+        public static class Region {
+
+            private Long heapEntries;
+
+            private DataSize heapSize;
+
+            private DataSize offHeapSize;
+
+            private DataSize diskSize;
+
+            private boolean diskPersistent = true;
+
+            private Duration timeToLive;
+
+            private Duration timeToIdle;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getHeapSize() {
+                return heapSize;
+            }
+
+            public void setHeapSize(DataSize heapSize) {
+                this.heapSize = heapSize;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public DataSize getDiskSize() {
+                return diskSize;
+            }
+
+            public void setDiskSize(DataSize diskSize) {
+                this.diskSize = diskSize;
+            }
+
+            public boolean isDiskPersistent() {
+                return diskPersistent;
+            }
+
+            public void setDiskPersistent(boolean diskPersistent) {
+                this.diskPersistent = diskPersistent;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final Jwt jwt = new Jwt();
+
+        private final Revocation revocation = new Revocation();
+
+        private final Password password = new Password();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private int authenticationCacheMaxEntries = 10000;
+
+        private String trustedProxies;
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public Revocation getRevocation() {
+            return revocation;
+        }
+
+        public Password getPassword() {
+            return password;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public int getAuthenticationCacheMaxEntries() {
+            return authenticationCacheMaxEntries;
+        }
+
+        public void setAuthenticationCacheMaxEntries(int authenticationCacheMaxEntries) {
+            this.authenticationCacheMaxEntries = authenticationCacheMaxEntries;
+        }
+
+        public String getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(String trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        public static class Jwt {
+
+            private String algorithm = "HS512";
+
+            private String keyDirectory;
+
+            private Duration reloadInterval = Duration.ofMinutes(1);
+
+            private boolean acceptHmacTokens = false;
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public String getKeyDirectory() {
+                return keyDirectory;
+            }
+
+            public void setKeyDirectory(String keyDirectory) {
+                this.keyDirectory = keyDirectory;
+            }
+
+            public Duration getReloadInterval() {
+                return reloadInterval;
+            }
+
+            public void setReloadInterval(Duration reloadInterval) {
+                this.reloadInterval = reloadInterval;
+            }
+
+            public boolean isAcceptHmacTokens() {
+                return acceptHmacTokens;
+            }
+
+            public void setAcceptHmacTokens(boolean acceptHmacTokens) {
+                this.acceptHmacTokens = acceptHmacTokens;
+            }
+        }
+
+        public static class Revocation {
+
+            private int expectedRevocations = 100000;
+
+            private double falsePositiveProbability = 0.001;
+
+            private Duration refreshInterval = Duration.ofSeconds(10);
+
+            private Duration refreshOverlap = Duration.ofMinutes(1);
+
+            private Duration rebuildInterval = Duration.ofHours(1);
+
+            public int getExpectedRevocations() {
+                return expectedRevocations;
+            }
+
+            public void setExpectedRevocations(int expectedRevocations) {
+                this.expectedRevocations = expectedRevocations;
+            }
+
+            public double getFalsePositiveProbability() {
+                return falsePositiveProbability;
+            }
+
+            public void setFalsePositiveProbability(double falsePositiveProbability) {
+                this.falsePositiveProbability = falsePositiveProbability;
+            }
+
+            public Duration getRefreshInterval() {
+                return refreshInterval;
+            }
+
+            public void setRefreshInterval(Duration refreshInterval) {
+                this.refreshInterval = refreshInterval;
+            }
+
+            public Duration getRefreshOverlap() {
+                return refreshOverlap;
+            }
+
+            public void setRefreshOverlap(Duration refreshOverlap) {
+                this.refreshOverlap = refreshOverlap;
+            }
+
+            public Duration getRebuildInterval() {
+                return rebuildInterval;
+            }
+
+            public void setRebuildInterval(Duration rebuildInterval) {
+                this.rebuildInterval = rebuildInterval;
+            }
+        }
+
+        public static class Password {
+
+            private int bcryptStrength = 10;
+
+            private Integer hashingThreads;
+
+            private int queueCapacity = 100;
+
+            private Duration retryAfter = Duration.ofSeconds(1);
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public Integer getHashingThreads() {
+                return hashingThreads;
+            }
+
+            public void setHashingThreads(Integer hashingThreads) {
+                this.hashingThreads = hashingThreads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getRetryAfter() {
+                return retryAfter;
+            }
+
+            public void setRetryAfter(Duration retryAfter) {
+                this.retryAfter = retryAfter;
+            }
+        }
+
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            private int maxKeys = 100000;
+
+            private Duration purgeInterval = Duration.ofMinutes(1);
+
+            private final Limit authenticateIp = new Limit(20, Duration.ofMinutes(1));
+
+            private final Limit authenticateLogin = new Limit(5, Duration.ofMinutes(1));
+
+            private final Limit registerIp = new Limit(5, Duration.ofHours(1));
+
+            private final Limit passwordResetIp = new Limit(5, Duration.ofHours(1));
+
+            private final Limit passwordResetMail = new Limit(3, Duration.ofHours(1));
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(int maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+
+            public Duration getPurgeInterval() {
+                return purgeInterval;
+            }
+
+            public void setPurgeInterval(Duration purgeInterval) {
+                this.purgeInterval = purgeInterval;
+            }
+
+            public Limit getAuthenticateIp() {
+                return authenticateIp;
+            }
+
+            public Limit getAuthenticateLogin() {
+                return authenticateLogin;
+            }
+
+            public Limit getRegisterIp() {
+                return registerIp;
+            }
+
+            public Limit getPasswordResetIp() {
+                return passwordResetIp;
+            }
+
+            public Limit getPasswordResetMail() {
+                return passwordResetMail;
+            }
+
+            public static class Limit {
+
+                private int capacity;
+
+                private Duration period;
+
+                public Limit(int capacity, Duration period) {
+                    this.capacity = capacity;
+                    this.period = period;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public Duration getPeriod() {
+                    return period;
+                }
+
+                public void setPeriod(Duration period) {
+                    this.period = period;
+                }
+            }
+        }
+    }
+
+    public static class Search {
+
+        private final Indexer indexer = new Indexer();
+
+        private final Outbox outbox = new Outbox();
+
+        private final Reindex reindex = new Reindex();
+
+        private final Users users = new Users();
+
+        private final Suggest suggest = new Suggest();
+
+        private final Facets facets = new Facets();
+
+        private Integer trackTotalHitsUpTo;
+
+        public Integer getTrackTotalHitsUpTo() {
+            return trackTotalHitsUpTo;
+        }
+
+        public void setTrackTotalHitsUpTo(Integer trackTotalHitsUpTo) {
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+        }
+
+        public Indexer getIndexer() {
+            return indexer;
+        }
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public Reindex getReindex() {
+            return reindex;
+        }
+
+        public Users getUsers() {
+            return users;
+        }
+
+        public Suggest getSuggest() {
+            return suggest;
+        }
+
+        public Facets getFacets() {
+            return facets;
+        }
+
+        public static class Indexer {
+
+            private int queueCapacity = 10000;
+
+            private int batchSize = 500;
+
+            private Duration flushInterval = Duration.ofSeconds(1);
+
+            private Duration offerTimeout = Duration.ofMillis(100);
+
+            private int maxAttempts = 5;
+
+            private Duration initialBackoff = Duration.ofSeconds(1);
+
+            private Duration maxBackoff = Duration.ofMinutes(1);
+
+            private Duration drainTimeout = Duration.ofSeconds(30);
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public Duration getOfferTimeout() {
+                return offerTimeout;
+            }
+
+            public void setOfferTimeout(Duration offerTimeout) {
+                this.offerTimeout = offerTimeout;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+
+            public Duration getDrainTimeout() {
+                return drainTimeout;
+            }
+
+            public void setDrainTimeout(Duration drainTimeout) {
+                this.drainTimeout = drainTimeout;
+            }
+        }
+
+        public static class Outbox {
+
+            private Duration relayInterval = Duration.ofSeconds(10);
+
+            private Duration relayDelay = Duration.ofMinutes(1);
+
+            private int batchSize = 500;
+
+            private Duration retention = Duration.ofHours(6);
+
+            public Duration getRelayInterval() {
+                return relayInterval;
+            }
+
+            public void setRelayInterval(Duration relayInterval) {
+                this.relayInterval = relayInterval;
+            }
+
+            public Duration getRelayDelay() {
+                return relayDelay;
+            }
+
+            public void setRelayDelay(Duration relayDelay) {
+                this.relayDelay = relayDelay;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+        }
+
+        public static class Reindex {
+
+            private int parallelism = 4;
+
+            private int chunkSize = 10000;
+
+            private int batchSize = 1000;
+
+            private Duration replayOverlap = Duration.ofMinutes(1);
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getReplayOverlap() {
+                return replayOverlap;
+            }
+
+            public void setReplayOverlap(Duration replayOverlap) {
+                this.replayOverlap = replayOverlap;
+            }
+        }
+
+        public static class Users {
+
+            private int maxResults = 1000;
+
+            private int batchSize = 100;
+
+            public int getMaxResults() {
+                return maxResults;
+            }
+
+            public void setMaxResults(int maxResults) {
+                this.maxResults = maxResults;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        public static class Suggest {
+
+            private int maxSize = 10;
+
+            private Duration timeout = Duration.ofMillis(20);
+
+            private Duration cacheTtl = Duration.ofSeconds(30);
+
+            private int cacheMaxEntries = 1000;
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public Duration getCacheTtl() {
+                return cacheTtl;
+            }
+
+            public void setCacheTtl(Duration cacheTtl) {
+                this.cacheTtl = cacheTtl;
+            }
+
+            public int getCacheMaxEntries() {
+                return cacheMaxEntries;
+            }
+
+            public void setCacheMaxEntries(int cacheMaxEntries) {
+                this.cacheMaxEntries = cacheMaxEntries;
+            }
+        }
+
+        public static class Facets {
+
+            private Duration fallbackCacheTtl = Duration.ofMinutes(5);
+
+            public Duration getFallbackCacheTtl() {
+                return fallbackCacheTtl;
+            }
+
+            public void setFallbackCacheTtl(Duration fallbackCacheTtl) {
+                this.fallbackCacheTtl = fallbackCacheTtl;
+            }
+        }
+    }
+}
@@ -1,9 +1,26 @@
 package es.curso.jhipster.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.File;
 import java.time.Duration;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -15,24 +32,45 @@ import org.springframework.context.annotation.*;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
+/**
+ * Ehcache configuration.
+ * <p>
+ * Every cache defaults to the {@code jhipster.cache.ehcache} settings, or to its own for the search caches, and can be
+ * sized and expired on its own in {@code application.cache.regions}. Statistics are enabled on every cache, so that
+ * Spring Boot publishes their gets, puts and evictions, and a {@code cache.size} gauge is published for each of them.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
 
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties applicationProperties;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.applicationProperties = applicationProperties;
+    }
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    /**
+     * Create the JCache cache manager, with a persistence directory for the disk tiers if one is configured.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        ClassLoader classLoader = getClass().getClassLoader();
+        String diskDirectory = applicationProperties.getCache().getDiskDirectory();
+        DefaultConfiguration configuration = diskDirectory != null
+            ? new DefaultConfiguration(classLoader, new DefaultPersistenceConfiguration(new File(diskDirectory)))
+            : new DefaultConfiguration(classLoader);
+        javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), configuration);
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
     }
 
     @Bean
@@ -42,24 +80,137 @@ public class CacheConfiguration {
 
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
+        // Suggestions and facets are short lived, as they are not evicted when experiencias change
+        ApplicationProperties.Search search = applicationProperties.getSearch();
         return cm -> {
             createCache(cm, es.curso.jhipster.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, es.curso.jhipster.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, es.curso.jhipster.security.DomainUserDetailsService.USER_DETAILS_CACHE);
             createCache(cm, es.curso.jhipster.domain.User.class.getName());
+            createCache(cm, es.curso.jhipster.domain.User.class.getName() + "##NaturalId");
             createCache(cm, es.curso.jhipster.domain.Authority.class.getName());
             createCache(cm, es.curso.jhipster.domain.User.class.getName() + ".authorities");
             createCache(cm, es.curso.jhipster.domain.Experiencia.class.getName());
+            createCache(cm, es.curso.jhipster.repository.UserRepository.USER_QUERIES_CACHE);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            // Cached query results are valid as long as the timestamps of their tables are, which must never expire
+            createCache(
+                cm,
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                ehcache.getMaxEntries(),
+                ExpiryPolicy.INFINITE
+            );
+            createCache(
+                cm,
+                es.curso.jhipster.service.ExperienciaSuggestService.SUGGESTIONS_CACHE,
+                search.getSuggest().getCacheMaxEntries(),
+                search.getSuggest().getCacheTtl()
+            );
+            createCache(
+                cm,
+                es.curso.jhipster.service.ExperienciaFacetService.FACETS_CACHE,
+                ehcache.getMaxEntries(),
+                search.getFacets().getFallbackCacheTtl()
+            );
             // jhipster-needle-ehcache-add-entry
+            applicationProperties
+                .getCache()
+                .getRegions()
+                .keySet()
+                .stream()
+                .filter(cacheName -> cm.getCache(cacheName) == null)
+                .forEach(cacheName -> log.warn("The cache {} is configured in application.cache.regions, but does not exist", cacheName));
+        };
+    }
+
+    /**
+     * Publish the number of entries of each cache, read from the mapping count of its authoritative tier, which holds all
+     * of them, as JCache has no size statistic.
+     */
+    @Bean
+    public MeterBinder cacheSizeMetrics(javax.cache.CacheManager cacheManager) {
+        return registry -> {
+            StatisticsService statisticsService = EhcacheStatisticsServiceFactory
+                .getStatisticsService(cacheManager.unwrap(org.ehcache.CacheManager.class))
+                .orElse(null);
+            if (statisticsService == null) {
+                log.warn("The Ehcache statistics service is not available, the cache sizes will not be published");
+                return;
+            }
+            for (String cacheName : cacheManager.getCacheNames()) {
+                Gauge
+                    .builder("cache.size", statisticsService.getCacheStatistics(cacheName), CacheConfiguration::getMappings)
+                    .tags("cache", cacheName, "cacheManager", "cacheManager")
+                    .description("The number of entries in this cache")
+                    .strongReference(true)
+                    .register(registry);
+            }
         };
     }
 
+    private static double getMappings(CacheStatistics statistics) {
+        long mappings = statistics.getTierStatistics().values().stream().mapToLong(TierStatistics::getMappings).max().orElse(-1);
+        return mappings < 0 ? Double.NaN : mappings;
+    }
+
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, ehcache.getMaxEntries(), Duration.ofSeconds(ehcache.getTimeToLiveSeconds()));
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, long defaultMaxEntries, Duration defaultTimeToLive) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, newJcacheConfiguration(cacheName, defaultMaxEntries, defaultTimeToLive));
+        }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> newJcacheConfiguration(
+        String cacheName,
+        long defaultMaxEntries,
+        Duration defaultTimeToLive
+    ) {
+        ApplicationProperties.Cache.Region region = applicationProperties
+            .getCache()
+            .getRegions()
+            .getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        if (region.getHeapEntries() != null && region.getHeapSize() != null) {
+            throw new IllegalArgumentException("The cache " + cacheName + " can't be sized both in entries and in bytes on heap");
+        }
+        ResourcePoolsBuilder resourcePools = region.getHeapSize() != null
+            ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapSize().toBytes(), MemoryUnit.B)
+            : ResourcePoolsBuilder.heap(region.getHeapEntries() != null ? region.getHeapEntries() : defaultMaxEntries);
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        if (region.getDiskSize() != null) {
+            if (applicationProperties.getCache().getDiskDirectory() == null) {
+                throw new IllegalStateException(
+                    "The cache " + cacheName + " has a disk tier, but application.cache.disk-directory is not set"
+                );
+            }
+            resourcePools = resourcePools.disk(region.getDiskSize().toBytes(), MemoryUnit.B, region.isDiskPersistent());
+        }
+
+        Duration timeToLive = region.getTimeToLive() != null ? region.getTimeToLive() : defaultTimeToLive;
+        ExpiryPolicy<Object, Object> expiryPolicy = region.getTimeToIdle() != null
+            ? ExpiryPolicyBuilder.expiry().create(timeToLive).update(timeToLive).access(region.getTimeToIdle()).build()
+            : ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive);
+
+        CacheConfigurationBuilder<Object, Object> cacheConfiguration = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiryPolicy);
+        if (region.getOffHeapSize() != null || region.getDiskSize() != null) {
+            // Off-heap and disk tiers store serialized entries, and Ehcache has no default serializer for Object
+            ClassLoader classLoader = getClass().getClassLoader();
+            cacheConfiguration =
+                cacheConfiguration
+                    .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                    .withValueSerializer(new PlainJavaSerializer<>(classLoader));
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfiguration.build());
     }
 
     @Autowired(required = false)
@@ -1,8 +1,17 @@
 package es.curso.jhipster.config;
 
+import es.curso.jhipster.jdbc.ConnectionHoldTracker;
+import es.curso.jhipster.jdbc.HoldTrackingDataSource;
+import es.curso.jhipster.jdbc.ReadReplicas;
+import es.curso.jhipster.jdbc.ReplicaRoutingDataSource;
+import es.curso.jhipster.jdbc.SqlStatistics;
+import es.curso.jhipster.jdbc.StatisticsDataSource;
 import java.sql.SQLException;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -10,6 +19,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -43,6 +53,53 @@ public class DatabaseConfiguration {
         return H2ConfigurationHelper.createServer(port);
     }
 
+    /**
+     * Wrap the data source, so that the read-only transactions are routed to the {@link ReadReplicas} if enabled, the
+     * connections held away from the database are tracked by the {@link ConnectionHoldTracker}, and the statements run
+     * by the application are recorded in the {@link SqlStatistics}.
+     * <p>
+     * The wrapped data source still unwraps to the connection pool of the primary, for its metrics and health checks.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourcePostProcessor(
+        ObjectProvider<ApplicationProperties> applicationProperties,
+        ObjectProvider<SqlStatistics> sqlStatistics,
+        ObjectProvider<ConnectionHoldTracker> connectionHoldTracker,
+        ObjectProvider<ReadReplicas> readReplicas
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (
+                    !(bean instanceof DataSource) ||
+                    bean instanceof ReplicaRoutingDataSource ||
+                    bean instanceof HoldTrackingDataSource ||
+                    bean instanceof StatisticsDataSource
+                ) {
+                    return bean;
+                }
+                DataSource dataSource = (DataSource) bean;
+                ReadReplicas replicas = readReplicas.getIfAvailable();
+                if (replicas != null) {
+                    dataSource = replicas.route(dataSource);
+                }
+                ConnectionHoldTracker tracker = connectionHoldTracker.getIfAvailable();
+                if (tracker != null) {
+                    dataSource = new HoldTrackingDataSource(dataSource, tracker);
+                }
+                if (replicas != null) {
+                    // The connection is only obtained, and routed, once the transaction is marked read-only
+                    dataSource = new LazyConnectionDataSourceProxy(dataSource);
+                }
+                if (applicationProperties.getObject().getSql().isEnabled()) {
+                    // Outermost, so that the connection of a statement is the one tracking its release
+                    dataSource = new StatisticsDataSource(dataSource, sqlStatistics.getObject());
+                }
+                return dataSource;
+            }
+        };
+    }
+
     private String getValidPortForH2() {
         int port = Integer.parseInt(env.getProperty("server.port"));
         if (port < 10000) {
@@ -0,0 +1,151 @@
+package es.curso.jhipster.config;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+import org.ehcache.CacheManager;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.OperationObserver;
+import org.ehcache.core.statistics.OperationStatistic;
+import org.ehcache.core.statistics.StatisticType;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+import org.ehcache.spi.service.ServiceDependencies;
+import org.ehcache.spi.service.ServiceProvider;
+
+/**
+ * Factory of the Ehcache statistics services, keeping the statistics service of each cache manager, as the JCache cache
+ * managers don't expose it.
+ * <p>
+ * It is registered in {@code META-INF/services}, and ranks over the default factory of Ehcache, to which it delegates.
+ */
+public class EhcacheStatisticsServiceFactory implements ServiceFactory<StatisticsService> {
+
+    private static final Map<CacheManager, StatisticsService> STATISTICS_SERVICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param cacheManager an Ehcache cache manager, such as the one of a JCache cache manager.
+     * @return the statistics service of the cache manager, or empty if it was not created by this factory.
+     */
+    public static Optional<StatisticsService> getStatisticsService(CacheManager cacheManager) {
+        return Optional.ofNullable(STATISTICS_SERVICES.get(cacheManager));
+    }
+
+    @Override
+    public int rank() {
+        return ServiceFactory.super.rank() + 1;
+    }
+
+    @Override
+    public StatisticsService create(ServiceCreationConfiguration<StatisticsService, ?> configuration) {
+        return new KeptStatisticsService(getDefaultFactory().create(configuration));
+    }
+
+    @Override
+    public Class<? extends StatisticsService> getServiceType() {
+        return KeptStatisticsService.class;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ServiceFactory<StatisticsService> getDefaultFactory() {
+        Iterable<ServiceFactory> factories = ServiceLoader.load(ServiceFactory.class, StatisticsService.class.getClassLoader());
+        return StreamSupport
+            .stream(factories.spliterator(), false)
+            .filter(factory -> !(factory instanceof EhcacheStatisticsServiceFactory))
+            .filter(factory -> StatisticsService.class.isAssignableFrom(factory.getServiceType()))
+            .max(Comparator.comparingInt(ServiceFactory::rank))
+            .orElseThrow(() -> new IllegalStateException("No Ehcache statistics service factory found"));
+    }
+
+    /**
+     * Statistics service delegating to the default one, and kept for its cache manager while started.
+     */
+    @ServiceDependencies(CacheManagerProviderService.class)
+    private static final class KeptStatisticsService implements StatisticsService {
+
+        private final StatisticsService delegate;
+
+        private CacheManager cacheManager;
+
+        private KeptStatisticsService(StatisticsService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void start(ServiceProvider<Service> serviceProvider) {
+            delegate.start(serviceProvider);
+            cacheManager = serviceProvider.getService(CacheManagerProviderService.class).getCacheManager();
+            STATISTICS_SERVICES.put(cacheManager, this);
+        }
+
+        @Override
+        public void stop() {
+            STATISTICS_SERVICES.remove(cacheManager);
+            delegate.stop();
+        }
+
+        @Override
+        public CacheStatistics getCacheStatistics(String cacheName) {
+            return delegate.getCacheStatistics(cacheName);
+        }
+
+        @Override
+        public void registerWithParent(Object toAssociate, Object parent) {
+            delegate.registerWithParent(toAssociate, parent);
+        }
+
+        @Override
+        public <K, V, S extends Enum<S>, T extends Enum<T>> OperationStatistic<T> registerStoreStatistics(
+            Store<K, V> store,
+            String targetName,
+            int tierHeight,
+            String tag,
+            Map<T, Set<S>> translation,
+            String statisticName
+        ) {
+            return delegate.registerStoreStatistics(store, targetName, tierHeight, tag, translation, statisticName);
+        }
+
+        @Override
+        public void deRegisterFromParent(Object toDeassociate, Object parent) {
+            delegate.deRegisterFromParent(toDeassociate, parent);
+        }
+
+        @Override
+        public void cleanForNode(Object node) {
+            delegate.cleanForNode(node);
+        }
+
+        @Override
+        public <T extends Serializable> void registerStatistic(
+            Object context,
+            String name,
+            StatisticType type,
+            Set<String> tags,
+            Supplier<T> valueSupplier
+        ) {
+            delegate.registerStatistic(context, name, type, tags, valueSupplier);
+        }
+
+        @Override
+        public <T extends Enum<T>> OperationObserver<T> createOperationStatistics(
+            String name,
+            Class<T> outcome,
+            String tag,
+            Object context
+        ) {
+            return delegate.createOperationStatistics(name, outcome, tag, context);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package es.curso.jhipster.config;
 
 import es.curso.jhipster.aop.logging.LoggingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -11,7 +13,14 @@ public class LoggingAspectConfiguration {
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect(Environment env, MeterRegistry meterRegistry) {
+        return new LoggingAspect(env, 1, meterRegistry);
+    }
+
+    @Bean
+    @Profile("!" + JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "application.logging.aspect", name = "enabled", havingValue = "true")
+    public LoggingAspect samplingLoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new LoggingAspect(env, applicationProperties.getLogging().getAspect().getSampleRate(), meterRegistry);
     }
 }
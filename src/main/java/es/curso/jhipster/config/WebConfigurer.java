@@ -2,6 +2,12 @@ package es.curso.jhipster.config;
 
 import static java.net.URLDecoder.decode;
 
+import es.curso.jhipster.web.filter.TrustedProxyFilter;
+import es.curso.jhipster.web.profiler.RequestProfilerAspect;
+import es.curso.jhipster.web.profiler.RequestProfilerFilter;
+import es.curso.jhipster.web.profiler.RequestProfilerInterceptor;
+import es.curso.jhipster.web.profiler.SlowRequestLog;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
@@ -9,17 +15,23 @@ import java.util.*;
 import javax.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -28,7 +40,7 @@ import tech.jhipster.config.h2.H2ConfigurationHelper;
  * Configuration of web application with Servlet 3.0 APIs.
  */
 @Configuration
-public class WebConfigurer implements ServletContextInitializer, WebServerFactoryCustomizer<WebServerFactory> {
+public class WebConfigurer implements ServletContextInitializer, WebServerFactoryCustomizer<WebServerFactory>, WebMvcConfigurer {
 
     private final Logger log = LoggerFactory.getLogger(WebConfigurer.class);
 
@@ -36,9 +48,12 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -104,6 +119,45 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    /**
+     * Read the client address of the requests sent by the trusted proxies, before any other filter.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.security", name = "trusted-proxies")
+    public FilterRegistrationBean<TrustedProxyFilter> trustedProxyFilter() {
+        FilterRegistrationBean<TrustedProxyFilter> registration = new FilterRegistrationBean<>(
+            new TrustedProxyFilter(applicationProperties)
+        );
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Time the phases of every request, from before the security filters.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RequestProfilerFilter> requestProfilerFilter(SlowRequestLog slowRequestLog, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestProfilerFilter> registration = new FilterRegistrationBean<>(
+            new RequestProfilerFilter(applicationProperties, slowRequestLog, meterRegistry)
+        );
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RequestProfilerAspect requestProfilerAspect() {
+        return new RequestProfilerAspect();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (applicationProperties.getProfiler().isEnabled()) {
+            registry.addInterceptor(new RequestProfilerInterceptor());
+        }
+    }
+
     /**
      * Initializes H2 console.
      */
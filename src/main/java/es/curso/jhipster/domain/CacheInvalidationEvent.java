@@ -0,0 +1,115 @@
+package es.curso.jhipster.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A batch of cache invalidations committed by an instance, polled by the other ones, and deleted once they all had the
+ * time to apply it.
+ */
+@Entity
+@Table(name = "cache_invalidation")
+public class CacheInvalidationEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 36)
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(name = "node_id", length = 36, nullable = false)
+    private String nodeId;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    public String getId() {
+        return this.id;
+    }
+
+    public CacheInvalidationEvent id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public CacheInvalidationEvent nodeId(String nodeId) {
+        this.setNodeId(nodeId);
+        return this;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public CacheInvalidationEvent createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public CacheInvalidationEvent payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidationEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((CacheInvalidationEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CacheInvalidationEvent{" +
+            "id='" + getId() + "'" +
+            ", nodeId='" + getNodeId() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -14,17 +14,39 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Table(name = "experiencia")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "experiencia")
+@org.springframework.data.elasticsearch.annotations.Setting(settingPath = "/config/elasticsearch/experiencia-settings.json")
 public class Experiencia implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "experienciaIdGenerator")
+    @TableGenerator(
+        name = "experienciaIdGenerator",
+        table = "id_generator",
+        pkColumnName = "gen_name",
+        valueColumnName = "gen_value",
+        pkColumnValue = "experiencia",
+        allocationSize = 50
+    )
     @Column(name = "id")
     private Long id;
 
     @NotNull
     @Size(min = 4, max = 150)
+    @org.springframework.data.elasticsearch.annotations.MultiField(
+        mainField = @org.springframework.data.elasticsearch.annotations.Field(
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text
+        ),
+        otherFields = {
+            @org.springframework.data.elasticsearch.annotations.InnerField(
+                suffix = "suggest",
+                type = org.springframework.data.elasticsearch.annotations.FieldType.Text,
+                analyzer = "autocomplete",
+                searchAnalyzer = "autocomplete_search"
+            )
+        }
+    )
     @Column(name = "titulo", length = 150, nullable = false)
     private String titulo;
 
@@ -33,9 +55,30 @@ public class Experiencia implements Serializable {
     private String descripcion;
 
     @Size(min = 4, max = 150)
+    @org.springframework.data.elasticsearch.annotations.MultiField(
+        mainField = @org.springframework.data.elasticsearch.annotations.Field(
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text
+        ),
+        otherFields = {
+            @org.springframework.data.elasticsearch.annotations.InnerField(
+                suffix = "suggest",
+                type = org.springframework.data.elasticsearch.annotations.FieldType.Text,
+                analyzer = "autocomplete",
+                searchAnalyzer = "autocomplete_search"
+            ),
+            @org.springframework.data.elasticsearch.annotations.InnerField(
+                suffix = "keyword",
+                type = org.springframework.data.elasticsearch.annotations.FieldType.Keyword
+            )
+        }
+    )
     @Column(name = "localizacion", length = 150)
     private String localizacion;
 
+    @org.springframework.data.elasticsearch.annotations.Field(
+        type = org.springframework.data.elasticsearch.annotations.FieldType.Date,
+        format = org.springframework.data.elasticsearch.annotations.DateFormat.date
+    )
     @Column(name = "fecha")
     private LocalDate fecha;
 
@@ -0,0 +1,114 @@
+package es.curso.jhipster.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A token revoked before its expiration, identified by its {@code jti} claim, and deleted once it has expired.
+ */
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 36)
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Size(max = 50)
+    @Column(name = "login", length = 50)
+    private String login;
+
+    @NotNull
+    @Column(name = "expiration_date", nullable = false)
+    private Instant expirationDate;
+
+    @NotNull
+    @Column(name = "revoked_date", nullable = false)
+    private Instant revokedDate;
+
+    public String getJti() {
+        return this.jti;
+    }
+
+    public RevokedToken jti(String jti) {
+        this.setJti(jti);
+        return this;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public String getLogin() {
+        return this.login;
+    }
+
+    public RevokedToken login(String login) {
+        this.setLogin(login);
+        return this;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getExpirationDate() {
+        return this.expirationDate;
+    }
+
+    public RevokedToken expirationDate(Instant expirationDate) {
+        this.setExpirationDate(expirationDate);
+        return this;
+    }
+
+    public void setExpirationDate(Instant expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    public Instant getRevokedDate() {
+        return this.revokedDate;
+    }
+
+    public RevokedToken revokedDate(Instant revokedDate) {
+        this.setRevokedDate(revokedDate);
+        return this;
+    }
+
+    public void setRevokedDate(Instant revokedDate) {
+        this.revokedDate = revokedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedToken)) {
+            return false;
+        }
+        return jti != null && jti.equals(((RevokedToken) o).jti);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "jti='" + getJti() + "'" +
+            ", login='" + getLogin() + "'" +
+            ", expirationDate='" + getExpirationDate() + "'" +
+            ", revokedDate='" + getRevokedDate() + "'" +
+            "}";
+    }
+}
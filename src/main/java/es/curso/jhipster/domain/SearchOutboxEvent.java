@@ -0,0 +1,167 @@
+package es.curso.jhipster.domain;
+
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A change to a search document, written in the same transaction as the change itself and marked processed once the
+ * document is synchronized with Elasticsearch. Processed events are kept for {@code application.search.outbox.retention},
+ * as the rebuilds of the search indices replay them.
+ */
+@Entity
+@Table(name = "search_outbox")
+public class SearchOutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "searchOutboxIdGenerator")
+    @TableGenerator(
+        name = "searchOutboxIdGenerator",
+        table = "id_generator",
+        pkColumnName = "gen_name",
+        valueColumnName = "gen_value",
+        pkColumnValue = "search_outbox",
+        allocationSize = 50
+    )
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", length = 20, nullable = false)
+    private SearchDocumentType documentType;
+
+    @NotNull
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "processed_date")
+    private Instant processedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchDocumentType getDocumentType() {
+        return this.documentType;
+    }
+
+    public SearchOutboxEvent documentType(SearchDocumentType documentType) {
+        this.setDocumentType(documentType);
+        return this;
+    }
+
+    public void setDocumentType(SearchDocumentType documentType) {
+        this.documentType = documentType;
+    }
+
+    public Long getDocumentId() {
+        return this.documentId;
+    }
+
+    public SearchOutboxEvent documentId(Long documentId) {
+        this.setDocumentId(documentId);
+        return this;
+    }
+
+    public void setDocumentId(Long documentId) {
+        this.documentId = documentId;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public SearchOutboxEvent createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getNextAttemptDate() {
+        return this.nextAttemptDate;
+    }
+
+    public SearchOutboxEvent nextAttemptDate(Instant nextAttemptDate) {
+        this.setNextAttemptDate(nextAttemptDate);
+        return this;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getProcessedDate() {
+        return this.processedDate;
+    }
+
+    public SearchOutboxEvent processedDate(Instant processedDate) {
+        this.setProcessedDate(processedDate);
+        return this;
+    }
+
+    public void setProcessedDate(Instant processedDate) {
+        this.processedDate = processedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchOutboxEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchOutboxEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchOutboxEvent{" +
+            "id=" + getId() +
+            ", documentType='" + getDocumentType() + "'" +
+            ", documentId=" + getDocumentId() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", nextAttemptDate='" + getNextAttemptDate() + "'" +
+            ", attempts=" + getAttempts() +
+            ", processedDate='" + getProcessedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,9 @@
+package es.curso.jhipster.domain.enumeration;
+
+/**
+ * The entities which are indexed in Elasticsearch.
+ */
+public enum SearchDocumentType {
+    EXPERIENCIA,
+    USER,
+}
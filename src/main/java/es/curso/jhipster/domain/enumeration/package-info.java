@@ -0,0 +1,4 @@
+/**
+ * JPA domain enumerations.
+ */
+package es.curso.jhipster.domain.enumeration;
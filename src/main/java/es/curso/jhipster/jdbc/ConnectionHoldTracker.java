@@ -0,0 +1,195 @@
+package es.curso.jhipster.jdbc;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracker of the connections held longer than {@code application.connection-pool.held-threshold} while their thread
+ * is away from the database, such as a transaction calling Elasticsearch or a mail server.
+ * <p>
+ * The stacks of the threads holding such connections are sampled every {@code held-sample-interval}: the samples
+ * where the thread is not within the connection pool proxies, that is not running a statement, show what it does
+ * instead. When the connection is released, a {@link HeldConnectionEvent} with these samples is kept and logged.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.connection-pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionHoldTracker {
+
+    /**
+     * The frames of the pool, found on the stack of a thread running a statement or obtaining a connection.
+     */
+    private static final String POOL_FRAME_PREFIX = "com.zaxxer.hikari.";
+
+    private static final int MAX_FRAMES = 20;
+
+    private static final int MAX_STACK_SAMPLES = 5;
+
+    private final Logger log = LoggerFactory.getLogger(ConnectionHoldTracker.class);
+
+    private final Set<Hold> holds = ConcurrentHashMap.newKeySet();
+
+    private final Deque<HeldConnectionEvent> events = new ArrayDeque<>();
+
+    private final long heldThresholdNanos;
+
+    private final int capacity;
+
+    private final Counter heldCounter;
+
+    public ConnectionHoldTracker(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.ConnectionPool properties = applicationProperties.getConnectionPool();
+        this.heldThresholdNanos = properties.getHeldThreshold().toNanos();
+        this.capacity = properties.getHeldCapacity();
+        this.heldCounter =
+            Counter
+                .builder("jdbc.connections.held")
+                .description("Number of connections held over held-threshold while their thread was away from the database")
+                .register(meterRegistry);
+    }
+
+    Connection track(Connection connection) {
+        Hold hold = new Hold(connection, Thread.currentThread(), System.nanoTime());
+        holds.add(hold);
+        return JdbcProxies.create(
+            Connection.class,
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    release(hold);
+                }
+                return JdbcProxies.invoke(connection, method, args);
+            }
+        );
+    }
+
+    private void release(Hold hold) {
+        if (!holds.remove(hold)) {
+            return;
+        }
+        long heldNanos = System.nanoTime() - hold.acquiredNanos;
+        List<List<String>> stackSamples = hold.getStackSamples();
+        if (heldNanos < heldThresholdNanos || stackSamples.isEmpty()) {
+            return;
+        }
+        HeldConnectionEvent event = new HeldConnectionEvent(
+            Instant.now(),
+            hold.thread.getName(),
+            heldNanos / 1e6,
+            hold.idleSamples,
+            stackSamples
+        );
+        heldCounter.increment();
+        log.warn(
+            "Connection held {} ms by {}, which was away from the database {} times, last at:\n\t{}",
+            Math.round(event.getHeldMillis()),
+            event.getThreadName(),
+            event.getIdleSamples(),
+            String.join("\n\t", stackSamples.get(stackSamples.size() - 1))
+        );
+        synchronized (events) {
+            if (events.size() == capacity) {
+                events.removeLast();
+            }
+            events.addFirst(event);
+        }
+    }
+
+    /**
+     * Sample the stacks of the threads holding a connection for longer than the threshold.
+     */
+    @Scheduled(fixedDelayString = "${application.connection-pool.held-sample-interval:PT0.5S}")
+    public void sample() {
+        long now = System.nanoTime();
+        for (Hold hold : holds) {
+            if (now - hold.acquiredNanos < heldThresholdNanos) {
+                continue;
+            }
+            if (hold.isClosed()) {
+                // Closed without going through the tracking proxy
+                holds.remove(hold);
+                continue;
+            }
+            StackTraceElement[] stack = hold.thread.getStackTrace();
+            if (Arrays.stream(stack).noneMatch(frame -> frame.getClassName().startsWith(POOL_FRAME_PREFIX))) {
+                hold.addIdleSample(stack);
+            }
+        }
+    }
+
+    /**
+     * @return the last connections held away from the database, most recent first.
+     */
+    public List<HeldConnectionEvent> getEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    /**
+     * @return the number of connections currently held.
+     */
+    public int getHeldConnections() {
+        return holds.size();
+    }
+
+    private static final class Hold {
+
+        private final Connection connection;
+
+        private final Thread thread;
+
+        private final long acquiredNanos;
+
+        /**
+         * Only updated by the sampling thread, and read once the connection is released.
+         */
+        private volatile int idleSamples;
+
+        private final List<List<String>> stackSamples = Collections.synchronizedList(new ArrayList<>());
+
+        Hold(Connection connection, Thread thread, long acquiredNanos) {
+            this.connection = connection;
+            this.thread = thread;
+            this.acquiredNanos = acquiredNanos;
+        }
+
+        boolean isClosed() {
+            try {
+                return connection.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        void addIdleSample(StackTraceElement[] stack) {
+            idleSamples++;
+            List<String> frames = Arrays.stream(stack).limit(MAX_FRAMES).map(StackTraceElement::toString).collect(Collectors.toList());
+            if (stackSamples.size() < MAX_STACK_SAMPLES && !stackSamples.contains(frames)) {
+                stackSamples.add(frames);
+            }
+        }
+
+        List<List<String>> getStackSamples() {
+            synchronized (stackSamples) {
+                return new ArrayList<>(stackSamples);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package es.curso.jhipster.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Controller sampling the Hikari connection pool, and adjusting its maximum size within
+ * {@code application.connection-pool.min-size} and {@code max-size}.
+ * <p>
+ * Every {@code sample-interval}, the acquisitions and usages of connections since the previous sample are read from
+ * the {@code hikaricp.connections.acquire} and {@code hikaricp.connections.usage} timers, and the statements executed
+ * since the previous sample from the {@link SqlStatistics}. The pool grows when threads wait for a connection longer
+ * than {@code target-acquire-wait}, unless the database is saturated: the statements then take more than
+ * {@code saturation-factor} times longer than their recent average, and the pool shrinks instead, as more connections
+ * would only queue more work on the database. That average leaves out the samples with saturation, and starts from a
+ * sample in which no thread waited for a connection. The time the connections are held is not a sign of saturation, as it
+ * includes the time their transactions spend away from the database. The pool also shrinks when less than half of it
+ * was in use for {@code shrink-after} samples in a row.
+ * <p>
+ * The database is never deemed saturated while the statistics of the statements are disabled with
+ * {@code application.sql.enabled}.
+ * <p>
+ * Hikari creates the connections of a grown pool on demand; the connections over a shrunk maximum are only closed
+ * when idle for {@code spring.datasource.hikari.idle-timeout}, if the minimum idle is smaller than the maximum.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.connection-pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionPoolController {
+
+    /**
+     * Weight of each sample in the average statement time, which follows a lasting change within about twenty samples.
+     */
+    private static final double BASELINE_WEIGHT = 0.1;
+
+    private final Logger log = LoggerFactory.getLogger(ConnectionPoolController.class);
+
+    private final HikariDataSource dataSource;
+
+    private final ApplicationProperties.ConnectionPool properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final SqlStatistics sqlStatistics;
+
+    private final double targetAcquireWaitMillis;
+
+    private final Counter growCounter;
+
+    private final Counter shrinkCounter;
+
+    private long lastSampleNanos;
+
+    private long lastAcquireCount;
+
+    private double lastAcquireNanos;
+
+    private long lastUsageCount;
+
+    private double lastUsageMillis;
+
+    private long lastExecutions;
+
+    private long lastExecutionNanos;
+
+    private double baselineStatementMillis;
+
+    private boolean saturated;
+
+    private int underusedSamples;
+
+    private volatile ConnectionPoolSample lastSample;
+
+    public ConnectionPoolController(
+        DataSource dataSource,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        SqlStatistics sqlStatistics
+    ) {
+        this.dataSource = unwrap(dataSource);
+        this.properties = applicationProperties.getConnectionPool();
+        this.meterRegistry = meterRegistry;
+        this.sqlStatistics = sqlStatistics;
+        this.targetAcquireWaitMillis = properties.getTargetAcquireWait().toNanos() / 1e6;
+        this.growCounter = Counter.builder("hikaricp.connections.resize").tag("direction", "grow").register(meterRegistry);
+        this.shrinkCounter = Counter.builder("hikaricp.connections.resize").tag("direction", "shrink").register(meterRegistry);
+    }
+
+    private HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not unwrap the data source: {}", e.getMessage());
+        }
+        log.info("The data source is not a Hikari pool, its size will not be adjusted");
+        return null;
+    }
+
+    /**
+     * Sample the pool, and adjust its maximum size if adaptive.
+     */
+    @Scheduled(fixedDelayString = "${application.connection-pool.sample-interval:PT5S}")
+    public synchronized void sample() {
+        HikariPoolMXBean pool = dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+        if (pool == null) {
+            return;
+        }
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", dataSource.getPoolName()).timer();
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", dataSource.getPoolName()).timer();
+        if (acquire == null || usage == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long acquireCount = acquire.count();
+        double acquireNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        long usageCount = usage.count();
+        double usageMillis = usage.totalTime(TimeUnit.MILLISECONDS);
+        long executions = sqlStatistics.getExecutions();
+        long executionNanos = sqlStatistics.getExecutionNanos();
+        if (lastSampleNanos != 0) {
+            long acquisitions = acquireCount - lastAcquireCount;
+            long usages = usageCount - lastUsageCount;
+            long statements = executions - lastExecutions;
+            double meanAcquireWaitMillis = acquisitions > 0 ? (acquireNanos - lastAcquireNanos) / 1e6 / acquisitions : 0;
+            double meanUsageMillis = usages > 0 ? (usageMillis - lastUsageMillis) / usages : 0;
+            double meanStatementMillis = statements > 0 ? (executionNanos - lastExecutionNanos) / 1e6 / statements : 0;
+            // Little's law: the connection time used during the interval, divided by the interval
+            double averageInUse = (usageMillis - lastUsageMillis) / ((now - lastSampleNanos) / 1e6);
+            int pendingThreads = pool.getThreadsAwaitingConnection();
+            int maximumPoolSize = dataSource.getMaximumPoolSize();
+            int nextMaximumPoolSize = nextMaximumPoolSize(
+                maximumPoolSize,
+                meanAcquireWaitMillis,
+                pendingThreads,
+                meanStatementMillis,
+                averageInUse
+            );
+            if (properties.isAdaptive() && nextMaximumPoolSize != maximumPoolSize) {
+                log.info(
+                    "Resizing the connection pool from {} to {}: acquire wait {} ms, {} pending threads, statements {} ms ({} ms usually)",
+                    maximumPoolSize,
+                    nextMaximumPoolSize,
+                    Math.round(meanAcquireWaitMillis),
+                    pendingThreads,
+                    String.format("%.2f", meanStatementMillis),
+                    String.format("%.2f", baselineStatementMillis)
+                );
+                dataSource.getHikariConfigMXBean().setMaximumPoolSize(nextMaximumPoolSize);
+                (nextMaximumPoolSize > maximumPoolSize ? growCounter : shrinkCounter).increment();
+                maximumPoolSize = nextMaximumPoolSize;
+            }
+            lastSample =
+                new ConnectionPoolSample(
+                    Instant.now(),
+                    maximumPoolSize,
+                    pool.getActiveConnections(),
+                    pool.getIdleConnections(),
+                    pendingThreads,
+                    meanAcquireWaitMillis,
+                    meanUsageMillis,
+                    meanStatementMillis,
+                    baselineStatementMillis,
+                    averageInUse,
+                    saturated
+                );
+        }
+        lastSampleNanos = now;
+        lastAcquireCount = acquireCount;
+        lastAcquireNanos = acquireNanos;
+        lastUsageCount = usageCount;
+        lastUsageMillis = usageMillis;
+        lastExecutions = executions;
+        lastExecutionNanos = executionNanos;
+    }
+
+    /**
+     * @return the maximum pool size for the activity of the last interval, within the bounds.
+     */
+    int nextMaximumPoolSize(
+        int maximumPoolSize,
+        double meanAcquireWaitMillis,
+        int pendingThreads,
+        double meanStatementMillis,
+        double averageInUse
+    ) {
+        saturated = baselineStatementMillis > 0 && meanStatementMillis > baselineStatementMillis * properties.getSaturationFactor();
+        boolean contended = meanAcquireWaitMillis > targetAcquireWaitMillis || pendingThreads > 0;
+        // The average is frozen while saturated, so that lasting slow statements are not taken for usual ones, and is
+        // seeded from a sample without contention, as the statements of an overloaded database are already slow
+        if (baselineStatementMillis == 0) {
+            if (!contended) {
+                baselineStatementMillis = meanStatementMillis;
+            }
+        } else if (meanStatementMillis > 0 && !saturated) {
+            baselineStatementMillis += (meanStatementMillis - baselineStatementMillis) * BASELINE_WEIGHT;
+        }
+        int next = maximumPoolSize;
+        if (saturated) {
+            underusedSamples = 0;
+            next = maximumPoolSize - 1;
+        } else if (contended) {
+            underusedSamples = 0;
+            next = maximumPoolSize + Math.max(1, pendingThreads);
+        } else if (averageInUse < maximumPoolSize / 2.0) {
+            if (++underusedSamples >= properties.getShrinkAfter()) {
+                underusedSamples = 0;
+                next = maximumPoolSize - 1;
+            }
+        } else {
+            underusedSamples = 0;
+        }
+        return Math.max(properties.getMinSize(), Math.min(properties.getMaxSize(), next));
+    }
+
+    /**
+     * @return the last sample of the pool, or {@code null} if not sampled yet.
+     */
+    public ConnectionPoolSample getLastSample() {
+        return lastSample;
+    }
+}
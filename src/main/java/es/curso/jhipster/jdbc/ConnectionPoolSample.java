@@ -0,0 +1,134 @@
+package es.curso.jhipster.jdbc;
+
+import java.time.Instant;
+
+/**
+ * The state of the connection pool, and its activity since the previous sample.
+ */
+public final class ConnectionPoolSample {
+
+    private final Instant date;
+
+    private final int maximumPoolSize;
+
+    private final int activeConnections;
+
+    private final int idleConnections;
+
+    private final int pendingThreads;
+
+    private final double meanAcquireWaitMillis;
+
+    private final double meanUsageMillis;
+
+    private final double meanStatementMillis;
+
+    private final double baselineStatementMillis;
+
+    private final double averageInUse;
+
+    private final boolean saturated;
+
+    ConnectionPoolSample(
+        Instant date,
+        int maximumPoolSize,
+        int activeConnections,
+        int idleConnections,
+        int pendingThreads,
+        double meanAcquireWaitMillis,
+        double meanUsageMillis,
+        double meanStatementMillis,
+        double baselineStatementMillis,
+        double averageInUse,
+        boolean saturated
+    ) {
+        this.date = date;
+        this.maximumPoolSize = maximumPoolSize;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.pendingThreads = pendingThreads;
+        this.meanAcquireWaitMillis = meanAcquireWaitMillis;
+        this.meanUsageMillis = meanUsageMillis;
+        this.meanStatementMillis = meanStatementMillis;
+        this.baselineStatementMillis = baselineStatementMillis;
+        this.averageInUse = averageInUse;
+        this.saturated = saturated;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    /**
+     * @return the maximum size of the pool, after the adjustment of this sample.
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    public double getMeanAcquireWaitMillis() {
+        return meanAcquireWaitMillis;
+    }
+
+    /**
+     * @return the mean time the connections released since the previous sample were held.
+     */
+    public double getMeanUsageMillis() {
+        return meanUsageMillis;
+    }
+
+    /**
+     * @return the mean execution time of the statements executed since the previous sample.
+     */
+    public double getMeanStatementMillis() {
+        return meanStatementMillis;
+    }
+
+    public double getBaselineStatementMillis() {
+        return baselineStatementMillis;
+    }
+
+    /**
+     * @return the average number of connections in use since the previous sample.
+     */
+    public double getAverageInUse() {
+        return averageInUse;
+    }
+
+    /**
+     * @return {@code true} if the statements took much longer than usual, the database being the bottleneck.
+     */
+    public boolean isSaturated() {
+        return saturated;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ConnectionPoolSample{" +
+            "date=" + date +
+            ", maximumPoolSize=" + maximumPoolSize +
+            ", activeConnections=" + activeConnections +
+            ", idleConnections=" + idleConnections +
+            ", pendingThreads=" + pendingThreads +
+            ", meanAcquireWaitMillis=" + meanAcquireWaitMillis +
+            ", meanUsageMillis=" + meanUsageMillis +
+            ", meanStatementMillis=" + meanStatementMillis +
+            ", baselineStatementMillis=" + baselineStatementMillis +
+            ", averageInUse=" + averageInUse +
+            ", saturated=" + saturated +
+            "}";
+    }
+}
@@ -0,0 +1,69 @@
+package es.curso.jhipster.jdbc;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A connection held longer than {@code application.connection-pool.held-threshold}, while its thread was doing
+ * something else than using it, typically a slow remote call within a transaction.
+ */
+public final class HeldConnectionEvent {
+
+    private final Instant date;
+
+    private final String threadName;
+
+    private final double heldMillis;
+
+    private final int idleSamples;
+
+    private final List<List<String>> stackSamples;
+
+    HeldConnectionEvent(Instant date, String threadName, double heldMillis, int idleSamples, List<List<String>> stackSamples) {
+        this.date = date;
+        this.threadName = threadName;
+        this.heldMillis = heldMillis;
+        this.idleSamples = idleSamples;
+        this.stackSamples = stackSamples;
+    }
+
+    /**
+     * @return when the connection was released.
+     */
+    public Instant getDate() {
+        return date;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public double getHeldMillis() {
+        return heldMillis;
+    }
+
+    /**
+     * @return the number of times the thread was found away from the database while holding the connection.
+     */
+    public int getIdleSamples() {
+        return idleSamples;
+    }
+
+    /**
+     * @return the distinct stacks of the thread away from the database, innermost frame first.
+     */
+    public List<List<String>> getStackSamples() {
+        return stackSamples;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HeldConnectionEvent{" +
+            "date=" + date +
+            ", threadName='" + threadName + "'" +
+            ", heldMillis=" + heldMillis +
+            ", idleSamples=" + idleSamples +
+            "}";
+    }
+}
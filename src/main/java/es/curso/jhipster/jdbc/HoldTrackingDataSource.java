@@ -0,0 +1,31 @@
+package es.curso.jhipster.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source tracking how long its connections are held, and by which thread, in the {@link ConnectionHoldTracker}.
+ * <p>
+ * The target data source is still reachable with {@link #unwrap(Class)}.
+ */
+public class HoldTrackingDataSource extends DelegatingDataSource {
+
+    private final ConnectionHoldTracker tracker;
+
+    public HoldTrackingDataSource(DataSource targetDataSource, ConnectionHoldTracker tracker) {
+        super(targetDataSource);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracker.track(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracker.track(obtainTargetDataSource().getConnection(username, password));
+    }
+}
@@ -0,0 +1,43 @@
+package es.curso.jhipster.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Helpers of the dynamic proxies wrapping the JDBC objects.
+ */
+final class JdbcProxies {
+
+    private static final ClassLoader CLASS_LOADER = JdbcProxies.class.getClassLoader();
+
+    private JdbcProxies() {}
+
+    /**
+     * Create a proxy of the interface, whose {@code equals} and {@code hashCode} are those of the proxy itself.
+     */
+    static <T> T create(Class<T> type, InvocationHandler handler) {
+        InvocationHandler identityHandler = (proxy, method, args) -> {
+            if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            return handler.invoke(proxy, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[] { type }, identityHandler));
+    }
+
+    /**
+     * Invoke the method on the target, throwing the exceptions of the method itself.
+     */
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
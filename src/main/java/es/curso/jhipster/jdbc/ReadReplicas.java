@@ -0,0 +1,299 @@
+package es.curso.jhipster.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Read replicas of the database, configured in {@code application.read-replicas.targets}, to which the read-only
+ * transactions are routed by a {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Each replica has its own Hikari pool, with the settings of the primary one and the {@code hikaricp.*} metrics. Every
+ * {@code lag-check-interval}, this instance writes its heartbeat, the current time, in the {@code replication_heartbeat}
+ * table of the primary, and reads it back from each replica: a replica is used while it has replicated a heartbeat
+ * at most {@code max-lag} old, the lag being measured to within one check interval. The read-only transactions go to
+ * the primary while no replica is available, such as until the first check.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicas {
+
+    public static final String PRIMARY = "primary";
+
+    private static final String ROUND_ROBIN = "round-robin";
+
+    private static final String LEAST_LOADED = "least-loaded";
+
+    private static final Duration HEARTBEAT_RETENTION = Duration.ofDays(1);
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    private final ApplicationProperties.ReadReplicas properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean roundRobin;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter primaryReadsCounter;
+
+    private JdbcTemplate primaryJdbcTemplate;
+
+    private TransactionTemplate primaryTransactionTemplate;
+
+    private boolean purged;
+
+    public ReadReplicas(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getReadReplicas();
+        this.meterRegistry = meterRegistry;
+        if (!ROUND_ROBIN.equals(properties.getSelection()) && !LEAST_LOADED.equals(properties.getSelection())) {
+            throw new IllegalArgumentException(
+                "Unsupported application.read-replicas.selection " + properties.getSelection() + ", use round-robin or least-loaded"
+            );
+        }
+        this.roundRobin = ROUND_ROBIN.equals(properties.getSelection());
+        this.primaryReadsCounter = Counter.builder("jdbc.routing.reads").tag("target", PRIMARY).register(meterRegistry);
+    }
+
+    /**
+     * Create the pools of the replicas, and a data source routing the read-only transactions to them.
+     *
+     * @param primary the data source of the primary, and of the other transactions.
+     * @return the routing data source, which needs a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+     */
+    public synchronized ReplicaRoutingDataSource route(DataSource primary) {
+        if (primaryJdbcTemplate != null) {
+            throw new IllegalStateException("The read replicas already route a data source");
+        }
+        HikariDataSource primaryPool = unwrap(primary);
+        String poolName = primaryPool != null && primaryPool.getPoolName() != null ? primaryPool.getPoolName() : "Hikari";
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (ApplicationProperties.ReadReplicas.Target target : properties.getTargets()) {
+            if (target.getName() == null || PRIMARY.equals(target.getName()) || replicaDataSources.containsKey(target.getName())) {
+                throw new IllegalArgumentException("Each read replica needs a unique name, other than " + PRIMARY);
+            }
+            HikariDataSource pool = new HikariDataSource();
+            if (primaryPool != null) {
+                primaryPool.copyStateTo(pool);
+            }
+            pool.setJdbcUrl(target.getUrl());
+            pool.setUsername(target.getUsername());
+            pool.setPassword(target.getPassword());
+            pool.setPoolName(poolName + "-" + target.getName());
+            pool.setReadOnly(true);
+            if (target.getMaximumPoolSize() != null) {
+                pool.setMaximumPoolSize(target.getMaximumPoolSize());
+            }
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(target.getName(), pool));
+            replicaDataSources.put(target.getName(), pool);
+        }
+        primaryJdbcTemplate = new JdbcTemplate(primary);
+        primaryTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(primary));
+        log.info("Routing the read-only transactions to the read replicas {}", replicaDataSources.keySet());
+        return new ReplicaRoutingDataSource(primary, replicaDataSources, this);
+    }
+
+    private HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not unwrap the data source: {}", e.getMessage());
+        }
+        log.info("The data source is not a Hikari pool, the pools of the read replicas will have the Hikari defaults");
+        return null;
+    }
+
+    /**
+     * Select the target of a read-only transaction.
+     *
+     * @return the name of an available replica, the next one or the one with the fewest active and pending connections
+     * depending on {@code application.read-replicas.selection}, or {@link #PRIMARY} if none is available.
+     */
+    public String select() {
+        Replica selected = roundRobin ? selectNext() : selectLeastLoaded();
+        if (selected == null) {
+            primaryReadsCounter.increment();
+            return PRIMARY;
+        }
+        selected.readsCounter.increment();
+        return selected.name;
+    }
+
+    private Replica selectNext() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica selectLeastLoaded() {
+        Replica selected = null;
+        int selectedLoad = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (replica.available) {
+                int load = replica.getLoad();
+                if (load < selectedLoad) {
+                    selected = replica;
+                    selectedLoad = load;
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Write the heartbeat of this instance in the primary, and measure the lag of each replica from the heartbeat it
+     * has replicated.
+     */
+    @Scheduled(fixedDelayString = "${application.read-replicas.lag-check-interval:PT1S}")
+    public synchronized void checkLag() {
+        if (primaryJdbcTemplate == null) {
+            return;
+        }
+        try {
+            writeHeartbeat();
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+            return;
+        }
+        for (Replica replica : replicas) {
+            Long heartbeat;
+            try {
+                List<Long> heartbeats = replica.jdbcTemplate.queryForList(
+                    "select heartbeat from replication_heartbeat where node_id = ?",
+                    Long.class,
+                    nodeId
+                );
+                heartbeat = heartbeats.isEmpty() ? null : heartbeats.get(0);
+            } catch (DataAccessException e) {
+                log.debug("Could not read the replication heartbeat of the read replica {}: {}", replica.name, e.getMessage());
+                heartbeat = null;
+            }
+            replica.update(heartbeat != null ? Math.max(0, System.currentTimeMillis() - heartbeat) : -1);
+        }
+    }
+
+    private void writeHeartbeat() {
+        long now = System.currentTimeMillis();
+        primaryTransactionTemplate.executeWithoutResult(
+            status -> {
+                if (!purged) {
+                    // Purge the heartbeats of the stopped instances
+                    primaryJdbcTemplate.update(
+                        "delete from replication_heartbeat where heartbeat < ?",
+                        now - HEARTBEAT_RETENTION.toMillis()
+                    );
+                }
+                if (primaryJdbcTemplate.update("update replication_heartbeat set heartbeat = ? where node_id = ?", now, nodeId) == 0) {
+                    primaryJdbcTemplate.update("insert into replication_heartbeat (node_id, heartbeat) values (?, ?)", nodeId, now);
+                }
+            }
+        );
+        purged = true;
+    }
+
+    /**
+     * @return the lag of each replica in milliseconds, or {@code -1} if it is unknown.
+     */
+    public Map<String, Long> getLags() {
+        Map<String, Long> lags = new LinkedHashMap<>();
+        replicas.forEach(replica -> lags.put(replica.name, replica.lagMillis));
+        return lags;
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private final class Replica {
+
+        private final String name;
+
+        private final HikariDataSource pool;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final Counter readsCounter;
+
+        private volatile long lagMillis = -1;
+
+        private volatile boolean available;
+
+        private Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+            this.jdbcTemplate = new JdbcTemplate(pool);
+            this.readsCounter = Counter.builder("jdbc.routing.reads").tag("target", name).register(meterRegistry);
+            Gauge
+                .builder("jdbc.replica.lag", this, replica -> replica.lagMillis < 0 ? Double.NaN : replica.lagMillis / 1000.0)
+                .tag("replica", name)
+                .baseUnit("seconds")
+                .description("The replication lag of the read replica, measured to within one check interval")
+                .register(meterRegistry);
+            Gauge
+                .builder("jdbc.replica.available", this, replica -> replica.available ? 1 : 0)
+                .tag("replica", name)
+                .description("Whether the read-only transactions are routed to the read replica")
+                .register(meterRegistry);
+        }
+
+        private void update(long lagMillis) {
+            boolean wasAvailable = available;
+            this.lagMillis = lagMillis;
+            this.available = lagMillis >= 0 && lagMillis <= properties.getMaxLag().toMillis();
+            if (available && !wasAvailable) {
+                log.info("The read replica {} is available, with a lag of {} ms", name, lagMillis);
+            } else if (!available && wasAvailable) {
+                log.warn("The read replica {} is unavailable, with a lag of {} ms, routing its reads elsewhere", name, lagMillis);
+            }
+        }
+
+        /**
+         * @return the active and pending connections, or 0 until the pool is started by its first connection.
+         */
+        private int getLoad() {
+            HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+            return poolMXBean != null ? poolMXBean.getActiveConnections() + poolMXBean.getThreadsAwaitingConnection() : 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package es.curso.jhipster.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source routing the connections of the read-only transactions to the {@link ReadReplicas}, and the others to
+ * the primary.
+ * <p>
+ * The transaction managers obtain their connection before the transaction is marked read-only, so that this data
+ * source must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which only
+ * obtains it when the first statement is run.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadReplicas readReplicas;
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadReplicas readReplicas) {
+        this.readReplicas = readReplicas;
+        Map<Object, Object> targetDataSources = new HashMap<>(replicas);
+        targetDataSources.put(ReadReplicas.PRIMARY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReadReplicas.PRIMARY;
+        }
+        return readReplicas.select();
+    }
+}
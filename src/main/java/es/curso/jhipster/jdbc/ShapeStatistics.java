@@ -0,0 +1,76 @@
+package es.curso.jhipster.jdbc;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The accumulated executions of the statements of a shape, updated concurrently.
+ */
+final class ShapeStatistics {
+
+    private final String sql;
+
+    private final boolean query;
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder nanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    ShapeStatistics(String sql) {
+        this.sql = sql;
+        String prefix = sql.length() > 6 ? sql.substring(0, 6).toLowerCase(Locale.ROOT) : sql.toLowerCase(Locale.ROOT);
+        this.query = prefix.startsWith("select") || prefix.startsWith("with");
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return {@code true} if the statements of this shape read rows, rather than change them.
+     */
+    boolean isQuery() {
+        return query;
+    }
+
+    void recordExecution(long executionNanos, long updatedRows) {
+        executions.increment();
+        nanos.add(executionNanos);
+        if (updatedRows > 0) {
+            rows.add(updatedRows);
+        }
+        long max = maxNanos.get();
+        while (executionNanos > max && !maxNanos.compareAndSet(max, executionNanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    void addRows(long readRows) {
+        rows.add(readRows);
+    }
+
+    void reset() {
+        executions.reset();
+        rows.reset();
+        nanos.reset();
+        maxNanos.set(0);
+    }
+
+    SqlShapeStatistics snapshot() {
+        long count = executions.sum();
+        long totalNanos = nanos.sum();
+        return new SqlShapeStatistics(
+            sql,
+            count,
+            rows.sum(),
+            totalNanos / 1e6,
+            count > 0 ? totalNanos / 1e6 / count : 0,
+            maxNanos.get() / 1e6
+        );
+    }
+}
@@ -0,0 +1,111 @@
+package es.curso.jhipster.jdbc;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The statements run by the current thread.
+ * <p>
+ * The totals accumulate for the life of the thread, so that a request, or a test, counts its statements by
+ * difference. Within a request, the executions of each query shape are counted as well, to detect N+1 queries.
+ */
+public final class SqlRequestStatistics {
+
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = ThreadLocal.withInitial(SqlRequestStatistics::new);
+
+    private final Map<ShapeStatistics, int[]> requestExecutions = new IdentityHashMap<>();
+
+    private boolean inRequest;
+
+    private long statements;
+
+    private long rows;
+
+    private long nanos;
+
+    private List<String> captured;
+
+    private SqlRequestStatistics() {}
+
+    /**
+     * @return the statistics of the current thread.
+     */
+    public static SqlRequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the number of statements run by this thread.
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the number of rows read or changed by the statements of this thread.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the time spent executing the statements of this thread, not counting the reading of their rows.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Start counting the executions of each query shape, until {@link #endRequest()}.
+     */
+    public void beginRequest() {
+        requestExecutions.clear();
+        inRequest = true;
+    }
+
+    public void endRequest() {
+        requestExecutions.clear();
+        inRequest = false;
+    }
+
+    /**
+     * Start capturing the shapes of the statements run by this thread, until {@link #stopCapture()}.
+     *
+     * @return the list the shapes are added to, in order of execution.
+     * @throws IllegalStateException if the statements are already captured.
+     */
+    public List<String> startCapture() {
+        if (captured != null) {
+            throw new IllegalStateException("The statements of this thread are already captured");
+        }
+        captured = new ArrayList<>();
+        return captured;
+    }
+
+    public void stopCapture() {
+        captured = null;
+    }
+
+    /**
+     * @return the number of executions of the shape in the current request, or {@code 0} if it is not a query or the
+     * thread is not serving a request.
+     */
+    int recordExecution(ShapeStatistics shape, long executionNanos, long updatedRows) {
+        statements++;
+        nanos += executionNanos;
+        rows += updatedRows;
+        if (captured != null) {
+            captured.add(shape.getSql());
+        }
+        if (!inRequest || !shape.isQuery()) {
+            return 0;
+        }
+        return ++requestExecutions.computeIfAbsent(shape, key -> new int[1])[0];
+    }
+
+    void addRows(long readRows) {
+        rows += readRows;
+    }
+}
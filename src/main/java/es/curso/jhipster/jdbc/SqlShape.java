@@ -0,0 +1,89 @@
+package es.curso.jhipster.jdbc;
+
+/**
+ * Normalization of SQL statements into shapes, so that the statements only differing by their parameters are counted
+ * together.
+ */
+final class SqlShape {
+
+    private SqlShape() {}
+
+    /**
+     * Replace the string and numeric literals by {@code ?}, collapse the lists of parameters into a single {@code ?}, so
+     * that {@code IN} lists of any length have the same shape, and collapse the whitespace.
+     *
+     * @param sql the SQL statement.
+     * @return the shape of the statement.
+     */
+    static String normalize(String sql) {
+        int length = sql.length();
+        StringBuilder shape = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                appendParameter(shape);
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(sql, i, c);
+                shape.append(sql, i, end);
+                i = end;
+            } else if (c == '?') {
+                i++;
+                appendParameter(shape);
+            } else if (Character.isDigit(c) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                appendParameter(shape);
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (shape.length() > 0) {
+                    shape.append(' ');
+                }
+            } else {
+                shape.append(c);
+                i++;
+            }
+        }
+        if (shape.length() > 0 && shape.charAt(shape.length() - 1) == ' ') {
+            shape.setLength(shape.length() - 1);
+        }
+        return shape.toString();
+    }
+
+    /**
+     * @return the index following the closing quote, quotes being escaped by doubling them.
+     */
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static void appendParameter(StringBuilder shape) {
+        int length = shape.length();
+        if (length >= 3 && shape.charAt(length - 1) == ' ' && shape.charAt(length - 2) == ',' && shape.charAt(length - 3) == '?') {
+            shape.setLength(length - 2);
+        } else if (length >= 2 && shape.charAt(length - 1) == ',' && shape.charAt(length - 2) == '?') {
+            shape.setLength(length - 1);
+        } else {
+            shape.append('?');
+        }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
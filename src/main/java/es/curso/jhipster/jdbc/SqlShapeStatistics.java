@@ -0,0 +1,68 @@
+package es.curso.jhipster.jdbc;
+
+/**
+ * The executions of the statements of a shape, since the start of the application or the last reset.
+ */
+public final class SqlShapeStatistics {
+
+    private final String sql;
+
+    private final long executions;
+
+    private final long rows;
+
+    private final double totalMillis;
+
+    private final double meanMillis;
+
+    private final double maxMillis;
+
+    SqlShapeStatistics(String sql, long executions, long rows, double totalMillis, double meanMillis, double maxMillis) {
+        this.sql = sql;
+        this.executions = executions;
+        this.rows = rows;
+        this.totalMillis = totalMillis;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    /**
+     * @return the number of rows read by the queries, or changed by the other statements.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SqlShapeStatistics{" +
+            "sql='" + sql + "'" +
+            ", executions=" + executions +
+            ", rows=" + rows +
+            ", totalMillis=" + totalMillis +
+            ", meanMillis=" + meanMillis +
+            ", maxMillis=" + maxMillis +
+            "}";
+    }
+}
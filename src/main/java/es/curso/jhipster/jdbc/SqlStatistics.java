@@ -0,0 +1,140 @@
+package es.curso.jhipster.jdbc;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Statistics of the statements run through the {@link StatisticsDataSource}, per statement shape.
+ * <p>
+ * The shape of each distinct SQL string is only computed once. At most {@code application.sql.max-shapes} shapes are
+ * tracked, the statements of any other shape are counted together as {@value #OTHER_SHAPE}.
+ */
+@Component
+public class SqlStatistics {
+
+    static final String OTHER_SHAPE = "(other statements)";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatistics.class);
+
+    private final ConcurrentMap<String, ShapeStatistics> shapesBySql = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+
+    private final ShapeStatistics otherShape = new ShapeStatistics(OTHER_SHAPE);
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder executionNanos = new LongAdder();
+
+    private final int maxShapes;
+
+    private final int maxSqls;
+
+    private final int repeatedQueryThreshold;
+
+    private final Counter repeatedQueryCounter;
+
+    public SqlStatistics(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Sql properties = applicationProperties.getSql();
+        this.maxShapes = properties.getMaxShapes();
+        // The SQL strings of a shape only differ by their literals, which the generated statements have few of
+        this.maxSqls = properties.getMaxShapes() * 4;
+        this.repeatedQueryThreshold = properties.getRepeatedQueryThreshold();
+        this.repeatedQueryCounter =
+            Counter
+                .builder("sql.queries.repeated")
+                .description("Number of queries run repeated-query-threshold times in the same request")
+                .register(meterRegistry);
+    }
+
+    ShapeStatistics getShape(String sql) {
+        ShapeStatistics shape = shapesBySql.get(sql);
+        if (shape == null) {
+            shape = getShapeOf(SqlShape.normalize(sql));
+            if (shapesBySql.size() < maxSqls) {
+                shapesBySql.putIfAbsent(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private ShapeStatistics getShapeOf(String normalizedSql) {
+        ShapeStatistics shape = shapes.get(normalizedSql);
+        if (shape != null) {
+            return shape;
+        }
+        if (shapes.size() >= maxShapes) {
+            return otherShape;
+        }
+        return shapes.computeIfAbsent(normalizedSql, ShapeStatistics::new);
+    }
+
+    ShapeStatistics getOtherShape() {
+        return otherShape;
+    }
+
+    void recordExecution(ShapeStatistics shape, long nanos, long updatedRows) {
+        shape.recordExecution(nanos, updatedRows);
+        executions.increment();
+        executionNanos.add(nanos);
+        int requestExecutions = SqlRequestStatistics.current().recordExecution(shape, nanos, updatedRows);
+        if (requestExecutions == repeatedQueryThreshold) {
+            repeatedQueryCounter.increment();
+            log.warn("Query run {} times in the same request, it may be an N+1 query: {}", requestExecutions, shape.getSql());
+        }
+    }
+
+    void addRows(ShapeStatistics shape, long readRows) {
+        shape.addRows(readRows);
+        SqlRequestStatistics.current().addRows(readRows);
+    }
+
+    /**
+     * @param size the maximum number of shapes.
+     * @return the shapes with the greatest total execution time, greatest first.
+     */
+    public List<SqlShapeStatistics> getTop(int size) {
+        return Stream
+            .concat(shapes.values().stream(), Stream.of(otherShape))
+            .map(ShapeStatistics::snapshot)
+            .filter(shape -> shape.getExecutions() > 0)
+            .sorted(Comparator.comparingDouble(SqlShapeStatistics::getTotalMillis).reversed())
+            .limit(size)
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * @return the number of statements executed since the start, of every shape, which {@link #reset()} does not reset.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return the total execution time of the statements executed since the start, in nanoseconds, which
+     * {@link #reset()} does not reset.
+     */
+    public long getExecutionNanos() {
+        return executionNanos.sum();
+    }
+
+    /**
+     * Reset the statistics of every shape.
+     */
+    public void reset() {
+        shapes.values().forEach(ShapeStatistics::reset);
+        otherShape.reset();
+    }
+}
@@ -0,0 +1,194 @@
+package es.curso.jhipster.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source recording the statements run through its connections in the {@link SqlStatistics}.
+ * <p>
+ * The connections, statements and result sets are wrapped in dynamic proxies. The execution of a statement is timed,
+ * and counts the rows it changed; the rows of a query are counted as they are read, and recorded when the result set
+ * is exhausted or closed. The target data source is still reachable with {@link #unwrap(Class)}.
+ */
+public class StatisticsDataSource extends DelegatingDataSource {
+
+    private final SqlStatistics statistics;
+
+    public StatisticsDataSource(DataSource targetDataSource, SqlStatistics statistics) {
+        super(targetDataSource);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return JdbcProxies.create(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static long countRows(Object result) {
+        if (result instanceof Integer) {
+            return Math.max(0, (Integer) result);
+        }
+        if (result instanceof Long) {
+            return Math.max(0, (Long) result);
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcProxies.invoke(target, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return wrapStatement(proxy, (Statement) result, Statement.class, null);
+                case "prepareStatement":
+                    return wrapStatement(proxy, (Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(proxy, (Statement) result, CallableStatement.class, (String) args[0]);
+                default:
+                    return result;
+            }
+        }
+
+        private Statement wrapStatement(Object connection, Statement statement, Class<? extends Statement> type, String sql) {
+            ShapeStatistics shape = sql != null ? statistics.getShape(sql) : null;
+            StatementHandler handler = new StatementHandler(statement, shape, (Connection) connection);
+            return JdbcProxies.create(type, handler);
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final Connection connection;
+
+        /**
+         * The shape of the prepared statement, or else of the last SQL string executed or added to the batch.
+         */
+        private ShapeStatistics shape;
+
+        StatementHandler(Statement target, ShapeStatistics shape, Connection connection) {
+            this.target = target;
+            this.shape = shape;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = JdbcProxies.invoke(target, method, args);
+                if ("addBatch".equals(name) && args != null && args.length == 1 && args[0] instanceof String) {
+                    shape = statistics.getShape((String) args[0]);
+                } else if ("getResultSet".equals(name) && result != null) {
+                    return wrapResultSet((ResultSet) result, proxy);
+                }
+                return result;
+            }
+
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                shape = statistics.getShape((String) args[0]);
+            }
+            long start = System.nanoTime();
+            Object result = JdbcProxies.invoke(target, method, args);
+            long nanos = System.nanoTime() - start;
+            statistics.recordExecution(getShape(), nanos, countRows(result));
+            if (result instanceof ResultSet) {
+                return wrapResultSet((ResultSet) result, proxy);
+            }
+            return result;
+        }
+
+        private ShapeStatistics getShape() {
+            return shape != null ? shape : statistics.getOtherShape();
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, Object statement) {
+            ResultSetHandler handler = new ResultSetHandler(resultSet, getShape(), (Statement) statement);
+            return JdbcProxies.create(ResultSet.class, handler);
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+
+        private final ShapeStatistics shape;
+
+        private final Statement statement;
+
+        private long rows;
+
+        ResultSetHandler(ResultSet target, ShapeStatistics shape, Statement statement) {
+            this.target = target;
+            this.shape = shape;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    Object next = JdbcProxies.invoke(target, method, args);
+                    if (Boolean.TRUE.equals(next)) {
+                        rows++;
+                    } else {
+                        recordRows();
+                    }
+                    return next;
+                case "close":
+                    recordRows();
+                    return JdbcProxies.invoke(target, method, args);
+                case "getStatement":
+                    return statement;
+                default:
+                    return JdbcProxies.invoke(target, method, args);
+            }
+        }
+
+        private void recordRows() {
+            if (rows > 0) {
+                statistics.addRows(shape, rows);
+                rows = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Statistics of the SQL statements run through the application data source, per request and per statement shape,
+ * control of the connection pool, and routing of the read-only transactions to the read replicas.
+ */
+package es.curso.jhipster.jdbc;
@@ -0,0 +1,52 @@
+package es.curso.jhipster.management;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.jdbc.ConnectionHoldTracker;
+import es.curso.jhipster.jdbc.ConnectionPoolController;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the state of the connection pool, its sizing, and the last connections held away from
+ * the database, at {@code /management/connectionpool}.
+ */
+@Component
+@Endpoint(id = "connectionpool")
+@ConditionalOnProperty(prefix = "application.connection-pool", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionPoolEndpoint {
+
+    private final ConnectionPoolController connectionPoolController;
+
+    private final ConnectionHoldTracker connectionHoldTracker;
+
+    private final ApplicationProperties.ConnectionPool properties;
+
+    public ConnectionPoolEndpoint(
+        ConnectionPoolController connectionPoolController,
+        ConnectionHoldTracker connectionHoldTracker,
+        ApplicationProperties applicationProperties
+    ) {
+        this.connectionPoolController = connectionPoolController;
+        this.connectionHoldTracker = connectionHoldTracker;
+        this.properties = applicationProperties.getConnectionPool();
+    }
+
+    /**
+     * @return the sizing bounds, the last sample of the pool, and the last connections held away from the database.
+     */
+    @ReadOperation
+    public Map<String, Object> connectionPool() {
+        Map<String, Object> connectionPool = new LinkedHashMap<>();
+        connectionPool.put("adaptive", properties.isAdaptive());
+        connectionPool.put("minSize", properties.getMinSize());
+        connectionPool.put("maxSize", properties.getMaxSize());
+        connectionPool.put("sample", connectionPoolController.getLastSample());
+        connectionPool.put("heldConnections", connectionHoldTracker.getHeldConnections());
+        connectionPool.put("heldConnectionEvents", connectionHoldTracker.getEvents());
+        return connectionPool;
+    }
+}
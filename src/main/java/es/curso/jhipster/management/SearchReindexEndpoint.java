@@ -0,0 +1,31 @@
+package es.curso.jhipster.management;
+
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.service.search.SearchReindexJob;
+import es.curso.jhipster.service.search.SearchReindexService;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the progress of the search index rebuilds, at {@code /management/searchreindex}.
+ */
+@Component
+@Endpoint(id = "searchreindex")
+public class SearchReindexEndpoint {
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexEndpoint(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * @return the last rebuild of each search index, with its progress, throughput and estimated remaining time.
+     */
+    @ReadOperation
+    public Map<SearchDocumentType, SearchReindexJob> jobs() {
+        return searchReindexService.getJobs();
+    }
+}
@@ -0,0 +1,30 @@
+package es.curso.jhipster.management;
+
+import es.curso.jhipster.web.profiler.SlowRequest;
+import es.curso.jhipster.web.profiler.SlowRequestLog;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the last requests which exceeded their latency budget, at {@code /management/slowrequests}.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    /**
+     * @return the last slow requests, most recent first, with the duration of each of their phases.
+     */
+    @ReadOperation
+    public List<SlowRequest> slowRequests() {
+        return slowRequestLog.getSlowRequests();
+    }
+}
@@ -0,0 +1,43 @@
+package es.curso.jhipster.management;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.jdbc.SqlShapeStatistics;
+import es.curso.jhipster.jdbc.SqlStatistics;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the SQL statements taking the most time, by shape, at {@code /management/sqlstatistics}.
+ */
+@Component
+@Endpoint(id = "sqlstatistics")
+public class SqlStatisticsEndpoint {
+
+    private final SqlStatistics sqlStatistics;
+
+    private final int topSize;
+
+    public SqlStatisticsEndpoint(SqlStatistics sqlStatistics, ApplicationProperties applicationProperties) {
+        this.sqlStatistics = sqlStatistics;
+        this.topSize = applicationProperties.getSql().getTopSize();
+    }
+
+    /**
+     * @return the shapes of statements with the greatest total execution time, greatest first.
+     */
+    @ReadOperation
+    public List<SqlShapeStatistics> sqlStatistics() {
+        return sqlStatistics.getTop(topSize);
+    }
+
+    /**
+     * Reset the statistics, to measure from now on.
+     */
+    @DeleteOperation
+    public void reset() {
+        sqlStatistics.reset();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Custom Spring Boot Actuator endpoints.
+ */
+package es.curso.jhipster.management;
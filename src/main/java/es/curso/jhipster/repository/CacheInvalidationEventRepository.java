@@ -0,0 +1,20 @@
+package es.curso.jhipster.repository;
+
+import es.curso.jhipster.domain.CacheInvalidationEvent;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the CacheInvalidationEvent entity.
+ */
+@Repository
+public interface CacheInvalidationEventRepository extends JpaRepository<CacheInvalidationEvent, String> {
+    List<CacheInvalidationEvent> findAllByCreatedDateGreaterThanEqualOrderByCreatedDate(Instant since);
+
+    @Modifying
+    @Query("delete from CacheInvalidationEvent cacheInvalidationEvent where cacheInvalidationEvent.createdDate < :before")
+    int deleteAllCreatedBefore(@Param("before") Instant before);
+}
@@ -1,7 +1,18 @@
 package es.curso.jhipster.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import es.curso.jhipster.domain.Experiencia;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +20,128 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ExperienciaRepository extends JpaRepository<Experiencia, Long> {}
+public interface ExperienciaRepository extends JpaRepository<Experiencia, Long> {
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Number of experiencias in a localizacion.
+     */
+    interface LocalizacionCount {
+        String getLocalizacion();
+
+        Long getTotal();
+    }
+
+    /**
+     * Number of experiencias in a month.
+     */
+    interface MonthCount {
+        Integer getFechaYear();
+
+        Integer getFechaMonth();
+
+        Long getTotal();
+    }
+
+    Slice<Experiencia> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Experiencia> findAllByFechaIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Experiencia> findAllByFechaIsNotNullOrderByFechaAscIdAsc(Pageable pageable);
+
+    @Query(
+        "select experiencia from Experiencia experiencia" +
+        " where experiencia.fecha > :fecha or (experiencia.fecha = :fecha and experiencia.id > :id)" +
+        " order by experiencia.fecha asc, experiencia.id asc"
+    )
+    Slice<Experiencia> findAllAfterFechaAndId(@Param("fecha") LocalDate fecha, @Param("id") Long id, Pageable pageable);
+
+    boolean existsByFechaIsNotNull();
+
+    /**
+     * Stream all the experiencias through a database cursor, without going through the second level cache.
+     * <p>
+     * Must be called within a transaction, and the returned stream must be closed.
+     *
+     * @return the experiencias, ordered by id.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select experiencia from Experiencia experiencia order by experiencia.id")
+    Stream<Experiencia> streamAllBy();
+
+    /**
+     * Stream the experiencias of an id range through a database cursor, without going through the second level cache.
+     * <p>
+     * Must be called within a transaction, and the returned stream must be closed.
+     *
+     * @param fromId the lowest id, inclusive.
+     * @param toId the highest id, inclusive.
+     * @return the experiencias, ordered by id.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select experiencia from Experiencia experiencia where experiencia.id between :fromId and :toId order by experiencia.id")
+    Stream<Experiencia> streamAllByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Stream all the experiencias through a database cursor, putting them in the second level cache.
+     * <p>
+     * Must be called within a transaction, and the returned stream must be closed.
+     *
+     * @return the experiencias, newest first.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "PUT"),
+        }
+    )
+    @Query("select experiencia from Experiencia experiencia order by experiencia.id desc")
+    Stream<Experiencia> streamAllByOrderByIdDesc();
+
+    @Query("select min(experiencia.id) from Experiencia experiencia")
+    Long findMinId();
+
+    @Query("select max(experiencia.id) from Experiencia experiencia")
+    Long findMaxId();
+
+    /**
+     * Count the experiencias of the most frequent localizaciones.
+     *
+     * @param pageable the number of localizaciones to count.
+     * @return the localizaciones, most frequent first.
+     */
+    @Query(
+        "select experiencia.localizacion as localizacion, count(experiencia) as total from Experiencia experiencia" +
+        " where experiencia.localizacion is not null" +
+        " group by experiencia.localizacion" +
+        " order by count(experiencia) desc, experiencia.localizacion asc"
+    )
+    List<LocalizacionCount> countByLocalizacion(Pageable pageable);
+
+    /**
+     * Count the experiencias of each month with at least one.
+     *
+     * @return the months, in chronological order.
+     */
+    @Query(
+        "select year(experiencia.fecha) as fechaYear, month(experiencia.fecha) as fechaMonth, count(experiencia) as total" +
+        " from Experiencia experiencia" +
+        " where experiencia.fecha is not null" +
+        " group by year(experiencia.fecha), month(experiencia.fecha)" +
+        " order by year(experiencia.fecha), month(experiencia.fecha)"
+    )
+    List<MonthCount> countByMonth();
+}
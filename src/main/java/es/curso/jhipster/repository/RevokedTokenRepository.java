@@ -0,0 +1,24 @@
+package es.curso.jhipster.repository;
+
+import es.curso.jhipster.domain.RevokedToken;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the RevokedToken entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("select revokedToken.jti from RevokedToken revokedToken where revokedToken.expirationDate > :now")
+    List<String> findAllUnexpiredJti(@Param("now") Instant now);
+
+    @Query("select revokedToken.jti from RevokedToken revokedToken where revokedToken.revokedDate >= :since")
+    List<String> findAllJtiRevokedSince(@Param("since") Instant since);
+
+    @Modifying
+    @Query("delete from RevokedToken revokedToken where revokedToken.expirationDate <= :now")
+    int deleteAllExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,58 @@
+package es.curso.jhipster.repository;
+
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data SQL repository for the SearchOutboxEvent entity.
+ */
+@Repository
+public interface SearchOutboxEventRepository extends JpaRepository<SearchOutboxEvent, Long> {
+    /**
+     * {@code org.hibernate.LockOptions#SKIP_LOCKED}: the MySQL 8 dialect renders it as {@code FOR UPDATE SKIP LOCKED},
+     * so that concurrent relays claim disjoint events instead of waiting for each other.
+     */
+    String SKIP_LOCKED = "-2";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query(
+        "select searchOutboxEvent from SearchOutboxEvent searchOutboxEvent" +
+        " where searchOutboxEvent.processedDate is null and searchOutboxEvent.nextAttemptDate <= :now" +
+        " order by searchOutboxEvent.nextAttemptDate asc"
+    )
+    List<SearchOutboxEvent> findAllDue(@Param("now") Instant now, Pageable pageable);
+
+    @Query(
+        "select min(searchOutboxEvent.createdDate) from SearchOutboxEvent searchOutboxEvent" +
+        " where searchOutboxEvent.processedDate is null and searchOutboxEvent.nextAttemptDate <= :now"
+    )
+    Optional<Instant> findOldestDueCreatedDate(@Param("now") Instant now);
+
+    @Query(
+        "select distinct searchOutboxEvent.documentId from SearchOutboxEvent searchOutboxEvent" +
+        " where searchOutboxEvent.documentType = :documentType and searchOutboxEvent.createdDate >= :since"
+    )
+    List<Long> findAllDocumentIdsCreatedSince(@Param("documentType") SearchDocumentType documentType, @Param("since") Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("update SearchOutboxEvent searchOutboxEvent set searchOutboxEvent.processedDate = :now where searchOutboxEvent.id in :ids")
+    int markAllProcessed(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SearchOutboxEvent searchOutboxEvent where searchOutboxEvent.processedDate < :before")
+    int deleteAllProcessedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,17 @@
+package es.curso.jhipster.repository;
+
+import es.curso.jhipster.domain.User;
+import java.util.Optional;
+
+/**
+ * Lookups of the {@link User} entity by its natural id, its login.
+ */
+public interface UserRepositoryWithNaturalId {
+    /**
+     * Find a user by login, through the natural id cache, so that a known login runs no query.
+     *
+     * @param login the lowercase login.
+     * @return the user, if any.
+     */
+    Optional<User> findOneByLogin(String login);
+}
@@ -0,0 +1,23 @@
+package es.curso.jhipster.repository;
+
+import es.curso.jhipster.domain.User;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of {@link UserRepositoryWithNaturalId}, with the Hibernate natural id API.
+ */
+public class UserRepositoryWithNaturalIdImpl implements UserRepositoryWithNaturalId {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findOneByLogin(String login) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(login);
+    }
+}
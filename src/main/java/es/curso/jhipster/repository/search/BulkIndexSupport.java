@@ -0,0 +1,59 @@
+package es.curso.jhipster.repository.search;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+
+/**
+ * Sends index and delete operations to Elasticsearch in a single {@code _bulk} request.
+ */
+final class BulkIndexSupport {
+
+    private BulkIndexSupport() {}
+
+    /**
+     * Index and delete documents in one {@code _bulk} request, without refreshing the index.
+     *
+     * @param elasticsearchTemplate the template to use.
+     * @param indexName the index (or alias) to write to.
+     * @param toIndex the entities to index, by id.
+     * @param toDelete the ids of the documents to delete.
+     * @return the failure message of each operation which failed, by id.
+     */
+    static Map<Long, String> bulk(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        String indexName,
+        Map<Long, ?> toIndex,
+        Collection<Long> toDelete
+    ) {
+        if (toIndex.isEmpty() && toDelete.isEmpty()) {
+            return new HashMap<>();
+        }
+        ElasticsearchConverter converter = elasticsearchTemplate.getElasticsearchConverter();
+        BulkRequest bulkRequest = new BulkRequest();
+        toIndex.forEach((id, entity) ->
+            bulkRequest.add(new IndexRequest(indexName).id(id.toString()).source(converter.mapObject(entity).toJson(), XContentType.JSON))
+        );
+        toDelete.forEach(id -> bulkRequest.add(new DeleteRequest(indexName, id.toString())));
+        BulkResponse bulkResponse = elasticsearchTemplate.execute(client -> client.bulk(bulkRequest, RequestOptions.DEFAULT));
+
+        Map<Long, String> failures = new HashMap<>();
+        if (bulkResponse.hasFailures()) {
+            for (BulkItemResponse item : bulkResponse.getItems()) {
+                if (item.isFailed()) {
+                    failures.put(Long.valueOf(item.getId()), item.getFailureMessage());
+                }
+            }
+        }
+        return failures;
+    }
+}
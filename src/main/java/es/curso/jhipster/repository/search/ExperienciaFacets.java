@@ -0,0 +1,39 @@
+package es.curso.jhipster.repository.search;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Counts of the experiencias matching a search, by localizacion and by month.
+ */
+public class ExperienciaFacets {
+
+    private final long total;
+
+    private final Map<String, Long> localizaciones;
+
+    private final Map<String, Long> months;
+
+    /**
+     * @param total the number of matching experiencias.
+     * @param localizaciones the number of experiencias by localizacion, most frequent first.
+     * @param months the number of experiencias by month formatted as {@code yyyy-MM}, in chronological order.
+     */
+    public ExperienciaFacets(long total, Map<String, Long> localizaciones, Map<String, Long> months) {
+        this.total = total;
+        this.localizaciones = Collections.unmodifiableMap(localizaciones);
+        this.months = Collections.unmodifiableMap(months);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getLocalizaciones() {
+        return localizaciones;
+    }
+
+    public Map<String, Long> getMonths() {
+        return months;
+    }
+}
@@ -1,16 +1,44 @@
 package es.curso.jhipster.repository.search;
 
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.multiMatchQuery;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
+import es.curso.jhipster.config.ApplicationProperties;
 import es.curso.jhipster.domain.Experiencia;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.unit.Fuzziness;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.DocumentAdapters;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
@@ -20,27 +48,229 @@ import org.springframework.data.elasticsearch.repository.ElasticsearchRepository
 public interface ExperienciaSearchRepository extends ElasticsearchRepository<Experiencia, Long>, ExperienciaSearchRepositoryInternal {}
 
 interface ExperienciaSearchRepositoryInternal {
+    /**
+     * Search for a page of experiencias, counting the total hits up to {@code application.search.track-total-hits-up-to}.
+     *
+     * @param query the query string.
+     * @param pageable the pagination information.
+     * @return the page of experiencias.
+     */
     Page<Experiencia> search(String query, Pageable pageable);
+
+    /**
+     * Search for a slice of experiencias with {@code search_after}, which costs the same for every slice however deep.
+     * <p>
+     * Experiencias are sorted by relevance unless a sort is given, then by id to make the order total. No total is
+     * counted.
+     *
+     * @param query the query string.
+     * @param searchAfter the sort values of the last experiencia of the previous slice, or an empty list for the first one.
+     * @param pageable the slice size and the sort.
+     * @return the slice of experiencias.
+     */
+    SearchAfterSlice<Experiencia> searchAfter(String query, List<Object> searchAfter, Pageable pageable);
+
+    /**
+     * Suggest experiencias whose titulo or localizacion start with the words typed so far, tolerating typos.
+     * <p>
+     * Matches on the titulo rank higher. Only the suggested fields are read from {@code _source}: the returned
+     * experiencias only have an id, a titulo and a localizacion.
+     *
+     * @param prefix the words typed so far, the last one possibly incomplete.
+     * @param size the maximum number of experiencias to return.
+     * @param timeout how long to search before returning the experiencias found so far.
+     * @return the suggested experiencias, best first.
+     */
+    List<Experiencia> suggest(String prefix, int size, Duration timeout);
+
+    /**
+     * Count the experiencias matching a query by localizacion and by month, in a single request returning no hits.
+     *
+     * @param query the query string.
+     * @param size the number of localizaciones to count.
+     * @return the counts.
+     */
+    ExperienciaFacets facets(String query, int size);
+
+    /**
+     * Index the given experiencias in a single {@code _bulk} request.
+     *
+     * @param experiencias the experiencias to index.
+     * @return the failure message of each experiencia which could not be indexed, by id.
+     */
+    Map<Long, String> bulkIndex(Collection<Experiencia> experiencias);
+
+    /**
+     * Index and delete experiencias in a single {@code _bulk} request.
+     *
+     * @param toIndex the experiencias to index.
+     * @param toDelete the ids of the experiencias to delete.
+     * @return the failure message of each operation which failed, by id.
+     */
+    Map<Long, String> bulkSync(Collection<Experiencia> toIndex, Collection<Long> toDelete);
 }
 
 class ExperienciaSearchRepositoryInternalImpl implements ExperienciaSearchRepositoryInternal {
 
+    private static final String TIEBREAKER_FIELD = "id";
+
+    private static final String[] SUGGESTION_FIELDS = { "id", "titulo", "localizacion" };
+
+    private static final float TITULO_SUGGEST_BOOST = 3;
+
+    private static final float EXACT_PREFIX_BOOST = 2;
+
+    private static final String LOCALIZACION_FACET = "localizacion";
+
+    private static final String MONTH_FACET = "month";
+
     private final ElasticsearchRestTemplate elasticsearchTemplate;
 
-    ExperienciaSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
+    private final Integer trackTotalHitsUpTo;
+
+    ExperienciaSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, ApplicationProperties applicationProperties) {
         this.elasticsearchTemplate = elasticsearchTemplate;
+        this.trackTotalHitsUpTo = applicationProperties.getSearch().getTrackTotalHitsUpTo();
     }
 
     @Override
     public Page<Experiencia> search(String query, Pageable pageable) {
         NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
         nativeSearchQuery.setPageable(pageable);
-        List<Experiencia> hits = elasticsearchTemplate
-            .search(nativeSearchQuery, Experiencia.class)
-            .map(SearchHit::getContent)
-            .stream()
+        if (trackTotalHitsUpTo != null) {
+            nativeSearchQuery.setTrackTotalHitsUpTo(trackTotalHitsUpTo);
+        } else {
+            nativeSearchQuery.setTrackTotalHits(true);
+        }
+        SearchHits<Experiencia> searchHits = elasticsearchTemplate.search(nativeSearchQuery, Experiencia.class);
+        List<Experiencia> hits = searchHits.map(SearchHit::getContent).stream().collect(Collectors.toList());
+
+        // When counting is capped, the total is a lower bound of the number of hits
+        return new PageImpl<>(hits, pageable, searchHits.getTotalHits());
+    }
+
+    @Override
+    public SearchAfterSlice<Experiencia> searchAfter(String query, List<Object> searchAfter, Pageable pageable) {
+        int size = pageable.getPageSize();
+        SearchSourceBuilder source = searchAfterSource(query, searchAfter, pageable);
+        SearchRequest request = new SearchRequest(elasticsearchTemplate.getIndexCoordinatesFor(Experiencia.class).getIndexNames())
+            .source(source);
+        SearchResponse response = elasticsearchTemplate.execute(client -> client.search(request, RequestOptions.DEFAULT));
+
+        // One more hit than the slice size is read to know whether there is a next slice
+        org.elasticsearch.search.SearchHit[] hits = response.getHits().getHits();
+        int count = Math.min(hits.length, size);
+        ElasticsearchConverter converter = elasticsearchTemplate.getElasticsearchConverter();
+        List<Experiencia> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(converter.read(Experiencia.class, DocumentAdapters.from(hits[i])));
+        }
+        // The sort values keep their type, as a date sort value stringified would not be parsed back
+        List<Object> lastSortValues = count == 0 ? Collections.emptyList() : Arrays.asList(hits[count - 1].getSortValues());
+        return new SearchAfterSlice<>(content, pageable, hits.length > size, lastSortValues);
+    }
+
+    static SearchSourceBuilder searchAfterSource(String query, List<Object> searchAfter, Pageable pageable) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(queryStringQuery(query))
+            .size(pageable.getPageSize() + 1)
+            .trackTotalHits(false);
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            source.sort(SortBuilders.scoreSort());
+        }
+        for (Sort.Order order : sort) {
+            source.sort(SortBuilders.fieldSort(order.getProperty()).order(order.isAscending() ? SortOrder.ASC : SortOrder.DESC));
+        }
+        if (sort.getOrderFor(TIEBREAKER_FIELD) == null) {
+            source.sort(SortBuilders.fieldSort(TIEBREAKER_FIELD).order(SortOrder.ASC));
+        }
+        if (!searchAfter.isEmpty()) {
+            source.searchAfter(searchAfter.toArray());
+        }
+        return source;
+    }
+
+    @Override
+    public List<Experiencia> suggest(String prefix, int size, Duration timeout) {
+        // Both clauses search the edge n-grams: the exact one ranks typed prefixes first, the fuzzy one tolerates typos
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(
+                boolQuery()
+                    .should(
+                        multiMatchQuery(prefix)
+                            .field("titulo.suggest", TITULO_SUGGEST_BOOST)
+                            .field("localizacion.suggest")
+                            .operator(Operator.AND)
+                            .boost(EXACT_PREFIX_BOOST)
+                    )
+                    .should(
+                        multiMatchQuery(prefix)
+                            .field("titulo.suggest", TITULO_SUGGEST_BOOST)
+                            .field("localizacion.suggest")
+                            .operator(Operator.AND)
+                            .fuzziness(Fuzziness.AUTO)
+                            .prefixLength(1)
+                    )
+                    .minimumShouldMatch(1)
+            )
+            .fetchSource(SUGGESTION_FIELDS, null)
+            .size(size)
+            .trackTotalHits(false)
+            .timeout(TimeValue.timeValueMillis(timeout.toMillis()));
+        SearchRequest request = new SearchRequest(elasticsearchTemplate.getIndexCoordinatesFor(Experiencia.class).getIndexNames())
+            .source(source);
+        SearchResponse response = elasticsearchTemplate.execute(client -> client.search(request, RequestOptions.DEFAULT));
+
+        ElasticsearchConverter converter = elasticsearchTemplate.getElasticsearchConverter();
+        return Arrays
+            .stream(response.getHits().getHits())
+            .map(hit -> converter.read(Experiencia.class, DocumentAdapters.from(hit)))
             .collect(Collectors.toList());
+    }
 
-        return new PageImpl<>(hits, pageable, hits.size());
+    @Override
+    public ExperienciaFacets facets(String query, int size) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(queryStringQuery(query))
+            .size(0)
+            .trackTotalHits(true)
+            .aggregation(AggregationBuilders.terms(LOCALIZACION_FACET).field("localizacion.keyword").size(size))
+            .aggregation(
+                AggregationBuilders
+                    .dateHistogram(MONTH_FACET)
+                    .field("fecha")
+                    .calendarInterval(DateHistogramInterval.MONTH)
+                    .format("yyyy-MM")
+                    .minDocCount(1)
+            );
+        SearchRequest request = new SearchRequest(elasticsearchTemplate.getIndexCoordinatesFor(Experiencia.class).getIndexNames())
+            .source(source);
+        SearchResponse response = elasticsearchTemplate.execute(client -> client.search(request, RequestOptions.DEFAULT));
+
+        Map<String, Long> localizaciones = new LinkedHashMap<>();
+        Terms terms = response.getAggregations().get(LOCALIZACION_FACET);
+        terms.getBuckets().forEach(bucket -> localizaciones.put(bucket.getKeyAsString(), bucket.getDocCount()));
+        Map<String, Long> months = new LinkedHashMap<>();
+        Histogram histogram = response.getAggregations().get(MONTH_FACET);
+        histogram.getBuckets().forEach(bucket -> months.put(bucket.getKeyAsString(), bucket.getDocCount()));
+        return new ExperienciaFacets(response.getHits().getTotalHits().value, localizaciones, months);
+    }
+
+    @Override
+    public Map<Long, String> bulkIndex(Collection<Experiencia> experiencias) {
+        return bulkSync(experiencias, Collections.emptyList());
+    }
+
+    @Override
+    public Map<Long, String> bulkSync(Collection<Experiencia> toIndex, Collection<Long> toDelete) {
+        return BulkIndexSupport.bulk(
+            elasticsearchTemplate,
+            elasticsearchTemplate.getIndexCoordinatesFor(Experiencia.class).getIndexName(),
+            toIndex
+                .stream()
+                .collect(Collectors.toMap(Experiencia::getId, Function.identity(), (previous, latest) -> latest, LinkedHashMap::new)),
+            toDelete
+        );
     }
 }
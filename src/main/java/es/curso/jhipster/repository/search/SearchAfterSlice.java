@@ -0,0 +1,30 @@
+package es.curso.jhipster.repository.search;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * A slice of search results read with {@code search_after}, carrying the sort values to resume from.
+ *
+ * @param <T> the type of the results.
+ */
+public class SearchAfterSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Object> lastSortValues;
+
+    public SearchAfterSlice(List<T> content, Pageable pageable, boolean hasNext, List<Object> lastSortValues) {
+        super(content, pageable, hasNext);
+        this.lastSortValues = lastSortValues;
+    }
+
+    /**
+     * @return the sort values of the last result, typed as returned by Elasticsearch, to pass as {@code searchAfter} for
+     * the next slice, or an empty list if the slice is empty.
+     */
+    public List<Object> getLastSortValues() {
+        return lastSortValues;
+    }
+}
@@ -0,0 +1,87 @@
+package es.curso.jhipster.repository.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class to carry the {@code search_after} sort values in a cursor without losing their type.
+ * <p>
+ * Elasticsearch parses a {@code search_after} string with the format of the sorted field, so the epoch milliseconds of
+ * a date such as {@code fecha}, mapped with the {@code date} format, must be sent back as a number. Each value is
+ * encoded with a one letter type prefix: {@code l} for integral numbers, {@code d} for decimal numbers, {@code s} for
+ * strings and {@code n} for a missing value.
+ */
+public final class SearchAfterValues {
+
+    private static final char LONG = 'l';
+
+    private static final char DOUBLE = 'd';
+
+    private static final char STRING = 's';
+
+    private static final char NULL = 'n';
+
+    private SearchAfterValues() {}
+
+    /**
+     * Encode sort values, as returned by Elasticsearch.
+     *
+     * @param values the sort values.
+     * @return the encoded values, in the same order.
+     * @throws IllegalArgumentException if a value is not a number, a string or {@code null}.
+     */
+    public static List<String> encode(List<Object> values) {
+        List<String> encoded = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value == null) {
+                encoded.add(String.valueOf(NULL));
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                encoded.add(LONG + value.toString());
+            } else if (value instanceof Double || value instanceof Float) {
+                encoded.add(DOUBLE + value.toString());
+            } else if (value instanceof String) {
+                encoded.add(STRING + (String) value);
+            } else {
+                throw new IllegalArgumentException("Unsupported sort value type " + value.getClass().getName());
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Decode sort values encoded with {@link #encode(List)}.
+     *
+     * @param encoded the encoded values.
+     * @return the sort values, as {@link Long}, {@link Double}, {@link String} or {@code null}.
+     * @throws IllegalArgumentException if a value is not validly encoded.
+     */
+    public static List<Object> decode(List<String> encoded) {
+        List<Object> values = new ArrayList<>(encoded.size());
+        for (String value : encoded) {
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Empty sort value");
+            }
+            String raw = value.substring(1);
+            switch (value.charAt(0)) {
+                case LONG:
+                    values.add(Long.valueOf(raw));
+                    break;
+                case DOUBLE:
+                    values.add(Double.valueOf(raw));
+                    break;
+                case STRING:
+                    values.add(raw);
+                    break;
+                case NULL:
+                    if (!raw.isEmpty()) {
+                        throw new IllegalArgumentException("Invalid sort value " + value);
+                    }
+                    values.add(null);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid sort value " + value);
+            }
+        }
+        return values;
+    }
+}
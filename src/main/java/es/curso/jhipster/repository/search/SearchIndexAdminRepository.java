@@ -0,0 +1,178 @@
+package es.curso.jhipster.repository.search;
+
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the administration of the Elasticsearch indices, to rebuild them behind an alias.
+ * <p>
+ * Each entity is searched through an alias named after its {@code @Document} index name, which points to a versioned
+ * index. A new index is built while the alias still points to the previous one, and the alias is then moved
+ * atomically.
+ */
+@Repository
+public class SearchIndexAdminRepository {
+
+    private static final String REFRESH_INTERVAL = "index.refresh_interval";
+
+    private static final String NUMBER_OF_REPLICAS = "index.number_of_replicas";
+
+    private static final int DEFAULT_NUMBER_OF_REPLICAS = 1;
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    public SearchIndexAdminRepository(ElasticsearchRestTemplate elasticsearchTemplate) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+    }
+
+    /**
+     * @param entityClass the entity class.
+     * @return the name of the alias the entity is searched through.
+     */
+    public String getAliasName(Class<?> entityClass) {
+        return elasticsearchTemplate.getIndexCoordinatesFor(entityClass).getIndexName();
+    }
+
+    /**
+     * Create an index with the settings and the mapping of an entity, tuned for a bulk load: without refresh nor
+     * replicas.
+     *
+     * @param entityClass the entity class.
+     * @param indexName the name of the new index.
+     */
+    public void createIndexForBulkLoad(Class<?> entityClass, String indexName) {
+        IndexOperations indexOperations = elasticsearchTemplate.indexOps(entityClass);
+        String settings = indexOperations.createSettings(entityClass).toJson();
+        String mapping = indexOperations.createMapping(entityClass).toJson();
+        CreateIndexRequest request = new CreateIndexRequest(indexName)
+            .settings(Settings.builder().loadFromSource(settings, XContentType.JSON).put(REFRESH_INTERVAL, "-1").put(NUMBER_OF_REPLICAS, 0))
+            .mapping(mapping, XContentType.JSON);
+        elasticsearchTemplate.execute(client -> client.indices().create(request, RequestOptions.DEFAULT));
+    }
+
+    /**
+     * Index and delete documents in one {@code _bulk} request.
+     *
+     * @param indexName the index to write to.
+     * @param toIndex the entities to index.
+     * @param idGetter the id of an entity.
+     * @param toDelete the ids of the documents to delete.
+     * @param <T> the type of the entities.
+     * @return the failure message of each operation which failed, by id.
+     */
+    public <T> Map<Long, String> bulkSync(String indexName, Collection<T> toIndex, Function<T, Long> idGetter, Collection<Long> toDelete) {
+        return BulkIndexSupport.bulk(
+            elasticsearchTemplate,
+            indexName,
+            toIndex.stream().collect(Collectors.toMap(idGetter, Function.identity(), (previous, latest) -> latest, LinkedHashMap::new)),
+            toDelete
+        );
+    }
+
+    /**
+     * Restore the refresh and the replicas of an index built with {@link #createIndexForBulkLoad(Class, String)}, then
+     * wait for it to be searchable.
+     *
+     * @param indexName the name of the index.
+     * @param numberOfReplicas the number of replicas to restore.
+     * @param timeout how long to wait for the primary shards to be allocated.
+     * @param unit the unit of the timeout.
+     */
+    public void finishBulkLoad(String indexName, int numberOfReplicas, long timeout, TimeUnit unit) {
+        UpdateSettingsRequest settingsRequest = new UpdateSettingsRequest(indexName)
+            .settings(Settings.builder().putNull(REFRESH_INTERVAL).put(NUMBER_OF_REPLICAS, numberOfReplicas));
+        elasticsearchTemplate.execute(client -> client.indices().putSettings(settingsRequest, RequestOptions.DEFAULT));
+        elasticsearchTemplate.execute(client -> client.indices().refresh(new RefreshRequest(indexName), RequestOptions.DEFAULT));
+        ClusterHealthRequest healthRequest = new ClusterHealthRequest(indexName)
+            .waitForYellowStatus()
+            .timeout(new TimeValue(timeout, unit));
+        elasticsearchTemplate.execute(client -> client.cluster().health(healthRequest, RequestOptions.DEFAULT));
+    }
+
+    /**
+     * @param aliasName the name of the alias.
+     * @return the number of replicas of the index currently behind the alias, or the Elasticsearch default.
+     */
+    public int getNumberOfReplicas(String aliasName) {
+        if (!exists(aliasName)) {
+            return DEFAULT_NUMBER_OF_REPLICAS;
+        }
+        GetSettingsRequest request = new GetSettingsRequest().indices(aliasName).names(NUMBER_OF_REPLICAS);
+        GetSettingsResponse response = elasticsearchTemplate.execute(client ->
+            client.indices().getSettings(request, RequestOptions.DEFAULT)
+        );
+        // The settings are keyed by the name of the index behind the alias
+        for (ObjectCursor<Settings> settings : response.getIndexToSettings().values()) {
+            return settings.value.getAsInt(NUMBER_OF_REPLICAS, DEFAULT_NUMBER_OF_REPLICAS);
+        }
+        return DEFAULT_NUMBER_OF_REPLICAS;
+    }
+
+    /**
+     * Atomically point an alias to a new index, and delete the indices it pointed to.
+     * <p>
+     * An index named like the alias, as created by Spring Data before the first rebuild, is deleted in the same
+     * operation.
+     *
+     * @param aliasName the name of the alias.
+     * @param indexName the name of the new index.
+     * @return the names of the deleted indices.
+     */
+    public Set<String> swapAlias(String aliasName, String indexName) {
+        Set<String> previousIndices = new HashSet<>(
+            elasticsearchTemplate
+                .execute(client -> client.indices().getAlias(new GetAliasesRequest(aliasName), RequestOptions.DEFAULT))
+                .getAliases()
+                .keySet()
+        );
+        if (previousIndices.isEmpty() && exists(aliasName)) {
+            previousIndices.add(aliasName);
+        }
+        IndicesAliasesRequest request = new IndicesAliasesRequest();
+        request.addAliasAction(AliasActions.add().index(indexName).alias(aliasName));
+        previousIndices.forEach(previousIndex -> request.addAliasAction(AliasActions.removeIndex().index(previousIndex)));
+        elasticsearchTemplate.execute(client -> client.indices().updateAliases(request, RequestOptions.DEFAULT));
+        return previousIndices;
+    }
+
+    /**
+     * Delete indices, typically a rebuild which did not complete.
+     *
+     * @param indexNames the names of the indices.
+     */
+    public void deleteIndices(Collection<String> indexNames) {
+        if (!indexNames.isEmpty()) {
+            DeleteIndexRequest request = new DeleteIndexRequest(indexNames.toArray(new String[0]));
+            elasticsearchTemplate.execute(client -> client.indices().delete(request, RequestOptions.DEFAULT));
+        }
+    }
+
+    private boolean exists(String name) {
+        return elasticsearchTemplate.execute(client -> client.indices().exists(new GetIndexRequest(name), RequestOptions.DEFAULT));
+    }
+}
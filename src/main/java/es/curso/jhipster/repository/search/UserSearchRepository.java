@@ -3,10 +3,25 @@ package es.curso.jhipster.repository.search;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
 import es.curso.jhipster.domain.User;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.DocumentAdapters;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 /**
@@ -15,11 +30,32 @@ import org.springframework.data.elasticsearch.repository.ElasticsearchRepository
 public interface UserSearchRepository extends ElasticsearchRepository<User, Long>, UserSearchRepositoryInternal {}
 
 interface UserSearchRepositoryInternal {
-    Stream<User> search(String query);
+    /**
+     * Search for a slice of users with {@code search_after}, sorted by relevance then id.
+     * <p>
+     * Only the public fields are read from {@code _source}: the returned users only have an id and a login.
+     *
+     * @param query the query string.
+     * @param searchAfter the sort values of the last user of the previous slice, or an empty list for the first one.
+     * @param size the maximum number of users to return.
+     * @return the slice of users.
+     */
+    SearchAfterSlice<User> search(String query, List<Object> searchAfter, int size);
+
+    /**
+     * Index and delete users in a single {@code _bulk} request.
+     *
+     * @param toIndex the users to index.
+     * @param toDelete the ids of the users to delete.
+     * @return the failure message of each operation which failed, by id.
+     */
+    Map<Long, String> bulkSync(Collection<User> toIndex, Collection<Long> toDelete);
 }
 
 class UserSearchRepositoryInternalImpl implements UserSearchRepositoryInternal {
 
+    private static final String[] PUBLIC_FIELDS = { "id", "login" };
+
     private final ElasticsearchRestTemplate elasticsearchTemplate;
 
     UserSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
@@ -27,8 +63,40 @@ class UserSearchRepositoryInternalImpl implements UserSearchRepositoryInternal {
     }
 
     @Override
-    public Stream<User> search(String query) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        return elasticsearchTemplate.search(nativeSearchQuery, User.class).map(SearchHit::getContent).stream();
+    public SearchAfterSlice<User> search(String query, List<Object> searchAfter, int size) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(queryStringQuery(query))
+            .fetchSource(PUBLIC_FIELDS, null)
+            .size(size + 1)
+            .trackTotalHits(false)
+            .sort(SortBuilders.scoreSort())
+            .sort(SortBuilders.fieldSort("id").order(SortOrder.ASC));
+        if (!searchAfter.isEmpty()) {
+            source.searchAfter(searchAfter.toArray());
+        }
+        SearchRequest request = new SearchRequest(elasticsearchTemplate.getIndexCoordinatesFor(User.class).getIndexNames()).source(source);
+        SearchResponse response = elasticsearchTemplate.execute(client -> client.search(request, RequestOptions.DEFAULT));
+
+        // One more hit than the slice size is read to know whether there is a next slice
+        org.elasticsearch.search.SearchHit[] hits = response.getHits().getHits();
+        int count = Math.min(hits.length, size);
+        ElasticsearchConverter converter = elasticsearchTemplate.getElasticsearchConverter();
+        List<User> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(converter.read(User.class, DocumentAdapters.from(hits[i])));
+        }
+        // The sort values keep their type, as a date sort value stringified would not be parsed back
+        List<Object> lastSortValues = count == 0 ? Collections.emptyList() : Arrays.asList(hits[count - 1].getSortValues());
+        return new SearchAfterSlice<>(content, PageRequest.of(0, size), hits.length > size, lastSortValues);
+    }
+
+    @Override
+    public Map<Long, String> bulkSync(Collection<User> toIndex, Collection<Long> toDelete) {
+        return BulkIndexSupport.bulk(
+            elasticsearchTemplate,
+            elasticsearchTemplate.getIndexCoordinatesFor(User.class).getIndexName(),
+            toIndex.stream().collect(Collectors.toMap(User::getId, Function.identity(), (previous, latest) -> latest, LinkedHashMap::new)),
+            toDelete
+        );
     }
 }
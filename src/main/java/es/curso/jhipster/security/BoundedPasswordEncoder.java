@@ -0,0 +1,119 @@
+package es.curso.jhipster.security;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder running the hashing of its delegate on a dedicated, bounded executor.
+ * <p>
+ * Request threads still wait for their hash, but at most {@code threads + queue-capacity} of them at once: beyond,
+ * hashing is rejected immediately with a {@link PasswordHashingRejectedException}, rather than tying up every request
+ * thread of the server during a login burst.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final ExecutorService executor;
+
+    private final Counter rejectedCounter;
+
+    private final long retryAfterSeconds;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        ApplicationProperties.Security.Password properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        int threads = properties.getHashingThreads() != null
+            ? properties.getHashingThreads()
+            : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = properties.getQueueCapacity() > 0
+            ? new ArrayBlockingQueue<>(properties.getQueueCapacity())
+            : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.threadPoolExecutor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "entregar-password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "passwordHashing");
+        this.rejectedCounter = meterRegistry.counter("security.password.hashing.rejected");
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checking the cost of a hash is cheap, so it is done on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        threadPoolExecutor.shutdown();
+    }
+
+    private <T> T hash(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException(retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
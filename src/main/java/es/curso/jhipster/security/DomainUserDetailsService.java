@@ -1,15 +1,15 @@
 package es.curso.jhipster.security;
 
-import es.curso.jhipster.domain.User;
 import es.curso.jhipster.repository.UserRepository;
+import es.curso.jhipster.service.cache.CacheInvalidationBus;
 import java.util.*;
-import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -17,46 +17,81 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The users are cached in {@link #USER_DETAILS_CACHE} by lowercase login or email, as {@link UserDetailsSnapshot}s, so
+ * that authenticating a known user runs no query. The cache is evicted with the other user caches, on every instance,
+ * whenever a user changes.
+ * <p>
+ * On successful authentication, the password hash of the user is replaced by a hash of the current cost if it is of a
+ * lower cost.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager, CacheInvalidationBus cacheInvalidationBus) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
+        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        Cache userDetailsCache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_CACHE));
+        UserDetailsSnapshot snapshot = userDetailsCache.get(lowercaseLogin, UserDetailsSnapshot.class);
+        if (snapshot == null) {
+            snapshot = findUser(lowercaseLogin);
+            userDetailsCache.put(lowercaseLogin, snapshot);
+        }
+        if (!snapshot.isActivated()) {
+            throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
+        }
+        return snapshot.toUserDetails();
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrading the password hash of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                cacheInvalidationBus.evict(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
+                cacheInvalidationBus.evict(USER_DETAILS_CACHE, user.getLogin());
+                if (user.getEmail() != null) {
+                    cacheInvalidationBus.evict(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
+                    cacheInvalidationBus.evict(USER_DETAILS_CACHE, user.getEmail().toLowerCase(Locale.ENGLISH));
+                }
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
+    private UserDetailsSnapshot findUser(String lowercaseLogin) {
+        if (EMAIL_VALIDATOR.isValid(lowercaseLogin, null)) {
             return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+                .findOneWithAuthoritiesByEmailIgnoreCase(lowercaseLogin)
+                .map(UserDetailsSnapshot::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + lowercaseLogin + " was not found in the database"));
         }
 
-        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+            .map(UserDetailsSnapshot::new)
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
-
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
-        if (!user.isActivated()) {
-            throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
-        }
-        List<GrantedAuthority> grantedAuthorities = user
-            .getAuthorities()
-            .stream()
-            .map(authority -> new SimpleGrantedAuthority(authority.getName()))
-            .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
-    }
 }
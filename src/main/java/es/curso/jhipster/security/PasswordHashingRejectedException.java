@@ -0,0 +1,23 @@
+package es.curso.jhipster.security;
+
+/**
+ * This exception is thrown when a password can't be hashed because the hashing executor is saturated.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Too many passwords are being hashed, retry after " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds after which the request can be retried.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
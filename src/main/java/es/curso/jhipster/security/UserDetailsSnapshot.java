@@ -0,0 +1,54 @@
+package es.curso.jhipster.security;
+
+import es.curso.jhipster.domain.Authority;
+import es.curso.jhipster.domain.User;
+import java.io.Serializable;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable copy of what authenticating a {@link User} needs, cached by {@link DomainUserDetailsService}.
+ * <p>
+ * The snapshot holds no entity, so it can be cached, or serialized, without any Hibernate session. A new Spring
+ * Security user is built from it for each authentication, as Spring Security erases the password of the user it is
+ * given once authenticated.
+ */
+final class UserDetailsSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String login;
+
+    private final String password;
+
+    private final boolean activated;
+
+    private final List<GrantedAuthority> authorities;
+
+    UserDetailsSnapshot(User user) {
+        this.login = user.getLogin();
+        this.password = user.getPassword();
+        this.activated = user.isActivated();
+        this.authorities =
+            user
+                .getAuthorities()
+                .stream()
+                .map(Authority::getName)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    String getLogin() {
+        return login;
+    }
+
+    boolean isActivated() {
+        return activated;
+    }
+
+    org.springframework.security.core.userdetails.User toUserDetails() {
+        return new org.springframework.security.core.userdetails.User(login, password, authorities);
+    }
+}
@@ -0,0 +1,99 @@
+package es.curso.jhipster.security.jwt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ * <p>
+ * A string which was put is always found, while a string which was not is found with the configured false positive
+ * probability, as long as no more strings than expected are put. Looking up a string allocates nothing.
+ */
+final class BloomFilter {
+
+    private static final double LN_2 = Math.log(2);
+
+    private final AtomicLongArray words;
+
+    private final long numberOfBits;
+
+    private final int numberOfHashFunctions;
+
+    private final int expectedInsertions;
+
+    private final AtomicInteger insertions = new AtomicInteger();
+
+    BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing: " + expectedInsertions + ", " + falsePositiveProbability);
+        }
+        long optimalNumberOfBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN_2 * LN_2));
+        int numberOfWords = (int) Math.min(Integer.MAX_VALUE, (optimalNumberOfBits + Long.SIZE - 1) / Long.SIZE);
+        this.words = new AtomicLongArray(numberOfWords);
+        this.numberOfBits = (long) numberOfWords * Long.SIZE;
+        this.numberOfHashFunctions = Math.max(1, (int) Math.round((double) numberOfBits / expectedInsertions * LN_2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        long hash1 = hash;
+        long hash2 = hash >>> 32 | 1;
+        for (int i = 0; i < numberOfHashFunctions; i++) {
+            long bit = Long.remainderUnsigned(hash1, numberOfBits);
+            int wordIndex = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+            hash1 += hash2;
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long hash1 = hash;
+        long hash2 = hash >>> 32 | 1;
+        for (int i = 0; i < numberOfHashFunctions; i++) {
+            long bit = Long.remainderUnsigned(hash1, numberOfBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            hash1 += hash2;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of strings put, counting duplicates.
+     */
+    int getInsertions() {
+        return insertions.get();
+    }
+
+    /**
+     * @return {@code true} if more strings than expected were put, so that the false positive probability is exceeded.
+     */
+    boolean isSaturated() {
+        return insertions.get() > expectedInsertions;
+    }
+
+    /**
+     * FNV-1a hash of the characters, mixed with the MurmurHash3 finalizer so that every bit depends on every character.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,231 @@
+package es.curso.jhipster.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.ehcache.UserManagedCache;
+import org.ehcache.config.builders.CacheEventListenerConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.builders.UserManagedCacheBuilder;
+import org.ehcache.core.spi.time.TimeSource;
+import org.ehcache.core.spi.time.TimeSourceService;
+import org.ehcache.event.EventType;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Bounded cache of the authentications of verified tokens, until their expiration.
+ * <p>
+ * Entries are keyed on the SHA-256 hash of the token, in an Ehcache heap store holding at most {@code maxEntries}
+ * entries: each entry expires with its token, and when the store is full an entry is evicted to make room for the new
+ * one. The store measures the time with the clock of the cache, and an entry is never returned once its token has
+ * expired. The entries are counted from the events of the store, fired synchronously.
+ */
+class JWTAuthenticationCache {
+
+    private final UserManagedCache<String, Entry> entries;
+
+    private final Clock clock;
+
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Ehcache needs executors for the listeners of a user managed cache, although the synchronous ones don't use them.
+     */
+    private final ExecutorService eventExecutor = Executors.newSingleThreadExecutor();
+
+    JWTAuthenticationCache(int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.entries =
+            UserManagedCacheBuilder
+                .newUserManagedCacheBuilder(String.class, Entry.class)
+                .withResourcePools(ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(new TokenExpiryPolicy())
+                .using(new ClockTimeSourceService())
+                .withEventExecutors(eventExecutor, eventExecutor)
+                .withEventListeners(
+                    CacheEventListenerConfigurationBuilder
+                        .newEventListenerConfiguration(
+                            event -> {
+                                if (event.getType() == EventType.CREATED) {
+                                    size.increment();
+                                } else {
+                                    size.decrement();
+                                }
+                            },
+                            EventType.CREATED,
+                            EventType.REMOVED,
+                            EventType.EXPIRED,
+                            EventType.EVICTED
+                        )
+                        .synchronous()
+                        .unordered()
+                )
+                .build(true);
+    }
+
+    /**
+     * @param token the token.
+     * @return the cached token, or {@code null} if it is not cached or has expired.
+     */
+    Entry get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiration.isAfter(clock.instant())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Cache the authentication of a verified token.
+     *
+     * @param token the token.
+     * @param tokenId the {@code jti} claim of the token, or {@code null} if it has none.
+     * @param keyId the {@code kid} header of the token, or {@code null} if it is signed with the HMAC secret.
+     * @param principal the principal of the token.
+     * @param authorities the authorities of the token.
+     * @param expiration when the token expires.
+     */
+    void put(
+        String token,
+        String tokenId,
+        String keyId,
+        User principal,
+        Collection<? extends GrantedAuthority> authorities,
+        Instant expiration
+    ) {
+        if (!expiration.isAfter(clock.instant())) {
+            return;
+        }
+        entries.put(hash(token), new Entry(tokenId, keyId, principal, authorities, expiration));
+    }
+
+    /**
+     * @return the number of entries, including the expired ones not removed yet.
+     */
+    int size() {
+        return Math.max(0, size.intValue());
+    }
+
+    void clear() {
+        // Clearing the store fires no event
+        entries.clear();
+        size.reset();
+    }
+
+    void close() {
+        entries.close();
+        eventExecutor.shutdown();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expire each entry with its token.
+     */
+    private final class TokenExpiryPolicy implements ExpiryPolicy<String, Entry> {
+
+        @Override
+        public Duration getExpiryForCreation(String key, Entry value) {
+            Duration ttl = Duration.between(clock.instant(), value.expiration);
+            return ttl.isNegative() ? Duration.ZERO : ttl;
+        }
+
+        @Override
+        public Duration getExpiryForAccess(String key, Supplier<? extends Entry> value) {
+            return null;
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(String key, Supplier<? extends Entry> oldValue, Entry newValue) {
+            return getExpiryForCreation(key, newValue);
+        }
+    }
+
+    /**
+     * Measure the time of the store with the clock of the cache.
+     */
+    private final class ClockTimeSourceService implements TimeSourceService {
+
+        @Override
+        public TimeSource getTimeSource() {
+            return clock::millis;
+        }
+
+        @Override
+        public void start(ServiceProvider<Service> serviceProvider) {}
+
+        @Override
+        public void stop() {}
+    }
+
+    static final class Entry {
+
+        private final String tokenId;
+
+        private final String keyId;
+
+        private final User principal;
+
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private final Instant expiration;
+
+        private Entry(
+            String tokenId,
+            String keyId,
+            User principal,
+            Collection<? extends GrantedAuthority> authorities,
+            Instant expiration
+        ) {
+            this.tokenId = tokenId;
+            this.keyId = keyId;
+            this.principal = principal;
+            this.authorities = authorities;
+            this.expiration = expiration;
+        }
+
+        String getTokenId() {
+            return tokenId;
+        }
+
+        String getKeyId() {
+            return keyId;
+        }
+
+        /**
+         * @param token the cached token.
+         * @return a new authentication for the token, as authentications are mutable.
+         */
+        Authentication toAuthentication(String token) {
+            return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        }
+    }
+}
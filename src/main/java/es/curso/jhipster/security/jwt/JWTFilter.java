@@ -1,12 +1,13 @@
 package es.curso.jhipster.security.jwt;
 
+import es.curso.jhipster.web.profiler.RequestPhase;
+import es.curso.jhipster.web.profiler.RequestProfile;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
@@ -30,9 +31,13 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            RequestProfile.enter(RequestPhase.JWT);
+            try {
+                this.tokenProvider.resolveAuthentication(jwt).ifPresent(SecurityContextHolder.getContext()::setAuthentication);
+            } finally {
+                RequestProfile.exit(RequestPhase.JWT);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
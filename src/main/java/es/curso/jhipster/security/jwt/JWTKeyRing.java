@@ -0,0 +1,271 @@
+package es.curso.jhipster.security.jwt;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Key pairs used to sign and verify ES256 tokens, identified by the {@code kid} header of the tokens.
+ * <p>
+ * The keys are read from {@code application.security.jwt.key-directory} and read again periodically, so keys are rotated
+ * without restart. The parsed keys are kept in an immutable snapshot, which is replaced as a whole on rotation, so
+ * looking up the key of a token needs neither lock nor parsing.
+ */
+@Component
+public class JWTKeyRing {
+
+    private static final String PRIVATE_KEY_EXTENSION = ".key";
+
+    private static final String PUBLIC_KEY_EXTENSION = ".pub";
+
+    private static final DateTimeFormatter KEY_ID_FORMATTER = DateTimeFormatter
+        .ofPattern("yyyyMMddHHmmssSSS")
+        .withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(JWTKeyRing.class);
+
+    private final SignatureAlgorithm algorithm;
+
+    private final String keyDirectory;
+
+    private volatile KeySet keySet = new KeySet(null, new TreeMap<>());
+
+    public JWTKeyRing(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Security.Jwt properties = applicationProperties.getSecurity().getJwt();
+        this.algorithm = SignatureAlgorithm.forName(properties.getAlgorithm());
+        if (algorithm != SignatureAlgorithm.HS512 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm + ", use HS512 or ES256");
+        }
+        this.keyDirectory = properties.getKeyDirectory();
+        if (!isAsymmetric()) {
+            return;
+        }
+        if (keyDirectory != null) {
+            reload();
+            if (keySet.signingKey == null) {
+                throw new IllegalStateException("No JWT key pair found in " + keyDirectory);
+            }
+        } else {
+            log.warn(
+                "Warning: no JWT key directory is configured, a key pair is generated, so tokens can only be verified by " +
+                "this instance. We recommend setting `application.security.jwt.key-directory` when running several instances."
+            );
+            rotate(KEY_ID_FORMATTER.format(Instant.now()), Keys.keyPairFor(SignatureAlgorithm.ES256));
+        }
+    }
+
+    /**
+     * @return {@code true} if tokens are signed with the key pairs of the ring, {@code false} if they are signed with the
+     * HMAC secret.
+     */
+    public boolean isAsymmetric() {
+        return algorithm == SignatureAlgorithm.ES256;
+    }
+
+    /**
+     * @return the key signing new tokens, or {@code null} if tokens are signed with the HMAC secret.
+     */
+    SigningKey getSigningKey() {
+        return keySet.signingKey;
+    }
+
+    /**
+     * @param keyId the {@code kid} header of a token.
+     * @return the public key verifying the token, or {@code null} if the key is unknown.
+     */
+    PublicKey getVerificationKey(String keyId) {
+        return keySet.verificationKeys.get(keyId);
+    }
+
+    /**
+     * @return the public keys of the ring, as JSON Web Keys.
+     */
+    public List<Map<String, String>> getJsonWebKeys() {
+        return keySet.jsonWebKeys;
+    }
+
+    /**
+     * Sign new tokens with a new key pair, the previous public keys being still accepted for verification.
+     *
+     * @param keyId the id of the new key pair.
+     * @param keyPair the new key pair.
+     */
+    public synchronized void rotate(String keyId, KeyPair keyPair) {
+        TreeMap<String, PublicKey> verificationKeys = new TreeMap<>(keySet.verificationKeys);
+        verificationKeys.put(keyId, keyPair.getPublic());
+        keySet = new KeySet(new SigningKey(keyId, keyPair.getPrivate()), verificationKeys);
+        log.info("Signing JWT with the key {}", keyId);
+    }
+
+    /**
+     * Stop accepting the tokens signed with a key, which can't be the signing key.
+     *
+     * @param keyId the id of the key.
+     */
+    public synchronized void retire(String keyId) {
+        if (keySet.signingKey != null && keyId.equals(keySet.signingKey.id)) {
+            throw new IllegalArgumentException("The signing key " + keyId + " can't be retired");
+        }
+        TreeMap<String, PublicKey> verificationKeys = new TreeMap<>(keySet.verificationKeys);
+        if (verificationKeys.remove(keyId) != null) {
+            keySet = new KeySet(keySet.signingKey, verificationKeys);
+            log.info("Retired the JWT key {}", keyId);
+        }
+    }
+
+    /**
+     * Read the keys of the key directory again.
+     * <p>
+     * The keys already known are not parsed again, and the ring is left unchanged if the directory can't be read or
+     * holds no key pair.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.reload-interval:PT1M}")
+    public synchronized void reload() {
+        if (!isAsymmetric() || keyDirectory == null) {
+            return;
+        }
+        KeySet current = keySet;
+        TreeMap<String, PublicKey> verificationKeys = new TreeMap<>();
+        String signingKeyId = null;
+        Path directory = Paths.get(keyDirectory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (!fileName.endsWith(PUBLIC_KEY_EXTENSION)) {
+                    continue;
+                }
+                String keyId = fileName.substring(0, fileName.length() - PUBLIC_KEY_EXTENSION.length());
+                PublicKey publicKey = current.verificationKeys.get(keyId);
+                verificationKeys.put(keyId, publicKey != null ? publicKey : readPublicKey(file));
+                if (
+                    Files.exists(directory.resolve(keyId + PRIVATE_KEY_EXTENSION)) &&
+                    (signingKeyId == null || keyId.compareTo(signingKeyId) > 0)
+                ) {
+                    signingKeyId = keyId;
+                }
+            }
+            if (signingKeyId == null) {
+                log.error("No JWT key pair found in {}, keeping the current keys", keyDirectory);
+                return;
+            }
+            SigningKey signingKey = current.signingKey;
+            if (signingKey == null || !signingKeyId.equals(signingKey.id)) {
+                signingKey = new SigningKey(signingKeyId, readPrivateKey(directory.resolve(signingKeyId + PRIVATE_KEY_EXTENSION)));
+            }
+            if (signingKey != current.signingKey || !verificationKeys.keySet().equals(current.verificationKeys.keySet())) {
+                keySet = new KeySet(signingKey, verificationKeys);
+                log.info("Signing JWT with the key {}, accepting the keys {}", signingKeyId, verificationKeys.keySet());
+            }
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            log.error("Could not read the JWT keys of {}, keeping the current keys: {}", keyDirectory, e.getMessage());
+        }
+    }
+
+    private static PublicKey readPublicKey(Path file) throws IOException, GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(readPem(file)));
+    }
+
+    private static PrivateKey readPrivateKey(Path file) throws IOException, GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        StringBuilder base64 = new StringBuilder();
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            if (!line.startsWith("-----")) {
+                base64.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    private static Map<String, String> toJsonWebKey(String keyId, PublicKey publicKey) {
+        ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+        Map<String, String> jsonWebKey = new LinkedHashMap<>();
+        jsonWebKey.put("kty", "EC");
+        jsonWebKey.put("crv", "P-256");
+        jsonWebKey.put("x", toBase64Url(ecPublicKey.getW().getAffineX()));
+        jsonWebKey.put("y", toBase64Url(ecPublicKey.getW().getAffineY()));
+        jsonWebKey.put("kid", keyId);
+        jsonWebKey.put("use", "sig");
+        jsonWebKey.put("alg", SignatureAlgorithm.ES256.getValue());
+        return Collections.unmodifiableMap(jsonWebKey);
+    }
+
+    /**
+     * Encode a P-256 coordinate on 32 bytes, as required by RFC 7518.
+     */
+    private static String toBase64Url(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] unsigned = new byte[32];
+        int length = Math.min(bytes.length, unsigned.length);
+        System.arraycopy(bytes, bytes.length - length, unsigned, unsigned.length - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned);
+    }
+
+    static final class SigningKey {
+
+        private final String id;
+
+        private final PrivateKey key;
+
+        private SigningKey(String id, PrivateKey key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        PrivateKey getKey() {
+            return key;
+        }
+    }
+
+    private static final class KeySet {
+
+        private final SigningKey signingKey;
+
+        private final Map<String, PublicKey> verificationKeys;
+
+        private final List<Map<String, String>> jsonWebKeys;
+
+        private KeySet(SigningKey signingKey, TreeMap<String, PublicKey> verificationKeys) {
+            this.signingKey = signingKey;
+            this.verificationKeys = Map.copyOf(verificationKeys);
+            List<Map<String, String>> jsonWebKeys = new ArrayList<>();
+            verificationKeys.forEach((keyId, publicKey) -> jsonWebKeys.add(toJsonWebKey(keyId, publicKey)));
+            this.jsonWebKeys = Collections.unmodifiableList(jsonWebKeys);
+        }
+    }
+}
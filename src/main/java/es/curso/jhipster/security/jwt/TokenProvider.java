@@ -1,12 +1,19 @@
 package es.curso.jhipster.security.jwt;
 
+import es.curso.jhipster.config.ApplicationProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,13 +34,31 @@ public class TokenProvider {
 
     private final Key key;
 
+    private final JWTKeyRing keyRing;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final boolean acceptHmacTokens;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final JWTAuthenticationCache authenticationCache;
+
+    private final Counter cacheHits;
+
+    private final Counter cacheMisses;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        JWTKeyRing keyRing,
+        TokenRevocationService tokenRevocationService,
+        MeterRegistry meterRegistry
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -48,10 +73,21 @@ public class TokenProvider {
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.keyRing = keyRing;
+        this.tokenRevocationService = tokenRevocationService;
+        this.acceptHmacTokens = !keyRing.isAsymmetric() || applicationProperties.getSecurity().getJwt().isAcceptHmacTokens();
+        jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KeyRingResolver()).build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        this.authenticationCache =
+            new JWTAuthenticationCache(applicationProperties.getSecurity().getAuthenticationCacheMaxEntries(), Clock.systemUTC());
+        this.cacheHits = Counter.builder("security.jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("security.jwt.cache").tag("result", "miss").register(meterRegistry);
+        Gauge
+            .builder("security.jwt.cache.size", authenticationCache, JWTAuthenticationCache::size)
+            .description("Number of cached authentications of verified tokens")
+            .register(meterRegistry);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -65,26 +101,25 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
+        JwtBuilder builder = Jwts
             .builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+            .setExpiration(validity);
+        if (keyRing.isAsymmetric()) {
+            JWTKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getId()).signWith(signingKey.getKey(), SignatureAlgorithm.ES256);
+        } else {
+            builder.signWith(key, SignatureAlgorithm.HS512);
+        }
+        return builder.compact();
     }
 
     public Authentication getAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
+        Collection<? extends GrantedAuthority> authorities = getAuthorities(claims);
         User principal = new User(claims.getSubject(), "", authorities);
-
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
@@ -98,4 +133,129 @@ public class TokenProvider {
         }
         return false;
     }
+
+    /**
+     * Validate a token and get its authentication, parsing and verifying it only once.
+     * <p>
+     * The authentication of a valid token is cached until the token expires, so the token is only verified on its
+     * first use. Its revocation, and that its key is not retired, are checked on every use.
+     *
+     * @param token the token.
+     * @return the authentication, or empty if the token is not valid or is revoked.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        JWTAuthenticationCache.Entry cached = authenticationCache.get(token);
+        if (cached != null) {
+            cacheHits.increment();
+            if (cached.getKeyId() != null && keyRing.getVerificationKey(cached.getKeyId()) == null) {
+                log.info("JWT token signed with the retired key {}.", cached.getKeyId());
+                return Optional.empty();
+            }
+            if (tokenRevocationService.isRevoked(cached.getTokenId())) {
+                log.info("Revoked JWT token.");
+                return Optional.empty();
+            }
+            return Optional.of(cached.toAuthentication(token));
+        }
+        cacheMisses.increment();
+        Jws<Claims> jws;
+        try {
+            jws = jwtParser.parseClaimsJws(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+            return Optional.empty();
+        }
+        Claims claims = jws.getBody();
+        Collection<? extends GrantedAuthority> authorities = getAuthorities(claims);
+        User principal = new User(claims.getSubject(), "", authorities);
+        if (claims.getExpiration() != null) {
+            authenticationCache.put(
+                token,
+                claims.getId(),
+                jws.getHeader().getKeyId(),
+                principal,
+                authorities,
+                claims.getExpiration().toInstant()
+            );
+        }
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            log.info("Revoked JWT token.");
+            return Optional.empty();
+        }
+        return Optional.of(new UsernamePasswordAuthenticationToken(principal, token, authorities));
+    }
+
+    /**
+     * Revoke a valid token, so that it is no longer accepted although it has not expired.
+     *
+     * @param token the token.
+     * @return {@code true} if the token was revoked, {@code false} if it is not valid or can't be revoked, having no
+     * {@code jti} claim.
+     */
+    public boolean revokeToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+            return false;
+        }
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        tokenRevocationService.revoke(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant());
+        return true;
+    }
+
+    /**
+     * Revoke a token knowing its {@code jti} claim only, until the longest validity of a token has passed.
+     *
+     * @param tokenId the {@code jti} claim of the token.
+     */
+    public void revokeToken(UUID tokenId) {
+        long validity = Math.max(tokenValidityInMilliseconds, tokenValidityInMillisecondsForRememberMe);
+        tokenRevocationService.revoke(tokenId.toString(), null, Instant.now().plusMillis(validity));
+    }
+
+    @PreDestroy
+    public void close() {
+        authenticationCache.close();
+    }
+
+    private Collection<? extends GrantedAuthority> getAuthorities(Claims claims) {
+        return Arrays
+            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves the verification key of a token from its {@code kid} header, among the parsed keys of the key ring.
+     * <p>
+     * Tokens without {@code kid} are HS512 tokens, verified with the HMAC secret unless they are no longer accepted.
+     */
+    private class KeyRingResolver extends SigningKeyResolverAdapter {
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                if (!acceptHmacTokens || !SignatureAlgorithm.HS512.getValue().equals(header.getAlgorithm())) {
+                    throw new UnsupportedJwtException("JWT without key id are not accepted");
+                }
+                return key;
+            }
+            if (!SignatureAlgorithm.ES256.getValue().equals(header.getAlgorithm())) {
+                throw new UnsupportedJwtException("Unsupported JWT algorithm: " + header.getAlgorithm());
+            }
+            Key verificationKey = keyRing.getVerificationKey(keyId);
+            if (verificationKey == null) {
+                throw new UnsupportedJwtException("Unknown JWT key id: " + keyId);
+            }
+            return verificationKey;
+        }
+    }
 }
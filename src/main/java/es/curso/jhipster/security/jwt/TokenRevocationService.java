@@ -0,0 +1,181 @@
+package es.curso.jhipster.security.jwt;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.RevokedToken;
+import es.curso.jhipster.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for revoking tokens before their expiration, by their {@code jti} claim.
+ * <p>
+ * Revocations are stored in the database, and each instance keeps their ids in a {@link BloomFilter}, refreshed
+ * incrementally from the database. Checking a token which is not revoked, the common case, is answered by the filter
+ * alone; only the tokens found in the filter, revoked or false positives, are looked up in the database.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Security.Revocation properties;
+
+    private final Counter filteredCounter;
+
+    private final Counter revokedCounter;
+
+    private final Counter falsePositiveCounter;
+
+    private volatile BloomFilter filter;
+
+    /**
+     * Until the filter is first loaded, every token is looked up in the database.
+     */
+    private volatile boolean loaded;
+
+    private volatile Instant lastRefreshDate;
+
+    /**
+     * The ids put in the filter by the last refresh or rebuild and by the revocations since, which the next refresh reads
+     * again within its overlap: they are not put again, so that the insertions of the filter count each revocation once.
+     */
+    private volatile Set<String> recentJtis = ConcurrentHashMap.newKeySet();
+
+    public TokenRevocationService(
+        RevokedTokenRepository revokedTokenRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getSecurity().getRevocation();
+        this.filter = new BloomFilter(properties.getExpectedRevocations(), properties.getFalsePositiveProbability());
+        this.filteredCounter = Counter.builder("security.jwt.revocation").tag("result", "filtered").register(meterRegistry);
+        this.revokedCounter = Counter.builder("security.jwt.revocation").tag("result", "revoked").register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("security.jwt.revocation").tag("result", "false_positive").register(meterRegistry);
+        Gauge
+            .builder("security.jwt.revocation.filter.size", this, service -> service.filter.getInsertions())
+            .description("Number of revoked token ids put in the revocation filter")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param jti the {@code jti} claim of a token, or {@code null} if it has none.
+     * @return {@code true} if the token is revoked.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (loaded && !filter.mightContain(jti)) {
+            filteredCounter.increment();
+            return false;
+        }
+        boolean revoked;
+        try {
+            revoked = revokedTokenRepository.existsById(jti);
+        } catch (DataAccessException e) {
+            log.warn("Could not check the revocation of the token {}, rejecting it: {}", jti, e.getMessage());
+            return true;
+        }
+        (revoked ? revokedCounter : falsePositiveCounter).increment();
+        return revoked;
+    }
+
+    /**
+     * Revoke a token, on every instance within {@code application.security.revocation.refresh-interval}, and on this
+     * one immediately.
+     *
+     * @param jti the {@code jti} claim of the token.
+     * @param login the login of the user of the token, if known.
+     * @param expirationDate when the token expires, after which its revocation is purged.
+     */
+    public void revoke(String jti, String login, Instant expirationDate) {
+        log.debug("Revoking the token {} of {}", jti, login);
+        RevokedToken revokedToken = new RevokedToken()
+            .jti(jti)
+            .login(login)
+            .expirationDate(expirationDate)
+            .revokedDate(Instant.now());
+        revokedTokenRepository.save(revokedToken);
+        if (recentJtis.add(jti)) {
+            filter.put(jti);
+        }
+    }
+
+    /**
+     * Put the revocations of the last refresh interval in the filter, or rebuild it if it is not loaded yet or is
+     * saturated.
+     */
+    @Scheduled(fixedDelayString = "${application.security.revocation.refresh-interval:PT10S}")
+    public synchronized void refresh() {
+        if (!loaded || filter.isSaturated()) {
+            rebuild();
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            List<String> jtis = revokedTokenRepository.findAllJtiRevokedSince(lastRefreshDate.minus(properties.getRefreshOverlap()));
+            BloomFilter current = filter;
+            Set<String> seen = recentJtis;
+            Set<String> recent = ConcurrentHashMap.newKeySet();
+            for (String jti : jtis) {
+                recent.add(jti);
+                if (!seen.contains(jti)) {
+                    current.put(jti);
+                }
+            }
+            recentJtis = recent;
+            lastRefreshDate = now;
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh the token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Purge the expired revocations, and replace the filter by a new one holding the unexpired revocations only.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.security.revocation.rebuild-interval:PT1H}",
+        initialDelayString = "${application.security.revocation.rebuild-interval:PT1H}"
+    )
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        try {
+            Integer purged = transactionTemplate.execute(status -> revokedTokenRepository.deleteAllExpired(now));
+            List<String> jtis = revokedTokenRepository.findAllUnexpiredJti(now);
+            // Leave room for the revocations until the next rebuild
+            BloomFilter rebuilt = new BloomFilter(
+                Math.max(properties.getExpectedRevocations(), jtis.size() * 2),
+                properties.getFalsePositiveProbability()
+            );
+            jtis.forEach(rebuilt::put);
+            Set<String> recent = ConcurrentHashMap.newKeySet();
+            recent.addAll(jtis);
+            filter = rebuilt;
+            recentJtis = recent;
+            lastRefreshDate = now;
+            loaded = true;
+            log.debug("Rebuilt the token revocation filter with {} revoked tokens, purged {} expired ones", jtis.size(), purged);
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild the token revocation filter: {}", e.getMessage());
+        }
+    }
+}
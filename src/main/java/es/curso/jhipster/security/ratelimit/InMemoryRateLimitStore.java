@@ -0,0 +1,82 @@
+package es.curso.jhipster.security.ratelimit;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RateLimitStore} keeping the rate limits of this instance in memory, for at most a given number of keys.
+ * <p>
+ * Each key holds a single {@link AtomicLong}, updated with compare-and-set, so requests of the same key never wait for
+ * each other. When the store is full, a new key evicts an expired key, or an arbitrary one if none of the sampled keys
+ * has expired: a client spraying keys can then reset the limits of others, so size {@code max-keys} above the number
+ * of clients expected within a limit period.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final Map<String, AtomicLong> theoreticalArrivalTimes = new ConcurrentHashMap<>();
+
+    private final int maxKeys;
+
+    private final Clock clock;
+
+    public InMemoryRateLimitStore(int maxKeys, Clock clock) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of rate limit keys: " + maxKeys);
+        }
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryConsume(String key, long emissionIntervalMillis, long burstToleranceMillis) {
+        long now = clock.millis();
+        AtomicLong theoreticalArrivalTime = theoreticalArrivalTimes.get(key);
+        if (theoreticalArrivalTime == null) {
+            if (theoreticalArrivalTimes.size() >= maxKeys) {
+                evict(now);
+            }
+            theoreticalArrivalTime = theoreticalArrivalTimes.putIfAbsent(key, new AtomicLong(now + emissionIntervalMillis));
+            if (theoreticalArrivalTime == null) {
+                return 0;
+            }
+        }
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long start = Math.max(current, now);
+            if (start - now > burstToleranceMillis) {
+                return start - now - burstToleranceMillis;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, start + emissionIntervalMillis)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void purgeExpired() {
+        long now = clock.millis();
+        theoreticalArrivalTimes.values().removeIf(theoreticalArrivalTime -> theoreticalArrivalTime.get() <= now);
+    }
+
+    /**
+     * @return the number of keys currently limited.
+     */
+    public int size() {
+        return theoreticalArrivalTimes.size();
+    }
+
+    private void evict(long now) {
+        Iterator<AtomicLong> iterator = theoreticalArrivalTimes.values().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); i++) {
+            if (iterator.next().get() <= now || i == EVICTION_SAMPLE_SIZE - 1 || !iterator.hasNext()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+}
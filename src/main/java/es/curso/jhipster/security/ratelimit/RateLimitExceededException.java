@@ -0,0 +1,23 @@
+package es.curso.jhipster.security.ratelimit;
+
+/**
+ * This exception is thrown when a client sends more requests than its rate limit allows.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests, retry after " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds after which the request can be retried.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
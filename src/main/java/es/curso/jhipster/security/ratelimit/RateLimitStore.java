@@ -0,0 +1,27 @@
+package es.curso.jhipster.security.ratelimit;
+
+/**
+ * Storage of the rate limits, keeping the theoretical arrival time of the next request of each key.
+ * <p>
+ * The default store keeps them in memory, so that each instance limits the requests it receives on its own. To limit
+ * the requests of a whole cluster, declare a bean of this type backed by a shared store, which must apply
+ * {@link #tryConsume(String, long, long)} atomically.
+ */
+public interface RateLimitStore {
+    /**
+     * Consume a request of a key, following the generic cell rate algorithm: a request is allowed if the theoretical
+     * arrival time of the key is at most {@code burstToleranceMillis} in the future, which then moves forward by
+     * {@code emissionIntervalMillis}.
+     *
+     * @param key the key of the limit, such as the client IP address.
+     * @param emissionIntervalMillis the interval between two requests at the sustained rate.
+     * @param burstToleranceMillis how far ahead of the sustained rate requests are allowed, in bursts.
+     * @return {@code 0} if the request is allowed, otherwise the number of milliseconds after which it would be.
+     */
+    long tryConsume(String key, long emissionIntervalMillis, long burstToleranceMillis);
+
+    /**
+     * Forget the keys which are back to a full burst, whose state is the same as an unknown key.
+     */
+    default void purgeExpired() {}
+}
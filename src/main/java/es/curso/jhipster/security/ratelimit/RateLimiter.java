@@ -0,0 +1,145 @@
+package es.curso.jhipster.security.ratelimit;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the rate of the requests sending credentials, by client IP address and by login or email.
+ * <p>
+ * The limits are checked before anything is looked up or hashed, so a rejected request costs almost nothing. They
+ * are kept in the {@link RateLimitStore} bean if there is one, or in an {@link InMemoryRateLimitStore} otherwise.
+ * Should the store fail, requests are allowed, the password hashing executor still bounding the load.
+ */
+@Component
+public class RateLimiter {
+
+    private final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final ApplicationProperties.Security.RateLimit properties;
+
+    private final RateLimitStore store;
+
+    private final Map<Action, Counter> allowedCounters = new EnumMap<>(Action.class);
+
+    private final Map<Action, Counter> rejectedCounters = new EnumMap<>(Action.class);
+
+    public RateLimiter(
+        ApplicationProperties applicationProperties,
+        ObjectProvider<RateLimitStore> storeProvider,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getSecurity().getRateLimit();
+        this.store = storeProvider.getIfAvailable(() -> new InMemoryRateLimitStore(properties.getMaxKeys(), Clock.systemUTC()));
+        for (Action action : Action.values()) {
+            String tag = action.name().toLowerCase(Locale.ENGLISH);
+            allowedCounters.put(action, counter(meterRegistry, tag, "allowed"));
+            rejectedCounters.put(action, counter(meterRegistry, tag, "rejected"));
+        }
+        if (store instanceof InMemoryRateLimitStore) {
+            Gauge
+                .builder("security.rate.limit.keys", (InMemoryRateLimitStore) store, InMemoryRateLimitStore::size)
+                .description("Number of keys whose requests are limited")
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @param remoteAddress the IP address of the client.
+     * @param login the login sent by the client.
+     * @throws RateLimitExceededException if the client or the login sent too many authentications.
+     */
+    public void checkAuthenticate(String remoteAddress, String login) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long retryAfterMillis = consume(Action.AUTHENTICATE, "ip:" + remoteAddress, properties.getAuthenticateIp());
+        if (retryAfterMillis == 0 && login != null) {
+            String key = "login:" + login.toLowerCase(Locale.ENGLISH);
+            retryAfterMillis = consume(Action.AUTHENTICATE, key, properties.getAuthenticateLogin());
+        }
+        record(Action.AUTHENTICATE, retryAfterMillis);
+    }
+
+    /**
+     * @param remoteAddress the IP address of the client.
+     * @throws RateLimitExceededException if the client sent too many registrations.
+     */
+    public void checkRegister(String remoteAddress) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        record(Action.REGISTER, consume(Action.REGISTER, "ip:" + remoteAddress, properties.getRegisterIp()));
+    }
+
+    /**
+     * @param remoteAddress the IP address of the client.
+     * @param mail the email sent by the client.
+     * @throws RateLimitExceededException if the client or the email sent too many password reset requests.
+     */
+    public void checkPasswordReset(String remoteAddress, String mail) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long retryAfterMillis = consume(Action.PASSWORD_RESET, "ip:" + remoteAddress, properties.getPasswordResetIp());
+        if (retryAfterMillis == 0 && mail != null) {
+            String key = "mail:" + mail.trim().toLowerCase(Locale.ENGLISH);
+            retryAfterMillis = consume(Action.PASSWORD_RESET, key, properties.getPasswordResetMail());
+        }
+        record(Action.PASSWORD_RESET, retryAfterMillis);
+    }
+
+    /**
+     * Forget the keys which are no longer limited.
+     */
+    @Scheduled(fixedDelayString = "${application.security.rate-limit.purge-interval:PT1M}")
+    public void purgeExpired() {
+        store.purgeExpired();
+    }
+
+    private long consume(Action action, String key, ApplicationProperties.Security.RateLimit.Limit limit) {
+        long emissionIntervalMillis = Math.max(1, limit.getPeriod().toMillis() / limit.getCapacity());
+        long burstToleranceMillis = emissionIntervalMillis * (limit.getCapacity() - 1);
+        try {
+            return store.tryConsume(action.prefix + key, emissionIntervalMillis, burstToleranceMillis);
+        } catch (RuntimeException e) {
+            log.warn("Could not check the rate limit of {}, allowing the request: {}", key, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void record(Action action, long retryAfterMillis) {
+        if (retryAfterMillis > 0) {
+            log.debug("Rate limit exceeded for {}", action);
+            rejectedCounters.get(action).increment();
+            throw new RateLimitExceededException((retryAfterMillis + 999) / 1000);
+        }
+        allowedCounters.get(action).increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String action, String result) {
+        return Counter.builder("security.rate.limit").tag("action", action).tag("result", result).register(meterRegistry);
+    }
+
+    private enum Action {
+        AUTHENTICATE("authenticate:"),
+        REGISTER("register:"),
+        PASSWORD_RESET("password-reset:");
+
+        private final String prefix;
+
+        Action(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+}
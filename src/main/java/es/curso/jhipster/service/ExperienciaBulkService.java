@@ -0,0 +1,206 @@
+package es.curso.jhipster.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.service.dto.BulkItemResultDTO;
+import es.curso.jhipster.service.search.SearchIndexer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for creating and updating many {@link Experiencia} at once.
+ * <p>
+ * Items are read one by one from the request body and written by chunks: each chunk is saved in its own transaction,
+ * so Hibernate can group the statements in JDBC batches, and is then indexed with a single Elasticsearch
+ * {@code _bulk} request. The changes are recorded in the search outbox with the chunk, so that the documents which
+ * could not be indexed are synchronized later by the {@link es.curso.jhipster.service.search.SearchOutboxRelay}.
+ */
+@Service
+public class ExperienciaBulkService {
+
+    static final int CHUNK_SIZE = 250;
+
+    private final Logger log = LoggerFactory.getLogger(ExperienciaBulkService.class);
+
+    private final ExperienciaRepository experienciaRepository;
+
+    private final ExperienciaSearchRepository experienciaSearchRepository;
+
+    private final SearchIndexer searchIndexer;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ExperienciaBulkService(
+        ExperienciaRepository experienciaRepository,
+        ExperienciaSearchRepository experienciaSearchRepository,
+        SearchIndexer searchIndexer,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.experienciaRepository = experienciaRepository;
+        this.experienciaSearchRepository = experienciaSearchRepository;
+        this.searchIndexer = searchIndexer;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create or update the experiencias read from a JSON array or from newline delimited JSON.
+     * <p>
+     * Experiencias without an id are created, the other ones are updated. Reading stops at the first item which can't
+     * be parsed, the chunks already written are kept.
+     *
+     * @param inputStream the JSON array or newline delimited JSON of experiencias.
+     * @return the outcome of each item, in input order.
+     * @throws IOException if the input stream can't be read.
+     */
+    public List<BulkItemResultDTO> saveAll(InputStream inputStream) throws IOException {
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        List<Experiencia> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (MappingIterator<Experiencia> items = objectMapper.readerFor(Experiencia.class).readValues(inputStream)) {
+            while (items.hasNextValue()) {
+                chunk.add(items.nextValue());
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(saveChunk(chunk, results.size()));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            results.addAll(saveChunk(chunk, results.size()));
+            chunk.clear();
+            results.add(new BulkItemResultDTO(results.size(), null, HttpStatus.BAD_REQUEST.value(), e.getOriginalMessage()));
+        }
+        results.addAll(saveChunk(chunk, results.size()));
+        log.debug("Bulk saved {} Experiencias", results.size());
+        return results;
+    }
+
+    private List<BulkItemResultDTO> saveChunk(List<Experiencia> chunk, int firstIndex) {
+        if (chunk.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BulkItemResultDTO[] results = new BulkItemResultDTO[chunk.size()];
+        List<Experiencia> valid = new ArrayList<>(chunk.size());
+        List<Integer> validIndexes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Experiencia experiencia = chunk.get(i);
+            Set<ConstraintViolation<Experiencia>> violations = validator.validate(experiencia);
+            if (violations.isEmpty()) {
+                valid.add(experiencia);
+                validIndexes.add(i);
+            } else {
+                String message = violations
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+                results[i] = new BulkItemResultDTO(firstIndex + i, experiencia.getId(), HttpStatus.BAD_REQUEST.value(), message);
+            }
+        }
+
+        List<Experiencia> saved = new ArrayList<>(valid.size());
+        List<SearchOutboxEvent> events = new ArrayList<>(valid.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> existingIds = experienciaRepository
+                    .findAllById(valid.stream().map(Experiencia::getId).filter(id -> id != null).collect(Collectors.toList()))
+                    .stream()
+                    .map(Experiencia::getId)
+                    .collect(Collectors.toSet());
+                for (int i = 0; i < valid.size(); i++) {
+                    Experiencia experiencia = valid.get(i);
+                    int index = validIndexes.get(i);
+                    if (experiencia.getId() == null) {
+                        Experiencia result = experienciaRepository.save(experiencia);
+                        saved.add(result);
+                        results[index] = new BulkItemResultDTO(firstIndex + index, result.getId(), HttpStatus.CREATED.value(), null);
+                    } else if (existingIds.contains(experiencia.getId())) {
+                        Experiencia result = experienciaRepository.save(experiencia);
+                        saved.add(result);
+                        results[index] = new BulkItemResultDTO(firstIndex + index, result.getId(), HttpStatus.OK.value(), null);
+                    } else {
+                        results[index] =
+                            new BulkItemResultDTO(
+                                firstIndex + index,
+                                experiencia.getId(),
+                                HttpStatus.NOT_FOUND.value(),
+                                "Entity not found"
+                            );
+                    }
+                }
+                List<Long> savedIds = saved.stream().map(Experiencia::getId).collect(Collectors.toList());
+                events.addAll(searchIndexer.record(SearchDocumentType.EXPERIENCIA, savedIds));
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not save a chunk of {} Experiencias: {}", valid.size(), e.getMessage());
+            saved.clear();
+            events.clear();
+            for (int index : validIndexes) {
+                if (results[index] != null && results[index].getStatus() == HttpStatus.NOT_FOUND.value()) {
+                    continue;
+                }
+                results[index] =
+                    new BulkItemResultDTO(
+                        firstIndex + index,
+                        chunk.get(index).getId(),
+                        HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                        e.getMostSpecificCause().getMessage()
+                    );
+            }
+        }
+
+        if (!saved.isEmpty()) {
+            Map<Long, String> failures;
+            try {
+                failures = experienciaSearchRepository.bulkIndex(saved);
+            } catch (RuntimeException e) {
+                log.warn("Could not index a chunk of {} Experiencias: {}", saved.size(), e.getMessage());
+                String message = String.valueOf(e.getMessage());
+                failures = saved.stream().collect(Collectors.toMap(Experiencia::getId, experiencia -> message, (first, second) -> first));
+            }
+            for (BulkItemResultDTO result : results) {
+                if (result.getId() != null && result.getMessage() == null && failures.containsKey(result.getId())) {
+                    result.setMessage("Saved but not indexed yet: " + failures.get(result.getId()));
+                }
+            }
+            Set<Long> notIndexed = failures.keySet();
+            try {
+                searchIndexer.acknowledge(
+                    events.stream().filter(event -> !notIndexed.contains(event.getDocumentId())).collect(Collectors.toList())
+                );
+            } catch (DataAccessException e) {
+                log.warn("Could not mark processed the outbox events of {} Experiencias: {}", saved.size(), e.getMessage());
+            }
+        }
+        return Arrays.asList(results);
+    }
+}
@@ -0,0 +1,97 @@
+package es.curso.jhipster.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting the whole {@link Experiencia} table.
+ * <p>
+ * Rows are read through a database cursor and written one by one to the output stream, each entity being detached
+ * once written, so memory usage does not depend on the size of the table.
+ */
+@Service
+public class ExperienciaExportService {
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        /**
+         * A single JSON array.
+         */
+        JSON,
+        /**
+         * Newline delimited JSON, one experiencia per line.
+         */
+        NDJSON,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(ExperienciaExportService.class);
+
+    private final ExperienciaRepository experienciaRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    public ExperienciaExportService(ExperienciaRepository experienciaRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.experienciaRepository = experienciaRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.objectWriter =
+            objectMapper
+                .writerFor(Experiencia.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write all the experiencias to the given output stream.
+     *
+     * @param outputStream the stream to write to, it is flushed but not closed.
+     * @param format the export format.
+     * @return the number of exported experiencias.
+     * @throws IOException if the output stream can't be written.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream outputStream, Format format) throws IOException {
+        log.debug("Exporting all Experiencias as {}", format);
+        long count = 0;
+        try (
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            Stream<Experiencia> experiencias = experienciaRepository.streamAllBy()
+        ) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+            for (Experiencia experiencia : (Iterable<Experiencia>) experiencias::iterator) {
+                objectWriter.writeValue(generator, experiencia);
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                entityManager.detach(experiencia);
+                count++;
+            }
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        log.debug("Exported {} Experiencias", count);
+        return count;
+    }
+}
@@ -0,0 +1,90 @@
+package es.curso.jhipster.service;
+
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.search.ExperienciaFacets;
+import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.service.dto.ExperienciaFacetsDTO;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for counting {@link Experiencia} by localizacion and by month.
+ * <p>
+ * Counts are aggregated by Elasticsearch. While it is unreachable or its index is missing, they are counted with
+ * {@code GROUP BY} queries over all the experiencias, and cached as these queries scan the whole table. Other failures,
+ * such as an invalid query, are not hidden by counts ignoring the query.
+ */
+@Service
+public class ExperienciaFacetService {
+
+    public static final String FACETS_CACHE = "experienciaFacets";
+
+    private final Logger log = LoggerFactory.getLogger(ExperienciaFacetService.class);
+
+    private final ExperienciaSearchRepository experienciaSearchRepository;
+
+    private final ExperienciaRepository experienciaRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache facetsCache;
+
+    public ExperienciaFacetService(
+        ExperienciaSearchRepository experienciaSearchRepository,
+        ExperienciaRepository experienciaRepository,
+        PlatformTransactionManager transactionManager,
+        CacheManager cacheManager
+    ) {
+        this.experienciaSearchRepository = experienciaSearchRepository;
+        this.experienciaRepository = experienciaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.facetsCache = cacheManager.getCache(FACETS_CACHE);
+    }
+
+    /**
+     * Count the experiencias matching a query by localizacion and by month.
+     *
+     * @param query the query string, ignored if Elasticsearch is unavailable.
+     * @param size the number of localizaciones to count.
+     * @return the counts.
+     */
+    public ExperienciaFacetsDTO facets(String query, int size) {
+        log.debug("Request to count Experiencias by localizacion and month for query : {}", query);
+        try {
+            ExperienciaFacets facets = experienciaSearchRepository.facets(query, size);
+            return new ExperienciaFacetsDTO(
+                ExperienciaFacetsDTO.Source.ELASTICSEARCH,
+                facets.getTotal(),
+                facets.getLocalizaciones(),
+                facets.getMonths()
+            );
+        } catch (DataAccessResourceFailureException | NoSuchIndexException e) {
+            log.warn("Elasticsearch is unavailable, counting all the Experiencias in the database: {}", e.getMessage());
+            return facetsCache.get(size, () -> transactionTemplate.execute(status -> countInDatabase(size)));
+        }
+    }
+
+    private ExperienciaFacetsDTO countInDatabase(int size) {
+        Map<String, Long> localizaciones = new LinkedHashMap<>();
+        experienciaRepository
+            .countByLocalizacion(PageRequest.of(0, size))
+            .forEach(count -> localizaciones.put(count.getLocalizacion(), count.getTotal()));
+        Map<String, Long> months = new LinkedHashMap<>();
+        experienciaRepository
+            .countByMonth()
+            .forEach(count -> months.put(String.format("%04d-%02d", count.getFechaYear(), count.getFechaMonth()), count.getTotal()));
+        return new ExperienciaFacetsDTO(ExperienciaFacetsDTO.Source.DATABASE, experienciaRepository.count(), localizaciones, months);
+    }
+}
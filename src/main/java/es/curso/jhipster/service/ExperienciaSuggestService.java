@@ -0,0 +1,52 @@
+package es.curso.jhipster.service;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.service.dto.ExperienciaSuggestionDTO;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for suggesting {@link Experiencia} while the user types a search.
+ * <p>
+ * Suggestions of each prefix are cached for {@code application.search.suggest.cache-ttl}, as the same few prefixes are
+ * typed by most users.
+ */
+@Service
+public class ExperienciaSuggestService {
+
+    public static final String SUGGESTIONS_CACHE = "experienciaSuggestions";
+
+    private final Logger log = LoggerFactory.getLogger(ExperienciaSuggestService.class);
+
+    private final ExperienciaSearchRepository experienciaSearchRepository;
+
+    private final ApplicationProperties.Search.Suggest properties;
+
+    public ExperienciaSuggestService(ExperienciaSearchRepository experienciaSearchRepository, ApplicationProperties applicationProperties) {
+        this.experienciaSearchRepository = experienciaSearchRepository;
+        this.properties = applicationProperties.getSearch().getSuggest();
+    }
+
+    /**
+     * Suggest experiencias for a prefix.
+     *
+     * @param prefix the words typed so far, normalized by the caller so that equivalent prefixes share a cache entry.
+     * @param size the maximum number of suggestions, capped to {@code application.search.suggest.max-size}.
+     * @return the suggestions, best first.
+     */
+    @Cacheable(cacheNames = SUGGESTIONS_CACHE)
+    public List<ExperienciaSuggestionDTO> suggest(String prefix, int size) {
+        log.debug("Request to suggest Experiencias for : {}", prefix);
+        return experienciaSearchRepository
+            .suggest(prefix, Math.min(size, properties.getMaxSize()), properties.getTimeout())
+            .stream()
+            .map(ExperienciaSuggestionDTO::new)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,105 @@
+package es.curso.jhipster.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.User;
+import es.curso.jhipster.repository.search.SearchAfterSlice;
+import es.curso.jhipster.repository.search.UserSearchRepository;
+import es.curso.jhipster.service.dto.UserDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for searching users with only their public information.
+ * <p>
+ * Results are read from Elasticsearch by slices with {@code search_after}, and never more than
+ * {@code application.search.users.max-results} of them, so a broad query does not load every user in memory.
+ */
+@Service
+public class UserSearchService {
+
+    private final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    private final UserSearchRepository userSearchRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    private final ApplicationProperties.Search.Users properties;
+
+    public UserSearchService(
+        UserSearchRepository userSearchRepository,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userSearchRepository = userSearchRepository;
+        this.objectMapper = objectMapper;
+        this.objectWriter =
+            objectMapper
+                .writerFor(UserDTO.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.properties = applicationProperties.getSearch().getUsers();
+    }
+
+    /**
+     * Search for a slice of users.
+     *
+     * @param query the query string.
+     * @param searchAfter the sort values of the last user of the previous slice, or an empty list for the first one.
+     * @param size the maximum number of users to return, capped to {@code application.search.users.max-results}.
+     * @return the slice of users.
+     */
+    public SearchAfterSlice<UserDTO> search(String query, List<Object> searchAfter, int size) {
+        SearchAfterSlice<User> slice = userSearchRepository.search(query, searchAfter, Math.min(size, properties.getMaxResults()));
+        return new SearchAfterSlice<>(
+            slice.getContent().stream().map(UserDTO::new).collect(Collectors.toList()),
+            slice.getPageable(),
+            slice.hasNext(),
+            slice.getLastSortValues()
+        );
+    }
+
+    /**
+     * Write the users matching a query to the given output stream as a JSON array, each slice being written as soon as
+     * it is read.
+     *
+     * @param query the query string.
+     * @param outputStream the stream to write to, it is flushed but not closed.
+     * @return the number of written users, at most {@code application.search.users.max-results}.
+     * @throws IOException if the output stream can't be written.
+     */
+    public long search(String query, OutputStream outputStream) throws IOException {
+        log.debug("Streaming the Users matching {}", query);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            List<Object> searchAfter = List.of();
+            boolean hasNext = true;
+            while (hasNext && count < properties.getMaxResults()) {
+                int size = (int) Math.min(properties.getBatchSize(), properties.getMaxResults() - count);
+                SearchAfterSlice<User> slice = userSearchRepository.search(query, searchAfter, size);
+                for (User user : slice) {
+                    objectWriter.writeValue(generator, new UserDTO(user));
+                    count++;
+                }
+                generator.flush();
+                hasNext = slice.hasNext();
+                searchAfter = slice.getLastSortValues();
+            }
+            generator.writeEndArray();
+        }
+        log.debug("Streamed {} Users", count);
+        return count;
+    }
+}
@@ -3,20 +3,22 @@ package es.curso.jhipster.service;
 import es.curso.jhipster.config.Constants;
 import es.curso.jhipster.domain.Authority;
 import es.curso.jhipster.domain.User;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
 import es.curso.jhipster.repository.AuthorityRepository;
 import es.curso.jhipster.repository.UserRepository;
-import es.curso.jhipster.repository.search.UserSearchRepository;
 import es.curso.jhipster.security.AuthoritiesConstants;
+import es.curso.jhipster.security.DomainUserDetailsService;
 import es.curso.jhipster.security.SecurityUtils;
 import es.curso.jhipster.service.dto.AdminUserDTO;
+import es.curso.jhipster.service.cache.CacheInvalidationBus;
 import es.curso.jhipster.service.dto.UserDTO;
+import es.curso.jhipster.service.search.SearchIndexer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -38,24 +40,24 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final UserSearchRepository userSearchRepository;
+    private final SearchIndexer searchIndexer;
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
-        UserSearchRepository userSearchRepository,
+        SearchIndexer searchIndexer,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheInvalidationBus cacheInvalidationBus
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userSearchRepository = userSearchRepository;
+        this.searchIndexer = searchIndexer;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -66,7 +68,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                userSearchRepository.save(user);
+                searchIndexer.sync(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Activated user: {}", user);
                 return user;
@@ -136,7 +138,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        searchIndexer.sync(SearchDocumentType.USER, newUser.getId());
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
@@ -182,7 +184,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
-        userSearchRepository.save(user);
+        searchIndexer.sync(SearchDocumentType.USER, user.getId());
         this.clearUserCaches(user);
         log.debug("Created Information for User: {}", user);
         return user;
@@ -219,7 +221,7 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
-                userSearchRepository.save(user);
+                searchIndexer.sync(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
@@ -232,7 +234,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
-                userSearchRepository.delete(user);
+                searchIndexer.sync(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Deleted User: {}", user);
             });
@@ -252,6 +254,7 @@ public class UserService {
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -259,7 +262,7 @@ public class UserService {
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
-                userSearchRepository.save(user);
+                searchIndexer.sync(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
             });
@@ -314,7 +317,7 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
-                userSearchRepository.delete(user);
+                searchIndexer.sync(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
             });
     }
@@ -329,9 +332,12 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        // Evicted on every instance once committed, as a concurrent authentication may have cached the user as it was before
+        cacheInvalidationBus.evict(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
+        cacheInvalidationBus.evict(DomainUserDetailsService.USER_DETAILS_CACHE, user.getLogin());
         if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            cacheInvalidationBus.evict(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
+            cacheInvalidationBus.evict(DomainUserDetailsService.USER_DETAILS_CACHE, user.getEmail().toLowerCase(Locale.ENGLISH));
         }
     }
 }
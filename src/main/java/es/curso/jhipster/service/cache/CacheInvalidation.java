@@ -0,0 +1,213 @@
+package es.curso.jhipster.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The invalidation of an entry, or of a whole region, of a Spring cache or of the Hibernate second level cache.
+ * <p>
+ * Batches of invalidations are encoded as one line per invalidation: a one letter type, the region and the key if any,
+ * separated by tabs.
+ */
+public final class CacheInvalidation {
+
+    public enum Type {
+        /**
+         * An entry of a Spring cache, or the whole cache.
+         */
+        CACHE('C'),
+        /**
+         * An entity, by its identifier, or all the entities of a type.
+         */
+        ENTITY('E'),
+        /**
+         * A collection, by the identifier of its owner, or all the collections of a role.
+         */
+        COLLECTION('O'),
+        /**
+         * The natural ids of an entity type.
+         */
+        NATURAL_ID('N'),
+        /**
+         * The cached query results depending on a table space, or all of them.
+         */
+        QUERY('Q');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        static Type of(char code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown cache invalidation type: " + code);
+        }
+    }
+
+    private static final CacheInvalidation QUERY = new CacheInvalidation(Type.QUERY, "", null);
+
+    private final Type type;
+
+    private final String region;
+
+    private final String key;
+
+    private CacheInvalidation(Type type, String region, String key) {
+        this.type = Objects.requireNonNull(type);
+        this.region = Objects.requireNonNull(region);
+        this.key = key;
+    }
+
+    /**
+     * @param cacheName the name of the Spring cache.
+     * @param key the key of the entry, or {@code null} for the whole cache.
+     */
+    public static CacheInvalidation cache(String cacheName, String key) {
+        return new CacheInvalidation(Type.CACHE, cacheName, key);
+    }
+
+    /**
+     * @param entityName the name of the entity.
+     * @param id the identifier of the entity, as a string, or {@code null} for every entity of the type.
+     */
+    public static CacheInvalidation entity(String entityName, String id) {
+        return new CacheInvalidation(Type.ENTITY, entityName, id);
+    }
+
+    /**
+     * @param role the role of the collection.
+     * @param ownerId the identifier of the owner of the collection, as a string, or {@code null} for every owner.
+     */
+    public static CacheInvalidation collection(String role, String ownerId) {
+        return new CacheInvalidation(Type.COLLECTION, role, ownerId);
+    }
+
+    public static CacheInvalidation naturalId(String entityName) {
+        return new CacheInvalidation(Type.NATURAL_ID, entityName, null);
+    }
+
+    /**
+     * @return the invalidation of all the cached query results.
+     */
+    public static CacheInvalidation query() {
+        return QUERY;
+    }
+
+    /**
+     * @param tableSpace the table space, usually a table, changed by a transaction.
+     * @return the invalidation of the cached query results depending on the table space.
+     */
+    public static CacheInvalidation query(String tableSpace) {
+        return new CacheInvalidation(Type.QUERY, tableSpace, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static String encode(Collection<CacheInvalidation> invalidations) {
+        StringBuilder encoded = new StringBuilder();
+        for (CacheInvalidation invalidation : invalidations) {
+            if (encoded.length() > 0) {
+                encoded.append('\n');
+            }
+            encoded.append(invalidation.type.code).append('\t');
+            escape(invalidation.region, encoded);
+            if (invalidation.key != null) {
+                encoded.append('\t');
+                escape(invalidation.key, encoded);
+            }
+        }
+        return encoded.toString();
+    }
+
+    public static List<CacheInvalidation> decode(String encoded) {
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        if (encoded.isEmpty()) {
+            return invalidations;
+        }
+        for (String line : encoded.split("\n", -1)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2 || fields.length > 3 || fields[0].length() != 1) {
+                throw new IllegalArgumentException("Malformed cache invalidation: " + line);
+            }
+            invalidations.add(
+                new CacheInvalidation(Type.of(fields[0].charAt(0)), unescape(fields[1]), fields.length == 3 ? unescape(fields[2]) : null)
+            );
+        }
+        return invalidations;
+    }
+
+    private static void escape(String value, StringBuilder encoded) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    encoded.append("\\\\");
+                    break;
+                case '\t':
+                    encoded.append("\\t");
+                    break;
+                case '\n':
+                    encoded.append("\\n");
+                    break;
+                default:
+                    encoded.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation other = (CacheInvalidation) o;
+        return type == other.type && region.equals(other.region) && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, region, key);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" + "type=" + type + ", region='" + region + "'" + ", key='" + key + "'" + "}";
+    }
+}
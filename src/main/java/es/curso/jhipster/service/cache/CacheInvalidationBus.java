@@ -0,0 +1,186 @@
+package es.curso.jhipster.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service invalidating the Spring caches and the Hibernate second level cache on every instance of the application.
+ * <p>
+ * The invalidations of a transaction are published as one batch once it commits, through the
+ * {@link CacheInvalidationTransport}, so that the other instances drop their stale entries instead of serving them until
+ * they expire. Spring cache entries are also evicted on this instance right away, and again after the commit, in case a
+ * concurrent read cached the previous state in between. Without a transport, the invalidations are applied on this
+ * instance only.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheInvalidationTransport transport;
+
+    private final Counter publishedCounter;
+
+    private final Counter appliedCounter;
+
+    private HibernateCacheInvalidations hibernateCacheInvalidations;
+
+    public CacheInvalidationBus(
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory,
+        ObjectProvider<CacheInvalidationTransport> transport,
+        MeterRegistry meterRegistry
+    ) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transport = transport.getIfAvailable();
+        this.publishedCounter = Counter.builder("cache.invalidation").tag("direction", "published").register(meterRegistry);
+        this.appliedCounter = Counter.builder("cache.invalidation").tag("direction", "applied").register(meterRegistry);
+        if (this.transport != null) {
+            this.transport.subscribe(this::receive);
+        }
+    }
+
+    @PostConstruct
+    public void registerHibernateListeners() {
+        hibernateCacheInvalidations =
+            new HibernateCacheInvalidations(entityManagerFactory.unwrap(SessionFactoryImplementor.class), this);
+        hibernateCacheInvalidations.register();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Evict an entry of a Spring cache, on this instance right away, and on every instance once the current
+     * transaction, if any, commits.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key of the entry.
+     */
+    public void evict(String cacheName, String key) {
+        CacheInvalidation invalidation = CacheInvalidation.cache(cacheName, key);
+        apply(invalidation);
+        invalidate(invalidation);
+    }
+
+    /**
+     * Clear a Spring cache, on this instance right away, and on every instance once the current transaction, if any,
+     * commits.
+     *
+     * @param cacheName the name of the cache.
+     */
+    public void clear(String cacheName) {
+        CacheInvalidation invalidation = CacheInvalidation.cache(cacheName, null);
+        apply(invalidation);
+        invalidate(invalidation);
+    }
+
+    /**
+     * Publish an invalidation to the other instances, with the other invalidations of the current transaction once it
+     * commits, or right away outside of a transaction.
+     */
+    public void invalidate(CacheInvalidation invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            currentBatch().invalidations.add(invalidation);
+        } else {
+            publish(List.of(invalidation));
+        }
+    }
+
+    private InvalidationBatch currentBatch() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof InvalidationBatch && ((InvalidationBatch) synchronization).getBus() == this) {
+                return (InvalidationBatch) synchronization;
+            }
+        }
+        InvalidationBatch batch = new InvalidationBatch();
+        TransactionSynchronizationManager.registerSynchronization(batch);
+        return batch;
+    }
+
+    private void publish(List<CacheInvalidation> invalidations) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.publish(nodeId, invalidations);
+            publishedCounter.increment(invalidations.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not publish {} cache invalidations: {}", invalidations.size(), e.getMessage());
+        }
+    }
+
+    private void receive(String sourceNodeId, List<CacheInvalidation> invalidations) {
+        if (nodeId.equals(sourceNodeId)) {
+            return;
+        }
+        log.debug("Applying {} cache invalidations from {}", invalidations.size(), sourceNodeId);
+        invalidations.forEach(this::apply);
+        appliedCounter.increment(invalidations.size());
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        try {
+            if (invalidation.getType() == CacheInvalidation.Type.CACHE) {
+                Cache cache = cacheManager.getCache(invalidation.getRegion());
+                if (cache == null) {
+                    return;
+                }
+                if (invalidation.getKey() != null) {
+                    cache.evict(invalidation.getKey());
+                } else {
+                    cache.clear();
+                }
+            } else if (hibernateCacheInvalidations != null) {
+                hibernateCacheInvalidations.apply(invalidation);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    /**
+     * The invalidations of a transaction, published once it commits.
+     */
+    private final class InvalidationBatch implements TransactionSynchronization {
+
+        private final Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+
+        private CacheInvalidationBus getBus() {
+            return CacheInvalidationBus.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            invalidations
+                .stream()
+                .filter(invalidation -> invalidation.getType() == CacheInvalidation.Type.CACHE)
+                .forEach(CacheInvalidationBus.this::apply);
+            publish(new ArrayList<>(invalidations));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package es.curso.jhipster.service.cache;
+
+import java.util.List;
+
+/**
+ * Transport of the batches of cache invalidations between the instances of the application.
+ * <p>
+ * The transport is chosen with {@code application.cache.invalidation.transport}; with {@code none}, another one can be
+ * provided by declaring a bean implementing this interface.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Publish a batch of invalidations to every instance.
+     *
+     * @param nodeId the id of the publishing instance.
+     * @param invalidations the invalidations.
+     */
+    void publish(String nodeId, List<CacheInvalidation> invalidations);
+
+    /**
+     * Register a listener of the batches published by every instance, including this one.
+     */
+    void subscribe(Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+        void onInvalidations(String nodeId, List<CacheInvalidation> invalidations);
+    }
+}
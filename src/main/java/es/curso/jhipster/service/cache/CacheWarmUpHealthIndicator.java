@@ -0,0 +1,32 @@
+package es.curso.jhipster.service.cache;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator of the cache warm-up, part of the readiness group, which is out of service until the warm-up is over
+ * if {@code application.cache.warm-up.gate-readiness} is set.
+ */
+@Component
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmUpService cacheWarmUpService;
+
+    private final boolean gateReadiness;
+
+    public CacheWarmUpHealthIndicator(CacheWarmUpService cacheWarmUpService, ApplicationProperties applicationProperties) {
+        this.cacheWarmUpService = cacheWarmUpService;
+        this.gateReadiness = applicationProperties.getCache().getWarmUp().isGateReadiness();
+    }
+
+    @Override
+    public Health health() {
+        boolean done = cacheWarmUpService.isDone();
+        if (gateReadiness && !done) {
+            return Health.outOfService().withDetail("done", false).build();
+        }
+        return Health.up().withDetail("done", done).build();
+    }
+}
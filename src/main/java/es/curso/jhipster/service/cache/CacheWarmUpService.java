@@ -0,0 +1,245 @@
+package es.curso.jhipster.service.cache;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import javax.cache.Cache;
+import javax.persistence.EntityManager;
+import org.hibernate.cache.internal.DefaultCacheKeysFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service warming up the caches once the application is ready, so that the first requests after a deploy do not all
+ * go to the database.
+ * <p>
+ * The most recent experiencias are loaded into the second level cache through a database cursor, and the most recently
+ * modified users into the {@link UserRepository#USERS_BY_LOGIN_CACHE} cache. If {@code snapshot-file} is set, the keys
+ * cached at shutdown are written to it, and loaded first at the next start.
+ */
+@Service
+public class CacheWarmUpService {
+
+    static final String EXPERIENCIA_CACHE = Experiencia.class.getName();
+
+    private static final int BATCH_SIZE = Integer.parseInt(ExperienciaRepository.STREAM_FETCH_SIZE);
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final ExperienciaRepository experienciaRepository;
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final javax.cache.CacheManager cacheManager;
+
+    private final ApplicationProperties.Cache.WarmUp properties;
+
+    private final Timer durationTimer;
+
+    private final Counter experienciasCounter;
+
+    private final Counter usersCounter;
+
+    private volatile boolean done;
+
+    public CacheWarmUpService(
+        ExperienciaRepository experienciaRepository,
+        UserRepository userRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        javax.cache.CacheManager cacheManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.experienciaRepository = experienciaRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheManager = cacheManager;
+        this.properties = applicationProperties.getCache().getWarmUp();
+        this.done = !properties.isEnabled();
+        this.durationTimer = Timer.builder("cache.warmup.duration").register(meterRegistry);
+        this.experienciasCounter = Counter.builder("cache.warmup.loaded").tag("cache", EXPERIENCIA_CACHE).register(meterRegistry);
+        this.usersCounter =
+            Counter.builder("cache.warmup.loaded").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} once the warm-up is over, or if it is disabled.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<String> snapshot = readSnapshot();
+            int experiencias = warmUpExperiencias(snapshotKeys(snapshot, EXPERIENCIA_CACHE));
+            int users = warmUpUsers(snapshotKeys(snapshot, UserRepository.USERS_BY_LOGIN_CACHE));
+            log.info(
+                "Warmed up the caches with {} experiencias and {} users in {} ms",
+                experiencias,
+                users,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+        } catch (RuntimeException e) {
+            log.warn("Could not warm up the caches: {}", e.getMessage());
+        } finally {
+            durationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            done = true;
+        }
+    }
+
+    /**
+     * Write the keys cached at shutdown to the snapshot file, if any, for the warm-up of the next start.
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        if (!properties.isEnabled() || properties.getSnapshotFile() == null) {
+            return;
+        }
+        List<String> snapshot = new ArrayList<>();
+        try {
+            for (Object key : cachedKeys(EXPERIENCIA_CACHE, properties.getExperiencias())) {
+                Object id = key instanceof Long ? key : DefaultCacheKeysFactory.staticGetEntityId(key);
+                snapshot.add(EXPERIENCIA_CACHE + '\t' + id);
+            }
+            for (Object login : cachedKeys(UserRepository.USERS_BY_LOGIN_CACHE, properties.getUsers())) {
+                snapshot.add(UserRepository.USERS_BY_LOGIN_CACHE + '\t' + login);
+            }
+            Path file = Paths.get(properties.getSnapshotFile());
+            Path temporaryFile = Paths.get(properties.getSnapshotFile() + ".tmp");
+            Files.write(temporaryFile, snapshot, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} hot cache keys to {}", snapshot.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save the hot cache keys: {}", e.getMessage());
+        }
+    }
+
+    private int warmUpExperiencias(List<String> hotIds) {
+        Set<Long> loadedIds = new LinkedHashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (String hotId : hotIds) {
+                if (ids.size() + loadedIds.size() >= properties.getExperiencias()) {
+                    break;
+                }
+                ids.add(Long.valueOf(hotId));
+                if (ids.size() == BATCH_SIZE) {
+                    loadExperiencias(ids, loadedIds);
+                }
+            }
+            loadExperiencias(ids, loadedIds);
+            try (Stream<Experiencia> experiencias = experienciaRepository.streamAllByOrderByIdDesc()) {
+                Iterator<Experiencia> iterator = experiencias.iterator();
+                while (loadedIds.size() < properties.getExperiencias() && iterator.hasNext()) {
+                    Experiencia experiencia = iterator.next();
+                    loadedIds.add(experiencia.getId());
+                    entityManager.detach(experiencia);
+                }
+            }
+        });
+        experienciasCounter.increment(loadedIds.size());
+        return loadedIds.size();
+    }
+
+    private void loadExperiencias(List<Long> ids, Set<Long> loadedIds) {
+        experienciaRepository.findAllById(ids).forEach(experiencia -> loadedIds.add(experiencia.getId()));
+        entityManager.clear();
+        ids.clear();
+    }
+
+    private int warmUpUsers(List<String> hotLogins) {
+        Set<String> logins = new LinkedHashSet<>(hotLogins);
+        logins.addAll(userRepository.findActivatedLoginsByLastModifiedDateDesc(PageRequest.of(0, properties.getUsers())));
+        int loaded = 0;
+        for (String login : logins) {
+            if (loaded >= properties.getUsers()) {
+                break;
+            }
+            // Through the repository proxy, which caches the user
+            if (userRepository.findOneWithAuthoritiesByLogin(login).isPresent()) {
+                loaded++;
+            }
+        }
+        usersCounter.increment(loaded);
+        return loaded;
+    }
+
+    private List<Object> cachedKeys(String cacheName, int maxKeys) {
+        List<Object> keys = new ArrayList<>();
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return keys;
+        }
+        Iterator<Cache.Entry<Object, Object>> entries = cache.iterator();
+        while (keys.size() < maxKeys && entries.hasNext()) {
+            keys.add(entries.next().getKey());
+        }
+        return keys;
+    }
+
+    private List<String> readSnapshot() {
+        if (properties.getSnapshotFile() == null) {
+            return List.of();
+        }
+        Path file = Paths.get(properties.getSnapshotFile());
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not read the hot cache keys from {}: {}", file, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static List<String> snapshotKeys(List<String> snapshot, String cacheName) {
+        List<String> keys = new ArrayList<>();
+        String prefix = cacheName + '\t';
+        for (String line : snapshot) {
+            if (line.startsWith(prefix)) {
+                keys.add(line.substring(prefix.length()));
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,225 @@
+package es.curso.jhipster.service.cache;
+
+import java.io.Serializable;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.Type;
+
+/**
+ * Bridge between the Hibernate second level cache and the {@link CacheInvalidationBus}.
+ * <p>
+ * Listens to the flushed changes of the cached entities and collections, to publish their invalidation once the
+ * transaction commits, and applies the invalidations published by the other instances. Identifiers are carried as
+ * strings, so an entity with a composite identifier invalidates every entity of its type.
+ * <p>
+ * The changes of the cached entities and collections also publish their table spaces, whose update timestamps are
+ * invalidated on the other instances, so that only the cached query results depending on them are stale, as on the
+ * instance which made the changes.
+ */
+class HibernateCacheInvalidations
+    implements
+        PostInsertEventListener,
+        PostUpdateEventListener,
+        PostDeleteEventListener,
+        PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SessionFactoryImplementor sessionFactory;
+
+    private final transient CacheInvalidationBus bus;
+
+    private final boolean queryCacheEnabled;
+
+    HibernateCacheInvalidations(SessionFactoryImplementor sessionFactory, CacheInvalidationBus bus) {
+        this.sessionFactory = sessionFactory;
+        this.bus = bus;
+        this.queryCacheEnabled = sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled();
+    }
+
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    void apply(CacheInvalidation invalidation) {
+        org.hibernate.Cache cache = sessionFactory.getCache();
+        switch (invalidation.getType()) {
+            case ENTITY:
+                {
+                    Serializable id = fromString(
+                        sessionFactory.getMetamodel().entityPersister(invalidation.getRegion()).getIdentifierType(),
+                        invalidation.getKey()
+                    );
+                    if (id != null) {
+                        cache.evictEntityData(invalidation.getRegion(), id);
+                    } else {
+                        cache.evictEntityData(invalidation.getRegion());
+                    }
+                    break;
+                }
+            case COLLECTION:
+                {
+                    CollectionPersister persister = sessionFactory.getMetamodel().collectionPersister(invalidation.getRegion());
+                    Serializable ownerId = fromString(persister.getOwnerEntityPersister().getIdentifierType(), invalidation.getKey());
+                    if (ownerId != null) {
+                        cache.evictCollectionData(invalidation.getRegion(), ownerId);
+                    } else {
+                        cache.evictCollectionData(invalidation.getRegion());
+                    }
+                    break;
+                }
+            case NATURAL_ID:
+                cache.evictNaturalIdData(invalidation.getRegion());
+                break;
+            case QUERY:
+                if (invalidation.getRegion().isEmpty()) {
+                    cache.evictQueryRegions();
+                } else {
+                    invalidateTableSpace(invalidation.getRegion());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Not a Hibernate cache invalidation: " + invalidation);
+        }
+    }
+
+    private void invalidateTableSpace(String tableSpace) {
+        // The cached query results older than the update timestamp of one of their table spaces are not returned
+        try (Session session = sessionFactory.openTemporarySession()) {
+            sessionFactory
+                .getCache()
+                .getTimestampsCache()
+                .invalidate(new String[] { tableSpace }, (SharedSessionContractImplementor) session);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // A new entity is not cached yet, but may change the results of the cached queries
+        if (isCached(event.getPersister())) {
+            tableSpacesChanged(event.getPersister().getPropertySpaces());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Abstract in Hibernate 5.4, superseded by {@link #requiresPostCommitHandling(EntityPersister)}.
+     */
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void entityChanged(EntityPersister persister, Serializable id) {
+        if (!isCached(persister)) {
+            return;
+        }
+        if (persister.canWriteToCache()) {
+            bus.invalidate(CacheInvalidation.entity(persister.getEntityName(), toString(persister.getIdentifierType(), id)));
+        }
+        if (persister.hasNaturalIdCache()) {
+            bus.invalidate(CacheInvalidation.naturalId(persister.getEntityName()));
+        }
+        tableSpacesChanged(persister.getPropertySpaces());
+    }
+
+    private void collectionChanged(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (role == null) {
+            return;
+        }
+        CollectionPersister persister = sessionFactory.getMetamodel().collectionPersister(role);
+        if (persister.hasCache()) {
+            Type ownerIdType = persister.getOwnerEntityPersister().getIdentifierType();
+            bus.invalidate(CacheInvalidation.collection(role, toString(ownerIdType, event.getAffectedOwnerIdOrNull())));
+        }
+        if (persister.hasCache() || isCached(persister.getOwnerEntityPersister())) {
+            tableSpacesChanged(persister.getCollectionSpaces());
+        }
+    }
+
+    private void tableSpacesChanged(Serializable[] tableSpaces) {
+        if (queryCacheEnabled) {
+            for (Serializable tableSpace : tableSpaces) {
+                bus.invalidate(CacheInvalidation.query(tableSpace.toString()));
+            }
+        }
+    }
+
+    private static boolean isCached(EntityPersister persister) {
+        return persister.canWriteToCache() || persister.hasNaturalIdCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String toString(Type type, Serializable id) {
+        if (id == null || !(type instanceof AbstractStandardBasicType)) {
+            return null;
+        }
+        return ((AbstractStandardBasicType<Object>) type).toString(id);
+    }
+
+    private static Serializable fromString(Type type, String id) {
+        if (id == null || !(type instanceof AbstractStandardBasicType)) {
+            return null;
+        }
+        return (Serializable) ((AbstractStandardBasicType<?>) type).fromStringValue(id);
+    }
+}
@@ -0,0 +1,27 @@
+package es.curso.jhipster.service.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transport delivering the invalidations to the listeners of this instance only, synchronously, for a single instance
+ * and for the tests.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "in-process")
+public class InProcessCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String nodeId, List<CacheInvalidation> invalidations) {
+        listeners.forEach(listener -> listener.onInvalidations(nodeId, invalidations));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
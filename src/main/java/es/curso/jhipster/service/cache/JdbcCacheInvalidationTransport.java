@@ -0,0 +1,133 @@
+package es.curso.jhipster.service.cache;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.CacheInvalidationEvent;
+import es.curso.jhipster.repository.CacheInvalidationEventRepository;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transport storing the batches of invalidations in the {@code cache_invalidation} table, polled by every instance.
+ * <p>
+ * Each poll reads again the batches created during the last {@code application.cache.invalidation.poll-overlap}, so
+ * that a batch committed after a later one, or by an instance with a slightly late clock, is not missed; the ids of the
+ * batches already delivered are remembered during the overlap, so that each batch is delivered once.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final Logger log = LoggerFactory.getLogger(JdbcCacheInvalidationTransport.class);
+
+    private final CacheInvalidationEventRepository cacheInvalidationEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Cache.Invalidation properties;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creation dates of the batches already delivered, by id, guarded by {@code this}.
+     */
+    private final Map<String, Instant> deliveredBatches = new HashMap<>();
+
+    /**
+     * The batches committed before the start are ignored, as the caches of this instance are empty.
+     */
+    private Instant lastPollDate = Instant.now();
+
+    public JdbcCacheInvalidationTransport(
+        CacheInvalidationEventRepository cacheInvalidationEventRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cacheInvalidationEventRepository = cacheInvalidationEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Batches are published after the commit of the changes, possibly within another transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getCache().getInvalidation();
+    }
+
+    @Override
+    public void publish(String nodeId, List<CacheInvalidation> invalidations) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent()
+            .id(UUID.randomUUID().toString())
+            .nodeId(nodeId)
+            .createdDate(Instant.now())
+            .payload(CacheInvalidation.encode(invalidations));
+        try {
+            transactionTemplate.executeWithoutResult(status -> cacheInvalidationEventRepository.save(event));
+        } catch (DataAccessException e) {
+            // The other instances will only see the changes once their cached entries expire
+            log.warn("Could not publish {} cache invalidations: {}", invalidations.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Deliver the batches created since the last poll, minus the overlap, which were not delivered yet.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.poll-interval:PT1S}")
+    public synchronized void poll() {
+        Instant now = Instant.now();
+        Instant since = lastPollDate.minus(properties.getPollOverlap());
+        List<CacheInvalidationEvent> events;
+        try {
+            events = cacheInvalidationEventRepository.findAllByCreatedDateGreaterThanEqualOrderByCreatedDate(since);
+        } catch (DataAccessException e) {
+            log.warn("Could not poll the cache invalidations: {}", e.getMessage());
+            return;
+        }
+        for (CacheInvalidationEvent event : events) {
+            if (deliveredBatches.putIfAbsent(event.getId(), event.getCreatedDate()) == null) {
+                deliver(event);
+            }
+        }
+        // The next polls only read the batches created since this one, minus the overlap
+        deliveredBatches.values().removeIf(createdDate -> createdDate.isBefore(since));
+        lastPollDate = now;
+    }
+
+    /**
+     * Purge the batches older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.purge-interval:PT10M}")
+    public void purge() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        try {
+            Integer purged = transactionTemplate.execute(status -> cacheInvalidationEventRepository.deleteAllCreatedBefore(before));
+            log.debug("Purged {} cache invalidation batches", purged);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge the cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(CacheInvalidationEvent event) {
+        List<CacheInvalidation> invalidations;
+        try {
+            invalidations = CacheInvalidation.decode(event.getPayload());
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring the cache invalidation batch {}: {}", event.getId(), e.getMessage());
+            return;
+        }
+        listeners.forEach(listener -> listener.onInvalidations(event.getNodeId(), invalidations));
+    }
+}
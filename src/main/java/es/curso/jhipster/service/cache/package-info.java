@@ -0,0 +1,4 @@
+/**
+ * Invalidation of the caches of every instance of the application.
+ */
+package es.curso.jhipster.service.cache;
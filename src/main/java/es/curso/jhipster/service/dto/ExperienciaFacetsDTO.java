@@ -0,0 +1,136 @@
+package es.curso.jhipster.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A DTO representing the counts of experiencias by localizacion and by month.
+ */
+public class ExperienciaFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Where the counts were computed.
+     */
+    public enum Source {
+        /**
+         * From the search index, for the experiencias matching the query.
+         */
+        ELASTICSEARCH,
+        /**
+         * From the database, for all the experiencias, while the search index is unavailable.
+         */
+        DATABASE,
+    }
+
+    private Source source;
+
+    private long total;
+
+    private List<BucketDTO> localizaciones = new ArrayList<>();
+
+    private List<BucketDTO> months = new ArrayList<>();
+
+    public ExperienciaFacetsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ExperienciaFacetsDTO(Source source, long total, Map<String, Long> localizaciones, Map<String, Long> months) {
+        this.source = source;
+        this.total = total;
+        localizaciones.forEach((key, count) -> this.localizaciones.add(new BucketDTO(key, count)));
+        months.forEach((key, count) -> this.months.add(new BucketDTO(key, count)));
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<BucketDTO> getLocalizaciones() {
+        return localizaciones;
+    }
+
+    public void setLocalizaciones(List<BucketDTO> localizaciones) {
+        this.localizaciones = localizaciones;
+    }
+
+    public List<BucketDTO> getMonths() {
+        return months;
+    }
+
+    public void setMonths(List<BucketDTO> months) {
+        this.months = months;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ExperienciaFacetsDTO{" +
+            "source=" + source +
+            ", total=" + total +
+            ", localizaciones=" + localizaciones +
+            ", months=" + months +
+            "}";
+    }
+
+    /**
+     * The number of experiencias with a value.
+     */
+    public static class BucketDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String key;
+
+        private long count;
+
+        public BucketDTO() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public BucketDTO(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "BucketDTO{" +
+                "key='" + key + '\'' +
+                ", count=" + count +
+                "}";
+        }
+    }
+}
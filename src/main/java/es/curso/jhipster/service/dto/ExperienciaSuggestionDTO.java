@@ -0,0 +1,62 @@
+package es.curso.jhipster.service.dto;
+
+import es.curso.jhipster.domain.Experiencia;
+import java.io.Serializable;
+
+/**
+ * A DTO representing an experiencia suggested while typing a search, with only the fields shown to the user.
+ */
+public class ExperienciaSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String titulo;
+
+    private String localizacion;
+
+    public ExperienciaSuggestionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ExperienciaSuggestionDTO(Experiencia experiencia) {
+        this.id = experiencia.getId();
+        this.titulo = experiencia.getTitulo();
+        this.localizacion = experiencia.getLocalizacion();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getLocalizacion() {
+        return localizacion;
+    }
+
+    public void setLocalizacion(String localizacion) {
+        this.localizacion = localizacion;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ExperienciaSuggestionDTO{" +
+            "id=" + id +
+            ", titulo='" + titulo + '\'' +
+            ", localizacion='" + localizacion + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,49 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import java.util.Objects;
+
+/**
+ * Identifies a document of one of the Elasticsearch indices.
+ */
+public final class SearchDocumentKey {
+
+    private final SearchDocumentType type;
+
+    private final Long id;
+
+    public SearchDocumentKey(SearchDocumentType type, Long id) {
+        this.type = Objects.requireNonNull(type);
+        this.id = Objects.requireNonNull(id);
+    }
+
+    public SearchDocumentType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchDocumentKey)) {
+            return false;
+        }
+        SearchDocumentKey that = (SearchDocumentKey) o;
+        return type == that.type && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + id;
+    }
+}
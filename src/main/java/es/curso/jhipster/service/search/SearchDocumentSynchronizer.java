@@ -0,0 +1,121 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.User;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.UserRepository;
+import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.repository.search.SearchIndexAdminRepository;
+import es.curso.jhipster.repository.search.UserSearchRepository;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Copies the committed state of documents to Elasticsearch with a single {@code _bulk} request.
+ * <p>
+ * Synchronizing a document is idempotent: it is indexed with its current state, or deleted if it no longer exists, so
+ * it can safely be synchronized more than once.
+ */
+@Component
+class SearchDocumentSynchronizer {
+
+    private final ExperienciaRepository experienciaRepository;
+
+    private final ExperienciaSearchRepository experienciaSearchRepository;
+
+    private final UserRepository userRepository;
+
+    private final UserSearchRepository userSearchRepository;
+
+    private final SearchIndexAdminRepository searchIndexAdminRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    SearchDocumentSynchronizer(
+        ExperienciaRepository experienciaRepository,
+        ExperienciaSearchRepository experienciaSearchRepository,
+        UserRepository userRepository,
+        UserSearchRepository userSearchRepository,
+        SearchIndexAdminRepository searchIndexAdminRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.experienciaRepository = experienciaRepository;
+        this.experienciaSearchRepository = experienciaSearchRepository;
+        this.userRepository = userRepository;
+        this.userSearchRepository = userSearchRepository;
+        this.searchIndexAdminRepository = searchIndexAdminRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Synchronize documents of the same type.
+     *
+     * @param type the type of the documents.
+     * @param ids the ids of the documents.
+     * @return the failure message of each document which could not be synchronized, by id.
+     */
+    Map<Long, String> sync(SearchDocumentType type, Set<Long> ids) {
+        switch (type) {
+            case EXPERIENCIA:
+                return sync(ids, experienciaRepository::findAllById, Experiencia::getId, experienciaSearchRepository::bulkSync);
+            case USER:
+                return sync(ids, userRepository::findAllWithAuthoritiesByIdIn, User::getId, userSearchRepository::bulkSync);
+            default:
+                throw new IllegalStateException("Unsupported document type: " + type);
+        }
+    }
+
+    /**
+     * Synchronize documents of the same type with a given index rather than with the alias of the type.
+     *
+     * @param indexName the index to write to.
+     * @param type the type of the documents.
+     * @param ids the ids of the documents.
+     * @return the failure message of each document which could not be synchronized, by id.
+     */
+    Map<Long, String> syncInto(String indexName, SearchDocumentType type, Set<Long> ids) {
+        switch (type) {
+            case EXPERIENCIA:
+                return sync(
+                    ids,
+                    experienciaRepository::findAllById,
+                    Experiencia::getId,
+                    (toIndex, toDelete) -> searchIndexAdminRepository.bulkSync(indexName, toIndex, Experiencia::getId, toDelete)
+                );
+            case USER:
+                return sync(
+                    ids,
+                    userRepository::findAllWithAuthoritiesByIdIn,
+                    User::getId,
+                    (toIndex, toDelete) -> searchIndexAdminRepository.bulkSync(indexName, toIndex, User::getId, toDelete)
+                );
+            default:
+                throw new IllegalStateException("Unsupported document type: " + type);
+        }
+    }
+
+    /**
+     * Index the entities which still exist, and delete the documents of the others.
+     */
+    private <T> Map<Long, String> sync(
+        Set<Long> ids,
+        Function<Collection<Long>, List<T>> finder,
+        Function<T, Long> idGetter,
+        BiFunction<Collection<T>, Collection<Long>, Map<Long, String>> bulkSync
+    ) {
+        List<T> toIndex = transactionTemplate.execute(status -> finder.apply(ids));
+        Set<Long> toDelete = new HashSet<>(ids);
+        toIndex.forEach(entity -> toDelete.remove(idGetter.apply(entity)));
+        return bulkSync.apply(toIndex, toDelete);
+    }
+}
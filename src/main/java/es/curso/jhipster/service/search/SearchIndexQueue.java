@@ -0,0 +1,205 @@
+package es.curso.jhipster.service.search;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue of the documents waiting to be synchronized with Elasticsearch.
+ * <p>
+ * A document is queued at most once: as the worker reads the latest committed state when flushing, successive changes
+ * to the same document are coalesced into a single operation.
+ */
+class SearchIndexQueue {
+
+    /**
+     * A queued document, with the outbox events it stands for and its retry state.
+     */
+    static final class Entry {
+
+        private final SearchDocumentKey key;
+
+        private final List<Long> eventIds = new ArrayList<>();
+
+        private int attempts;
+
+        private long notBeforeNanos;
+
+        Entry(SearchDocumentKey key) {
+            this.key = key;
+        }
+
+        SearchDocumentKey getKey() {
+            return key;
+        }
+
+        List<Long> getEventIds() {
+            return eventIds;
+        }
+
+        int getAttempts() {
+            return attempts;
+        }
+    }
+
+    private final Map<SearchDocumentKey, Entry> entries = new LinkedHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Condition changed = lock.newCondition();
+
+    private final int capacity;
+
+    private int retrying;
+
+    private boolean closed;
+
+    private long coalesced;
+
+    SearchIndexQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queue a document, waiting if necessary for space to become available.
+     *
+     * @param key the document to synchronize.
+     * @param eventId the id of the outbox event recording the change.
+     * @param timeout how long to wait before giving up.
+     * @param unit the unit of the timeout.
+     * @return {@code true} if the document is queued, {@code false} if the queue stayed full.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    boolean offer(SearchDocumentKey key, Long eventId, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                existing.eventIds.add(eventId);
+                coalesced++;
+                return true;
+            }
+            while (entries.size() >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            Entry entry = new Entry(key);
+            entry.eventIds.add(eventId);
+            entries.put(key, entry);
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue again a document which could not be synchronized, or merge it with the entry of a later change.
+     * <p>
+     * Retries are accepted even when the queue is full, so that they are never lost.
+     *
+     * @param entry the entry that failed.
+     * @param delayNanos the delay before the next attempt.
+     */
+    void retry(Entry entry, long delayNanos) {
+        lock.lock();
+        try {
+            entry.attempts++;
+            entry.notBeforeNanos = System.nanoTime() + delayNanos;
+            Entry existing = entries.putIfAbsent(entry.key, entry);
+            if (existing == null) {
+                retrying++;
+            } else {
+                existing.eventIds.addAll(entry.eventIds);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until a full batch of new entries is queued or the timeout elapses, then take the entries which are due.
+     * <p>
+     * Entries waiting for a retry do not count towards a full batch, they are only taken once their delay is over.
+     *
+     * @param maxEntries the maximum number of entries to take.
+     * @param timeoutNanos how long to wait for a full batch.
+     * @param ignoreBackoff whether to take entries which are waiting for a retry too.
+     * @return the entries, possibly empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    List<Entry> take(int maxEntries, long timeoutNanos, boolean ignoreBackoff) throws InterruptedException {
+        long nanos = timeoutNanos;
+        lock.lockInterruptibly();
+        try {
+            while (entries.size() - retrying < maxEntries && nanos > 0 && !closed) {
+                nanos = changed.awaitNanos(nanos);
+            }
+            List<Entry> batch = new ArrayList<>(Math.min(maxEntries, entries.size()));
+            long now = System.nanoTime();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext() && batch.size() < maxEntries) {
+                Entry entry = iterator.next();
+                if (entry.attempts == 0) {
+                    batch.add(entry);
+                    iterator.remove();
+                } else if (ignoreBackoff || now - entry.notBeforeNanos >= 0) {
+                    batch.add(entry);
+                    iterator.remove();
+                    retrying--;
+                }
+            }
+            if (!batch.isEmpty()) {
+                notFull.signalAll();
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop waiting for full batches, so that the queue can be drained.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    long getCoalesced() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
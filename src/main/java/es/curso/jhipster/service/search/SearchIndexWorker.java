@@ -0,0 +1,203 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background worker flushing the {@link SearchIndexQueue} to Elasticsearch with {@code _bulk} requests.
+ * <p>
+ * A batch is flushed as soon as it is full, or when the flush interval elapses. Failed documents are retried with an
+ * exponential backoff. On shutdown, the queue is drained before the application context closes.
+ * <p>
+ * The outbox events of the synchronized documents are marked processed; the documents which could not be synchronized
+ * are left to the {@link SearchOutboxRelay}.
+ */
+@Component
+public class SearchIndexWorker implements SmartLifecycle {
+
+    /**
+     * Stopped after the web server, so that the changes of the last requests are drained too.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexWorker.class);
+
+    private final SearchIndexQueue queue;
+
+    private final ApplicationProperties.Search.Indexer properties;
+
+    private final SearchDocumentSynchronizer synchronizer;
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final Timer flushTimer;
+
+    private final Counter indexedCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public SearchIndexWorker(
+        SearchIndexer searchIndexer,
+        SearchDocumentSynchronizer synchronizer,
+        SearchOutboxEventRepository searchOutboxEventRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.queue = searchIndexer.getQueue();
+        this.synchronizer = synchronizer;
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        this.properties = applicationProperties.getSearch().getIndexer();
+        this.flushTimer = meterRegistry.timer("search.indexer.flush");
+        this.indexedCounter = meterRegistry.counter("search.indexer.indexed");
+        this.retriedCounter = meterRegistry.counter("search.indexer.retried");
+        this.failedCounter = meterRegistry.counter("search.indexer.failed");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "entregar-search-indexer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        queue.close();
+        try {
+            thread.join(properties.getDrainTimeout().plus(properties.getFlushInterval()).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void run() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        while (running) {
+            try {
+                flush(queue.take(properties.getBatchSize(), flushIntervalNanos, false));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while flushing the search index queue", e);
+            }
+        }
+        drain();
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + properties.getDrainTimeout().toNanos();
+        try {
+            while (queue.size() > 0 && System.nanoTime() - deadline < 0) {
+                flush(queue.take(properties.getBatchSize(), 0, true));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = queue.size();
+        if (remaining > 0) {
+            log.warn("{} documents could not be synchronized with Elasticsearch before shutdown", remaining);
+        }
+    }
+
+    private void flush(List<SearchIndexQueue.Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<SearchDocumentType, List<SearchIndexQueue.Entry>> entriesByType = batch
+            .stream()
+            .collect(
+                Collectors.groupingBy(entry -> entry.getKey().getType(), () -> new EnumMap<>(SearchDocumentType.class), Collectors.toList())
+            );
+        List<Long> synchronizedEvents = new ArrayList<>();
+        entriesByType.forEach((type, entries) -> flush(type, entries, synchronizedEvents));
+        if (!synchronizedEvents.isEmpty()) {
+            try {
+                searchOutboxEventRepository.markAllProcessed(synchronizedEvents, Instant.now());
+            } catch (RuntimeException e) {
+                log.warn(
+                    "Could not mark {} outbox events processed, they will be relayed again: {}",
+                    synchronizedEvents.size(),
+                    e.getMessage()
+                );
+            }
+        }
+    }
+
+    private void flush(SearchDocumentType type, List<SearchIndexQueue.Entry> entries, List<Long> synchronizedEvents) {
+        Set<Long> ids = entries.stream().map(entry -> entry.getKey().getId()).collect(Collectors.toSet());
+        Map<Long, String> failures;
+        try {
+            failures = flushTimer.recordCallable(() -> synchronizer.sync(type, ids));
+        } catch (Exception e) {
+            log.warn("Could not synchronize {} {} documents with Elasticsearch: {}", ids.size(), type, e.getMessage());
+            failures = ids.stream().collect(Collectors.toMap(Function.identity(), id -> String.valueOf(e.getMessage())));
+        }
+        for (SearchIndexQueue.Entry entry : entries) {
+            String failure = failures.get(entry.getKey().getId());
+            if (failure == null) {
+                indexedCounter.increment();
+                synchronizedEvents.addAll(entry.getEventIds());
+            } else {
+                retryOrGiveUp(entry, failure);
+            }
+        }
+    }
+
+    private void retryOrGiveUp(SearchIndexQueue.Entry entry, String failure) {
+        int attempts = entry.getAttempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            failedCounter.increment();
+            log.warn("Leaving {} to the outbox relay after {} failed attempts: {}", entry.getKey(), attempts, failure);
+            return;
+        }
+        long backoffNanos = Math.min(
+            properties.getMaxBackoff().toNanos(),
+            properties.getInitialBackoff().toNanos() << Math.min(entry.getAttempts(), 30)
+        );
+        log.debug("Retrying {} in {} ms: {}", entry.getKey(), TimeUnit.NANOSECONDS.toMillis(backoffNanos), failure);
+        retriedCounter.increment();
+        queue.retry(entry, backoffNanos);
+    }
+}
@@ -0,0 +1,143 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service to request the synchronization of a document with Elasticsearch.
+ * <p>
+ * Each change is recorded as a {@link SearchOutboxEvent} in the current transaction, so that it survives a crash and
+ * rolled back changes are never indexed. Once the transaction commits, the document is queued so that the
+ * {@link SearchIndexWorker} indexes it without waiting for the {@link SearchOutboxRelay}, and the request thread does
+ * not wait for Elasticsearch.
+ */
+@Service
+public class SearchIndexer {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final SearchIndexQueue queue;
+
+    private final long offerTimeoutNanos;
+
+    private final Duration relayDelay;
+
+    private final Counter droppedCounter;
+
+    public SearchIndexer(
+        SearchOutboxEventRepository searchOutboxEventRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        ApplicationProperties.Search.Indexer properties = applicationProperties.getSearch().getIndexer();
+        this.queue = new SearchIndexQueue(properties.getQueueCapacity());
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        this.relayDelay = applicationProperties.getSearch().getOutbox().getRelayDelay();
+        Gauge.builder("search.indexer.queue.size", queue, SearchIndexQueue::size).register(meterRegistry);
+        Gauge.builder("search.indexer.queue.capacity", queue, SearchIndexQueue::getCapacity).register(meterRegistry);
+        FunctionCounter.builder("search.indexer.coalesced", queue, SearchIndexQueue::getCoalesced).register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("search.indexer.dropped");
+    }
+
+    /**
+     * Synchronize a document with Elasticsearch once the current transaction, if any, commits.
+     * <p>
+     * The document is indexed with its state at the time of the flush, or deleted if it no longer exists. Must be called
+     * in the transaction of the change, if any.
+     *
+     * @param type the type of the document.
+     * @param id the id of the document.
+     */
+    public void sync(SearchDocumentType type, Long id) {
+        SearchOutboxEvent event = searchOutboxEventRepository.save(newEvent(type, id, Instant.now()));
+        SearchDocumentKey key = new SearchDocumentKey(type, id);
+        afterCommit(() -> enqueue(key, event.getId()));
+    }
+
+    /**
+     * Record changes to documents which the caller synchronizes itself with Elasticsearch. Must be called in the
+     * transaction of the changes.
+     * <p>
+     * The events of the documents which are synchronized must then be {@link #acknowledge(Collection) acknowledged},
+     * the other ones are left to the {@link SearchOutboxRelay}.
+     *
+     * @param type the type of the documents.
+     * @param ids the ids of the documents.
+     * @return the outbox events.
+     */
+    public List<SearchOutboxEvent> record(SearchDocumentType type, Collection<Long> ids) {
+        Instant now = Instant.now();
+        return searchOutboxEventRepository.saveAll(ids.stream().map(id -> newEvent(type, id, now)).collect(Collectors.toList()));
+    }
+
+    /**
+     * Mark processed the outbox events of documents which were synchronized with Elasticsearch.
+     *
+     * @param events the outbox events.
+     */
+    public void acknowledge(Collection<SearchOutboxEvent> events) {
+        if (!events.isEmpty()) {
+            searchOutboxEventRepository.markAllProcessed(
+                events.stream().map(SearchOutboxEvent::getId).collect(Collectors.toList()),
+                Instant.now()
+            );
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    private SearchOutboxEvent newEvent(SearchDocumentType type, Long id, Instant now) {
+        return new SearchOutboxEvent().documentType(type).documentId(id).createdDate(now).nextAttemptDate(now.plus(relayDelay));
+    }
+
+    private void enqueue(SearchDocumentKey key, Long eventId) {
+        boolean queued;
+        try {
+            queued = queue.offer(key, eventId, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            droppedCounter.increment();
+            log.warn("Search index queue is full, {} is left to the outbox relay", key);
+        }
+    }
+
+    SearchIndexQueue getQueue() {
+        return queue;
+    }
+}
@@ -0,0 +1,152 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service relaying the {@link SearchOutboxEvent}s which were not synchronized by the {@link SearchIndexWorker}, because
+ * the application stopped, the queue was full or Elasticsearch was unavailable.
+ * <p>
+ * Due events are claimed with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so that several instances can relay
+ * concurrently, and are marked processed in the same transaction once their documents are synchronized. As
+ * synchronizing a document is idempotent, an event relayed twice after a crash has no further effect. The processed
+ * events older than {@code application.search.outbox.retention} are then purged.
+ */
+@Service
+public class SearchOutboxRelay {
+
+    private final Logger log = LoggerFactory.getLogger(SearchOutboxRelay.class);
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final SearchDocumentSynchronizer synchronizer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Search properties;
+
+    private final Counter relayedCounter;
+
+    private final Counter failedCounter;
+
+    private volatile Instant oldestDueDate;
+
+    public SearchOutboxRelay(
+        SearchOutboxEventRepository searchOutboxEventRepository,
+        SearchDocumentSynchronizer synchronizer,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        this.synchronizer = synchronizer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getSearch();
+        this.relayedCounter = meterRegistry.counter("search.outbox.relayed");
+        this.failedCounter = meterRegistry.counter("search.outbox.failed");
+        TimeGauge
+            .builder("search.outbox.lag", this, TimeUnit.MILLISECONDS, SearchOutboxRelay::getLagMillis)
+            .description("The age of the oldest outbox event due to be relayed, as of the last relay")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Relay the due outbox events, by batches, until there are none left or a batch fails, then purge the processed
+     * events older than the retention.
+     */
+    @Scheduled(fixedDelayString = "${application.search.outbox.relay-interval:PT10S}")
+    public void relay() {
+        boolean fullBatch;
+        do {
+            fullBatch = Boolean.TRUE.equals(transactionTemplate.execute(status -> relayBatch()));
+        } while (fullBatch);
+        int purged = searchOutboxEventRepository.deleteAllProcessedBefore(Instant.now().minus(properties.getOutbox().getRetention()));
+        if (purged > 0) {
+            log.debug("Purged {} processed search outbox events", purged);
+        }
+        // The events not due yet, such as the changes of the last relay delay which the indexer may still synchronize, are not late
+        oldestDueDate = searchOutboxEventRepository.findOldestDueCreatedDate(Instant.now()).orElse(null);
+    }
+
+    /**
+     * @return {@code true} if a full batch was relayed successfully, so that more events may be due.
+     */
+    private boolean relayBatch() {
+        int batchSize = properties.getOutbox().getBatchSize();
+        Instant now = Instant.now();
+        List<SearchOutboxEvent> events = searchOutboxEventRepository.findAllDue(now, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return false;
+        }
+        Map<SearchDocumentType, Set<Long>> idsByType = events
+            .stream()
+            .collect(
+                Collectors.groupingBy(
+                    SearchOutboxEvent::getDocumentType,
+                    () -> new EnumMap<>(SearchDocumentType.class),
+                    Collectors.mapping(SearchOutboxEvent::getDocumentId, Collectors.toSet())
+                )
+            );
+        Map<SearchDocumentType, Map<Long, String>> failuresByType = new EnumMap<>(SearchDocumentType.class);
+        idsByType.forEach((type, ids) -> failuresByType.put(type, sync(type, ids)));
+
+        int relayed = 0;
+        for (SearchOutboxEvent event : events) {
+            if (failuresByType.get(event.getDocumentType()).containsKey(event.getDocumentId())) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptDate(now.plus(backoff(event.getAttempts())));
+            } else {
+                event.setProcessedDate(now);
+                relayed++;
+            }
+        }
+        relayedCounter.increment(relayed);
+        int failed = events.size() - relayed;
+        if (failed > 0) {
+            failedCounter.increment(failed);
+            log.warn("Could not relay {} of {} search outbox events, they will be retried", failed, events.size());
+        }
+        return events.size() == batchSize && failed == 0;
+    }
+
+    private Map<Long, String> sync(SearchDocumentType type, Set<Long> ids) {
+        try {
+            return synchronizer.sync(type, ids);
+        } catch (RuntimeException e) {
+            log.warn("Could not synchronize {} {} documents with Elasticsearch: {}", ids.size(), type, e.getMessage());
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> String.valueOf(e.getMessage())));
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        ApplicationProperties.Search.Indexer indexer = properties.getIndexer();
+        Duration backoff = indexer.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(indexer.getMaxBackoff()) < 0 ? backoff : indexer.getMaxBackoff();
+    }
+
+    private double getLagMillis() {
+        Instant oldest = oldestDueDate;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis());
+    }
+}
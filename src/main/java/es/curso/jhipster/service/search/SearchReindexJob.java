@@ -0,0 +1,130 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the rebuild of a search index.
+ */
+public class SearchReindexJob {
+
+    public enum Status {
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+    }
+
+    private final SearchDocumentType type;
+
+    private final String indexName;
+
+    private final Instant startDate = Instant.now();
+
+    private final AtomicLong indexed = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile long total;
+
+    private volatile Status status = Status.RUNNING;
+
+    private volatile Instant endDate;
+
+    private volatile String error;
+
+    SearchReindexJob(SearchDocumentType type, String indexName) {
+        this.type = type;
+        this.indexName = indexName;
+    }
+
+    public SearchDocumentType getType() {
+        return type;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getIndexed() {
+        return indexed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return the share of the documents already indexed, between 0 and 1.
+     */
+    public double getProgress() {
+        if (total == 0) {
+            return status == Status.RUNNING ? 0 : 1;
+        }
+        return Math.min(1, (double) getIndexed() / total);
+    }
+
+    /**
+     * @return the number of documents indexed per second.
+     */
+    public double getThroughput() {
+        Instant end = endDate != null ? endDate : Instant.now();
+        long elapsedMillis = Duration.between(startDate, end).toMillis();
+        return elapsedMillis == 0 ? 0 : getIndexed() * 1000d / elapsedMillis;
+    }
+
+    /**
+     * @return the estimated number of seconds before the end of the rebuild, or {@code null} if it can't be estimated.
+     */
+    public Long getEtaSeconds() {
+        double throughput = getThroughput();
+        if (status != Status.RUNNING || throughput == 0) {
+            return null;
+        }
+        return (long) Math.ceil(Math.max(0, total - getIndexed()) / throughput);
+    }
+
+    void setTotal(long total) {
+        this.total = total;
+    }
+
+    void addIndexed(long count) {
+        indexed.addAndGet(count);
+    }
+
+    void addFailed(long count) {
+        failed.addAndGet(count);
+    }
+
+    void succeed() {
+        endDate = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        endDate = Instant.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,300 @@
+package es.curso.jhipster.service.search;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.User;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import es.curso.jhipster.repository.UserRepository;
+import es.curso.jhipster.repository.search.SearchIndexAdminRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for rebuilding a search index from the database without search downtime.
+ * <p>
+ * The id range of the entities is split into chunks, which are read in parallel with streaming queries and indexed into
+ * a new index with refresh and replicas disabled. The alias of the type is then moved atomically to the new index, so
+ * that searches never see a partial index. Documents changed during the rebuild, on any instance, are indexed again
+ * before and after the swap from the {@link SearchOutboxEvent}s created since its start, as the chunks may have read
+ * them before the change, and their other instances indexed the change into the previous index.
+ */
+@Service
+public class SearchReindexService {
+
+    private static final DateTimeFormatter INDEX_SUFFIX_FORMATTER = DateTimeFormatter
+        .ofPattern("yyyyMMddHHmmssSSS")
+        .withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final Map<SearchDocumentType, SearchReindexJob> jobs = new ConcurrentHashMap<>();
+
+    private final ExperienciaRepository experienciaRepository;
+
+    private final UserRepository userRepository;
+
+    private final SearchIndexAdminRepository searchIndexAdminRepository;
+
+    private final SearchDocumentSynchronizer synchronizer;
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.Search.Reindex properties;
+
+    private final Duration outboxRetention;
+
+    public SearchReindexService(
+        ExperienciaRepository experienciaRepository,
+        UserRepository userRepository,
+        SearchIndexAdminRepository searchIndexAdminRepository,
+        SearchDocumentSynchronizer synchronizer,
+        SearchOutboxEventRepository searchOutboxEventRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.experienciaRepository = experienciaRepository;
+        this.userRepository = userRepository;
+        this.searchIndexAdminRepository = searchIndexAdminRepository;
+        this.synchronizer = synchronizer;
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.properties = applicationProperties.getSearch().getReindex();
+        this.outboxRetention = applicationProperties.getSearch().getOutbox().getRetention();
+    }
+
+    /**
+     * Start rebuilding the search index of a type in the background.
+     *
+     * @param type the type of the documents.
+     * @return the new job, or empty if the index of the type is already being rebuilt.
+     */
+    public Optional<SearchReindexJob> start(SearchDocumentType type) {
+        String aliasName = searchIndexAdminRepository.getAliasName(getEntityClass(type));
+        String indexName = aliasName + "_" + INDEX_SUFFIX_FORMATTER.format(Instant.now());
+        SearchReindexJob job = new SearchReindexJob(type, indexName);
+        SearchReindexJob current = jobs.compute(type, (key, previous) ->
+            previous != null && previous.getStatus() == SearchReindexJob.Status.RUNNING ? previous : job
+        );
+        if (current != job) {
+            return Optional.empty();
+        }
+        taskExecutor.execute(() -> run(job));
+        return Optional.of(job);
+    }
+
+    /**
+     * @return the last job of each type.
+     */
+    public Map<SearchDocumentType, SearchReindexJob> getJobs() {
+        return Collections.unmodifiableMap(jobs);
+    }
+
+    void run(SearchReindexJob job) {
+        SearchDocumentType type = job.getType();
+        Class<?> entityClass = getEntityClass(type);
+        String aliasName = searchIndexAdminRepository.getAliasName(entityClass);
+        log.info("Rebuilding the {} search index into {}", aliasName, job.getIndexName());
+        Instant startDate = Instant.now();
+        boolean swapped = false;
+        try {
+            int numberOfReplicas = searchIndexAdminRepository.getNumberOfReplicas(aliasName);
+            searchIndexAdminRepository.createIndexForBulkLoad(entityClass, job.getIndexName());
+            indexChunks(job);
+            if (job.getFailed() > 0) {
+                throw new IllegalStateException(job.getFailed() + " documents could not be indexed");
+            }
+            Instant replayDate = Instant.now();
+            if (Duration.between(startDate, replayDate).plus(properties.getReplayOverlap()).compareTo(outboxRetention) >= 0) {
+                // The changes made at the start may have been purged from the outbox
+                throw new IllegalStateException("The rebuild ran longer than application.search.outbox.retention");
+            }
+            reindexChanged(job, findChangedSince(type, startDate), job.getIndexName());
+            searchIndexAdminRepository.finishBulkLoad(job.getIndexName(), numberOfReplicas, 1, TimeUnit.MINUTES);
+            Set<String> previousIndices = searchIndexAdminRepository.swapAlias(aliasName, job.getIndexName());
+            swapped = true;
+            log.info("Moved the {} search alias to {}, deleted {}", aliasName, job.getIndexName(), previousIndices);
+            // The changes made until the swap may have been indexed into the previous index only
+            reindexChanged(job, findChangedSince(type, replayDate), null);
+            job.succeed();
+        } catch (Exception e) {
+            log.error("Could not rebuild the {} search index: {}", aliasName, e.getMessage(), e);
+            job.fail(e.getMessage());
+            if (!swapped) {
+                try {
+                    searchIndexAdminRepository.deleteIndices(List.of(job.getIndexName()));
+                } catch (RuntimeException deleteException) {
+                    log.warn("Could not delete the partial index {}: {}", job.getIndexName(), deleteException.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the ids of the documents changed on any instance since a date, minus the replay overlap which covers the
+     * clock skew between the instances and the transactions committed after the creation of their outbox events.
+     */
+    private Set<Long> findChangedSince(SearchDocumentType type, Instant date) {
+        return new HashSet<>(searchOutboxEventRepository.findAllDocumentIdsCreatedSince(type, date.minus(properties.getReplayOverlap())));
+    }
+
+    private void indexChunks(SearchReindexJob job) throws InterruptedException, ExecutionException {
+        SearchDocumentType type = job.getType();
+        Long minId;
+        Long maxId;
+        switch (type) {
+            case EXPERIENCIA:
+                job.setTotal(experienciaRepository.count());
+                minId = experienciaRepository.findMinId();
+                maxId = experienciaRepository.findMaxId();
+                break;
+            case USER:
+                job.setTotal(userRepository.count());
+                minId = userRepository.findMinId();
+                maxId = userRepository.findMaxId();
+                break;
+            default:
+                throw new IllegalStateException("Unsupported document type: " + type);
+        }
+        if (minId == null) {
+            return;
+        }
+        String threadNamePrefix = "entregar-reindex-" + type.name().toLowerCase(Locale.ROOT) + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+            properties.getParallelism(),
+            runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long fromId = minId; fromId <= maxId; fromId += properties.getChunkSize()) {
+                long chunkFromId = fromId;
+                long chunkToId = Math.min(maxId, fromId + properties.getChunkSize() - 1);
+                chunks.add(executor.submit(() -> indexChunk(job, chunkFromId, chunkToId)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void indexChunk(SearchReindexJob job, long fromId, long toId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            switch (job.getType()) {
+                case EXPERIENCIA:
+                    try (Stream<Experiencia> experiencias = experienciaRepository.streamAllByIdBetween(fromId, toId)) {
+                        indexStream(job, experiencias, Experiencia::getId);
+                    }
+                    break;
+                case USER:
+                    // Users are few and need their authorities: load the chunk at once with a fetch join.
+                    indexStream(job, userRepository.findAllWithAuthoritiesByIdBetween(fromId, toId).stream(), User::getId);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported document type: " + job.getType());
+            }
+        });
+    }
+
+    private <T> void indexStream(SearchReindexJob job, Stream<T> entities, Function<T, Long> idGetter) {
+        List<T> batch = new ArrayList<>(properties.getBatchSize());
+        Iterator<T> iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            T entity = iterator.next();
+            entityManager.detach(entity);
+            batch.add(entity);
+            if (batch.size() == properties.getBatchSize()) {
+                indexBatch(job, batch, idGetter);
+            }
+        }
+        indexBatch(job, batch, idGetter);
+    }
+
+    private <T> void indexBatch(SearchReindexJob job, List<T> batch, Function<T, Long> idGetter) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, String> failures = searchIndexAdminRepository.bulkSync(job.getIndexName(), batch, idGetter, Set.of());
+        if (!failures.isEmpty()) {
+            String firstFailure = failures.values().iterator().next();
+            log.warn("Could not index {} documents into {}, first failure: {}", failures.size(), job.getIndexName(), firstFailure);
+        }
+        job.addIndexed(batch.size() - failures.size());
+        job.addFailed(failures.size());
+        batch.clear();
+    }
+
+    /**
+     * Index again the documents changed while the chunks were read, into the new index or, after the swap, the alias.
+     */
+    private void reindexChanged(SearchReindexJob job, Set<Long> ids, String indexName) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, String> failures = indexName != null
+            ? synchronizer.syncInto(indexName, job.getType(), ids)
+            : synchronizer.sync(job.getType(), ids);
+        if (!failures.isEmpty()) {
+            log.warn("Could not index again {} documents changed during the rebuild of {}", failures.size(), job.getIndexName());
+            job.addFailed(failures.size());
+        }
+    }
+
+    private static Class<?> getEntityClass(SearchDocumentType type) {
+        switch (type) {
+            case EXPERIENCIA:
+                return Experiencia.class;
+            case USER:
+                return User.class;
+            default:
+                throw new IllegalStateException("Unsupported document type: " + type);
+        }
+    }
+}
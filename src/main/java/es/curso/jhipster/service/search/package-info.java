@@ -0,0 +1,4 @@
+/**
+ * Synchronization of the Elasticsearch indices with the database.
+ */
+package es.curso.jhipster.service.search;
@@ -0,0 +1,92 @@
+package es.curso.jhipster.web.filter;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter replacing the remote address of the requests sent by the trusted reverse proxies, configured in
+ * {@code application.security.trusted-proxies}, with the address of their client, so that the rate limits are kept by
+ * client rather than by proxy.
+ * <p>
+ * As in the {@code RemoteIpValve} of Tomcat, the {@code X-Forwarded-For} header is only read when the request comes
+ * from a trusted proxy, and from the right: the client is the first address which is not a trusted proxy, as the
+ * addresses on its left were sent by the client itself and may be forged.
+ */
+public class TrustedProxyFilter extends OncePerRequestFilter {
+
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final Pattern trustedProxies;
+
+    public TrustedProxyFilter(ApplicationProperties applicationProperties) {
+        this.trustedProxies = Pattern.compile(applicationProperties.getSecurity().getTrustedProxies());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String remoteAddress = request.getRemoteAddr();
+        String clientAddress = resolveClientAddress(request);
+        if (clientAddress.equals(remoteAddress)) {
+            filterChain.doFilter(request, response);
+        } else {
+            filterChain.doFilter(new ClientAddressRequest(request, clientAddress), response);
+        }
+    }
+
+    private String resolveClientAddress(HttpServletRequest request) {
+        String clientAddress = request.getRemoteAddr();
+        if (!isTrusted(clientAddress)) {
+            return clientAddress;
+        }
+        List<String> forwardedFor = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(X_FORWARDED_FOR))) {
+            for (String address : header.split(",")) {
+                if (!address.isBlank()) {
+                    forwardedFor.add(address.trim());
+                }
+            }
+        }
+        for (int i = forwardedFor.size() - 1; i >= 0; i--) {
+            clientAddress = forwardedFor.get(i);
+            if (!isTrusted(clientAddress)) {
+                break;
+            }
+        }
+        return clientAddress;
+    }
+
+    private boolean isTrusted(String address) {
+        return trustedProxies.matcher(address).matches();
+    }
+
+    private static final class ClientAddressRequest extends HttpServletRequestWrapper {
+
+        private final String clientAddress;
+
+        private ClientAddressRequest(HttpServletRequest request, String clientAddress) {
+            super(request);
+            this.clientAddress = clientAddress;
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            return clientAddress;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return clientAddress;
+        }
+    }
+}
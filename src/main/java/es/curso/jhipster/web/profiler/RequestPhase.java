@@ -0,0 +1,36 @@
+package es.curso.jhipster.web.profiler;
+
+/**
+ * The phases of a request timed by the {@link RequestProfilerFilter}.
+ */
+public enum RequestPhase {
+    /**
+     * Resolving the authentication from the JWT.
+     */
+    JWT,
+    /**
+     * The filters before the handler, including {@link #JWT}.
+     */
+    SECURITY,
+    /**
+     * The Spring MVC handler, including {@link #CONTROLLER} and {@link #HANDLER_OVERHEAD}.
+     */
+    HANDLER,
+    /**
+     * The REST controller method.
+     */
+    CONTROLLER,
+    /**
+     * The handler outside of the controller method: the interceptors, resolving, reading and validating the arguments,
+     * and writing the response body.
+     */
+    HANDLER_OVERHEAD,
+    /**
+     * The calls of the database repositories.
+     */
+    DATABASE,
+    /**
+     * The calls of the search repositories.
+     */
+    SEARCH,
+}
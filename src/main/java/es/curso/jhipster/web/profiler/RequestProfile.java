@@ -0,0 +1,102 @@
+package es.curso.jhipster.web.profiler;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The timings of the phases of the request of the current thread.
+ * <p>
+ * Each thread reuses its profile from one request to the next, so that timing a request allocates nothing. Outside of
+ * a profiled request, entering and exiting a phase does nothing. Nested calls of a phase are only timed once.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = ThreadLocal.withInitial(RequestProfile::new);
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    private final long[] nanos = new long[PHASES.length];
+
+    private final long[] starts = new long[PHASES.length];
+
+    private final int[] depths = new int[PHASES.length];
+
+    private boolean active;
+
+    private long requestStart;
+
+    private RequestProfile() {}
+
+    static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Enter a phase of the request of the current thread, if profiled.
+     */
+    public static void enter(RequestPhase phase) {
+        CURRENT.get().enterPhase(phase);
+    }
+
+    /**
+     * Exit a phase of the request of the current thread, if profiled.
+     */
+    public static void exit(RequestPhase phase) {
+        CURRENT.get().exitPhase(phase);
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    void start(long now) {
+        Arrays.fill(nanos, 0);
+        Arrays.fill(starts, 0);
+        Arrays.fill(depths, 0);
+        requestStart = now;
+        active = true;
+    }
+
+    void stop() {
+        active = false;
+    }
+
+    void enterPhase(RequestPhase phase) {
+        if (!active) {
+            return;
+        }
+        int index = phase.ordinal();
+        if (depths[index]++ == 0) {
+            starts[index] = System.nanoTime();
+        }
+    }
+
+    void exitPhase(RequestPhase phase) {
+        if (!active) {
+            return;
+        }
+        int index = phase.ordinal();
+        if (depths[index] > 0 && --depths[index] == 0) {
+            nanos[index] += System.nanoTime() - starts[index];
+        }
+    }
+
+    /**
+     * @param totalNanos the duration of the request.
+     * @return the duration of each phase in milliseconds, with the derived phases computed.
+     */
+    Map<String, Double> getPhaseMillis(long totalNanos) {
+        long[] phaseNanos = nanos.clone();
+        long handlerStart = starts[RequestPhase.HANDLER.ordinal()];
+        phaseNanos[RequestPhase.SECURITY.ordinal()] = handlerStart != 0 ? handlerStart - requestStart : totalNanos;
+        phaseNanos[RequestPhase.HANDLER_OVERHEAD.ordinal()] =
+            Math.max(0, phaseNanos[RequestPhase.HANDLER.ordinal()] - phaseNanos[RequestPhase.CONTROLLER.ordinal()]);
+        Map<String, Double> phaseMillis = new LinkedHashMap<>();
+        for (RequestPhase phase : PHASES) {
+            phaseMillis.put(phase.name().toLowerCase(Locale.ENGLISH), phaseNanos[phase.ordinal()] / 1e6);
+        }
+        return phaseMillis;
+    }
+}
@@ -0,0 +1,70 @@
+package es.curso.jhipster.web.profiler;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Aspect timing the calls of the repositories and of the REST controllers within the profiled requests.
+ * <p>
+ * Entities loaded lazily, and results streamed after the call of their repository, are not counted as
+ * {@link RequestPhase#DATABASE}.
+ */
+@Aspect
+public class RequestProfilerAspect {
+
+    /**
+     * Pointcut that matches the Spring Data repositories, except the Elasticsearch ones.
+     */
+    @Pointcut(
+        "this(org.springframework.data.repository.Repository)" +
+        " && !this(org.springframework.data.elasticsearch.repository.ElasticsearchRepository)"
+    )
+    public void databaseRepositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches the Elasticsearch repositories.
+     */
+    @Pointcut(
+        "this(org.springframework.data.elasticsearch.repository.ElasticsearchRepository)" +
+        " || within(es.curso.jhipster.repository.search..*)"
+    )
+    public void searchRepositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches the REST controllers.
+     */
+    @Pointcut("within(@org.springframework.web.bind.annotation.RestController *) && within(es.curso.jhipster.web.rest..*)")
+    public void restControllerPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("databaseRepositoryPointcut()")
+    public Object profileDatabase(ProceedingJoinPoint joinPoint) throws Throwable {
+        return profile(joinPoint, RequestPhase.DATABASE);
+    }
+
+    @Around("searchRepositoryPointcut()")
+    public Object profileSearch(ProceedingJoinPoint joinPoint) throws Throwable {
+        return profile(joinPoint, RequestPhase.SEARCH);
+    }
+
+    @Around("restControllerPointcut()")
+    public Object profileController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return profile(joinPoint, RequestPhase.CONTROLLER);
+    }
+
+    private Object profile(ProceedingJoinPoint joinPoint, RequestPhase phase) throws Throwable {
+        RequestProfile.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestProfile.exit(phase);
+        }
+    }
+}
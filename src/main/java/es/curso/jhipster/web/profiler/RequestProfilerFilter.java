@@ -0,0 +1,123 @@
+package es.curso.jhipster.web.profiler;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.jdbc.SqlRequestStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Filter timing the phases of each request, registered before the security filters.
+ * <p>
+ * The phases are timed in the {@link RequestProfile} of the thread. A request is only matched against the budgets of
+ * the routes when it took longer than the smallest of them, and only the requests exceeding their budget are copied to
+ * the {@link SlowRequestLog}, so that fast requests cost a few clock reads.
+ * <p>
+ * The SQL statements run by the request are counted from its {@link SqlRequestStatistics}, which also detects the N+1
+ * queries within the request.
+ */
+public class RequestProfilerFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final SlowRequestLog slowRequestLog;
+
+    private final Map<String, Long> budgetNanos = new LinkedHashMap<>();
+
+    private final long defaultBudgetNanos;
+
+    private final long minBudgetNanos;
+
+    private final Counter slowRequestCounter;
+
+    public RequestProfilerFilter(ApplicationProperties applicationProperties, SlowRequestLog slowRequestLog, MeterRegistry meterRegistry) {
+        ApplicationProperties.Profiler properties = applicationProperties.getProfiler();
+        this.slowRequestLog = slowRequestLog;
+        this.defaultBudgetNanos = properties.getDefaultBudget().toNanos();
+        long min = defaultBudgetNanos;
+        for (Map.Entry<String, Duration> budget : properties.getBudgets().entrySet()) {
+            budgetNanos.put(budget.getKey(), budget.getValue().toNanos());
+            min = Math.min(min, budget.getValue().toNanos());
+        }
+        this.minBudgetNanos = min;
+        this.slowRequestCounter = meterRegistry.counter("http.server.requests.slow");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.current();
+        if (profile.isActive()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        SqlRequestStatistics sql = SqlRequestStatistics.current();
+        long statementsBefore = sql.getStatements();
+        long rowsBefore = sql.getRows();
+        long start = System.nanoTime();
+        profile.start(start);
+        sql.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long totalNanos = System.nanoTime() - start;
+            sql.endRequest();
+            if (totalNanos > minBudgetNanos) {
+                capture(request, response, profile, totalNanos, sql.getStatements() - statementsBefore, sql.getRows() - rowsBefore);
+            }
+            profile.stop();
+        }
+    }
+
+    private void capture(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        RequestProfile profile,
+        long totalNanos,
+        long statements,
+        long rows
+    ) {
+        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+        long budget = budgetNanos(path);
+        if (totalNanos <= budget) {
+            return;
+        }
+        slowRequestCounter.increment();
+        slowRequestLog.add(
+            new SlowRequest(
+                Instant.now(),
+                request.getMethod(),
+                path,
+                response.getStatus(),
+                totalNanos / 1e6,
+                budget / 1e6,
+                profile.getPhaseMillis(totalNanos),
+                statements,
+                rows
+            )
+        );
+    }
+
+    private long budgetNanos(String path) {
+        for (Map.Entry<String, Long> budget : budgetNanos.entrySet()) {
+            if (pathMatcher.match(budget.getKey(), path)) {
+                return budget.getValue();
+            }
+        }
+        return defaultBudgetNanos;
+    }
+}
@@ -0,0 +1,22 @@
+package es.curso.jhipster.web.profiler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Interceptor timing the {@link RequestPhase#HANDLER} phase of the profiled requests.
+ */
+public class RequestProfilerInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestProfile.enter(RequestPhase.HANDLER);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestProfile.exit(RequestPhase.HANDLER);
+    }
+}
@@ -0,0 +1,108 @@
+package es.curso.jhipster.web.profiler;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A request which exceeded its latency budget, with the duration of each of its phases and the SQL statements it ran.
+ */
+public final class SlowRequest {
+
+    private final Instant date;
+
+    private final String method;
+
+    private final String path;
+
+    private final int status;
+
+    private final double durationMillis;
+
+    private final double budgetMillis;
+
+    private final Map<String, Double> phaseMillis;
+
+    private final long statements;
+
+    private final long rows;
+
+    SlowRequest(
+        Instant date,
+        String method,
+        String path,
+        int status,
+        double durationMillis,
+        double budgetMillis,
+        Map<String, Double> phaseMillis,
+        long statements,
+        long rows
+    ) {
+        this.date = date;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.durationMillis = durationMillis;
+        this.budgetMillis = budgetMillis;
+        this.phaseMillis = phaseMillis;
+        this.statements = statements;
+        this.rows = rows;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public double getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public Map<String, Double> getPhaseMillis() {
+        return phaseMillis;
+    }
+
+    /**
+     * @return the number of SQL statements run by the request.
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the number of rows read or changed by the SQL statements of the request.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SlowRequest{" +
+            "date=" + date +
+            ", method='" + method + "'" +
+            ", path='" + path + "'" +
+            ", status=" + status +
+            ", durationMillis=" + durationMillis +
+            ", budgetMillis=" + budgetMillis +
+            ", phaseMillis=" + phaseMillis +
+            ", statements=" + statements +
+            ", rows=" + rows +
+            "}";
+    }
+}
@@ -0,0 +1,42 @@
+package es.curso.jhipster.web.profiler;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lock-free ring of the last slow requests, the oldest being overwritten once it is full.
+ */
+@Component
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<SlowRequest> entries;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowRequestLog(ApplicationProperties applicationProperties) {
+        this.entries = new AtomicReferenceArray<>(Math.max(1, applicationProperties.getProfiler().getCapacity()));
+    }
+
+    void add(SlowRequest slowRequest) {
+        entries.set((int) (sequence.getAndIncrement() % entries.length()), slowRequest);
+    }
+
+    /**
+     * @return the last slow requests, most recent first.
+     */
+    public List<SlowRequest> getSlowRequests() {
+        List<SlowRequest> slowRequests = new ArrayList<>();
+        long end = sequence.get();
+        for (long i = end - 1; i >= Math.max(0, end - entries.length()); i--) {
+            SlowRequest slowRequest = entries.get((int) (i % entries.length()));
+            if (slowRequest != null) {
+                slowRequests.add(slowRequest);
+            }
+        }
+        return slowRequests;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Profiling of the phases of the HTTP requests, and capture of the slow ones.
+ */
+package es.curso.jhipster.web.profiler;
@@ -3,6 +3,8 @@ package es.curso.jhipster.web.rest;
 import es.curso.jhipster.domain.User;
 import es.curso.jhipster.repository.UserRepository;
 import es.curso.jhipster.security.SecurityUtils;
+import es.curso.jhipster.security.ratelimit.RateLimitExceededException;
+import es.curso.jhipster.security.ratelimit.RateLimiter;
 import es.curso.jhipster.service.MailService;
 import es.curso.jhipster.service.UserService;
 import es.curso.jhipster.service.dto.AdminUserDTO;
@@ -41,23 +43,29 @@ public class AccountResource {
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final RateLimiter rateLimiter;
+
+    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService, RateLimiter rateLimiter) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
      * {@code POST  /register} : register the user.
      *
      * @param managedUserVM the managed user View Model.
+     * @param request the HTTP request.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the password is incorrect.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
      * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already used.
+     * @throws RateLimitExceededException {@code 429 (Too Many Requests)} if the client registered too many accounts.
      */
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
-    public void registerAccount(@Valid @RequestBody ManagedUserVM managedUserVM) {
+    public void registerAccount(@Valid @RequestBody ManagedUserVM managedUserVM, HttpServletRequest request) {
+        rateLimiter.checkRegister(request.getRemoteAddr());
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
@@ -152,9 +160,12 @@ public class AccountResource {
      * {@code POST   /account/reset-password/init} : Send an email to reset the password of the user.
      *
      * @param mail the mail of the user.
+     * @param request the HTTP request.
+     * @throws RateLimitExceededException {@code 429 (Too Many Requests)} if the client or the mail sent too many requests.
      */
     @PostMapping(path = "/account/reset-password/init")
-    public void requestPasswordReset(@RequestBody String mail) {
+    public void requestPasswordReset(@RequestBody String mail, HttpServletRequest request) {
+        rateLimiter.checkPasswordReset(request.getRemoteAddr(), mail);
         Optional<User> user = userService.requestPasswordReset(mail);
         if (user.isPresent()) {
             mailService.sendPasswordResetMail(user.get());
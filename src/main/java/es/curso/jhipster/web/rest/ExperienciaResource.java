@@ -3,12 +3,31 @@ package es.curso.jhipster.web.rest;
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
 import es.curso.jhipster.repository.ExperienciaRepository;
 import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.repository.search.SearchAfterSlice;
+import es.curso.jhipster.repository.search.SearchAfterValues;
+import es.curso.jhipster.service.ExperienciaBulkService;
+import es.curso.jhipster.service.ExperienciaExportService;
+import es.curso.jhipster.service.ExperienciaFacetService;
+import es.curso.jhipster.service.ExperienciaSuggestService;
+import es.curso.jhipster.service.dto.BulkItemResultDTO;
+import es.curso.jhipster.service.dto.ExperienciaFacetsDTO;
+import es.curso.jhipster.service.dto.ExperienciaSuggestionDTO;
+import es.curso.jhipster.service.search.SearchIndexer;
 import es.curso.jhipster.web.rest.errors.BadRequestAlertException;
+import es.curso.jhipster.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,12 +38,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -42,6 +68,14 @@ public class ExperienciaResource {
 
     private static final String ENTITY_NAME = "experiencia";
 
+    private static final String SEEK_ON_ID = "i";
+
+    private static final String SEEK_ON_FECHA = "f";
+
+    private static final int MAX_SUGGEST_PREFIX_LENGTH = 100;
+
+    private static final int MAX_FACET_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -49,9 +83,32 @@ public class ExperienciaResource {
 
     private final ExperienciaSearchRepository experienciaSearchRepository;
 
-    public ExperienciaResource(ExperienciaRepository experienciaRepository, ExperienciaSearchRepository experienciaSearchRepository) {
+    private final ExperienciaExportService experienciaExportService;
+
+    private final ExperienciaBulkService experienciaBulkService;
+
+    private final ExperienciaSuggestService experienciaSuggestService;
+
+    private final ExperienciaFacetService experienciaFacetService;
+
+    private final SearchIndexer searchIndexer;
+
+    public ExperienciaResource(
+        ExperienciaRepository experienciaRepository,
+        ExperienciaSearchRepository experienciaSearchRepository,
+        ExperienciaExportService experienciaExportService,
+        ExperienciaBulkService experienciaBulkService,
+        ExperienciaSuggestService experienciaSuggestService,
+        ExperienciaFacetService experienciaFacetService,
+        SearchIndexer searchIndexer
+    ) {
         this.experienciaRepository = experienciaRepository;
         this.experienciaSearchRepository = experienciaSearchRepository;
+        this.experienciaExportService = experienciaExportService;
+        this.experienciaBulkService = experienciaBulkService;
+        this.experienciaSuggestService = experienciaSuggestService;
+        this.experienciaFacetService = experienciaFacetService;
+        this.searchIndexer = searchIndexer;
     }
 
     /**
@@ -68,13 +125,30 @@ public class ExperienciaResource {
             throw new BadRequestAlertException("A new experiencia cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Experiencia result = experienciaRepository.save(experiencia);
-        experienciaSearchRepository.save(result);
+        searchIndexer.sync(SearchDocumentType.EXPERIENCIA, result.getId());
         return ResponseEntity
             .created(new URI("/api/experiencias/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /experiencias/_bulk} : Create or update many experiencias.
+     * <p>
+     * The body is either a JSON array or newline delimited JSON. Experiencias without an id are created, the other ones
+     * are updated. Each item is validated on its own, and items are written by chunks, each chunk in its own transaction.
+     *
+     * @param inputStream the request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each item, in input order.
+     * @throws IOException if the request body can't be read.
+     */
+    @PostMapping(value = "/experiencias/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSaveExperiencias(InputStream inputStream) throws IOException {
+        log.debug("REST request to bulk save Experiencias");
+        return ResponseEntity.ok().body(experienciaBulkService.saveAll(inputStream));
+    }
+
     /**
      * {@code PUT  /experiencias/:id} : Updates an existing experiencia.
      *
@@ -103,7 +177,7 @@ public class ExperienciaResource {
         }
 
         Experiencia result = experienciaRepository.save(experiencia);
-        experienciaSearchRepository.save(result);
+        searchIndexer.sync(SearchDocumentType.EXPERIENCIA, result.getId());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, experiencia.getId().toString()))
@@ -158,7 +232,7 @@ public class ExperienciaResource {
             })
             .map(experienciaRepository::save)
             .map(savedExperiencia -> {
-                experienciaSearchRepository.save(savedExperiencia);
+                searchIndexer.sync(SearchDocumentType.EXPERIENCIA, savedExperiencia.getId());
 
                 return savedExperiencia;
             });
@@ -176,6 +250,7 @@ public class ExperienciaResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of experiencias in body.
      */
     @GetMapping("/experiencias")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Experiencia>> getAllExperiencias(Pageable pageable) {
         log.debug("REST request to get a page of Experiencias");
         Page<Experiencia> page = experienciaRepository.findAll(pageable);
@@ -183,6 +258,137 @@ public class ExperienciaResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /experiencias?after=:cursor} : get a slice of experiencias using keyset pagination.
+     * <p>
+     * Rows are returned in ascending {@code (id)} order, or in ascending {@code (fecha, id)} order when sorting by
+     * {@code fecha} (experiencias without a fecha come first). An empty cursor starts from the beginning; the cursor of
+     * the next slice is sent in the {@code Link} header. No total count is computed.
+     *
+     * @param after the opaque cursor returned by the previous slice, or an empty string for the first one.
+     * @param pageable the slice size and the seek key, only {@code id} and {@code fecha} are supported.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of experiencias in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
+     */
+    @GetMapping(value = "/experiencias", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Experiencia>> getAllExperienciasAfter(
+        @RequestParam(KeysetPaginationUtil.AFTER_PARAMETER) String after,
+        Pageable pageable
+    ) {
+        log.debug("REST request to get a slice of Experiencias after : {}", after);
+        String seekKey;
+        LocalDate fecha = null;
+        Long id = Long.MIN_VALUE;
+        if (after.isEmpty()) {
+            seekKey = resolveSeekKey(pageable.getSort());
+        } else {
+            try {
+                List<String> keys = KeysetPaginationUtil.decodeCursor(after);
+                seekKey = keys.get(0);
+                if (SEEK_ON_ID.equals(seekKey) && keys.size() == 2) {
+                    id = Long.valueOf(keys.get(1));
+                } else if (SEEK_ON_FECHA.equals(seekKey) && keys.size() == 3) {
+                    fecha = keys.get(1).isEmpty() ? null : LocalDate.parse(keys.get(1));
+                    id = Long.valueOf(keys.get(2));
+                } else {
+                    throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+        }
+
+        int size = pageable.getPageSize();
+        Slice<Experiencia> slice = SEEK_ON_FECHA.equals(seekKey) ? findSliceAfter(fecha, id, size) : findSliceAfter(id, size);
+        String nextCursor = null;
+        if (slice.hasContent()) {
+            Experiencia last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor =
+                SEEK_ON_FECHA.equals(seekKey)
+                    ? KeysetPaginationUtil.encodeCursor(
+                        SEEK_ON_FECHA,
+                        last.getFecha() == null ? "" : last.getFecha().toString(),
+                        last.getId().toString()
+                    )
+                    : KeysetPaginationUtil.encodeCursor(SEEK_ON_ID, last.getId().toString());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            nextCursor
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    private String resolveSeekKey(Sort sort) {
+        String seekKey = SEEK_ON_ID;
+        for (Sort.Order order : sort) {
+            if (order.isDescending()) {
+                throw new BadRequestAlertException("Keyset pagination only supports ascending order", ENTITY_NAME, "sortinvalid");
+            }
+            if ("fecha".equals(order.getProperty())) {
+                seekKey = SEEK_ON_FECHA;
+            } else if (!"id".equals(order.getProperty())) {
+                throw new BadRequestAlertException("Keyset pagination only supports id and fecha", ENTITY_NAME, "sortinvalid");
+            }
+        }
+        return seekKey;
+    }
+
+    private Slice<Experiencia> findSliceAfter(Long id, int size) {
+        return experienciaRepository.findAllByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, size));
+    }
+
+    private Slice<Experiencia> findSliceAfter(LocalDate fecha, Long id, int size) {
+        if (fecha != null) {
+            return experienciaRepository.findAllAfterFechaAndId(fecha, id, PageRequest.of(0, size));
+        }
+        // Experiencias without a fecha sort first, then we seek into the dated ones from the start
+        Slice<Experiencia> undated = experienciaRepository.findAllByFechaIsNullAndIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, size));
+        if (undated.hasNext()) {
+            return undated;
+        }
+        int remaining = size - undated.getNumberOfElements();
+        List<Experiencia> content = new ArrayList<>(undated.getContent());
+        boolean hasNext;
+        if (remaining > 0) {
+            Slice<Experiencia> dated = experienciaRepository.findAllByFechaIsNotNullOrderByFechaAscIdAsc(PageRequest.of(0, remaining));
+            content.addAll(dated.getContent());
+            hasNext = dated.hasNext();
+        } else {
+            hasNext = experienciaRepository.existsByFechaIsNotNull();
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * {@code GET  /experiencias/_export} : stream all the experiencias.
+     * <p>
+     * The response is written while the rows are read from the database, so it is not bounded by the heap size.
+     *
+     * @param format the export format, {@code json} (a JSON array) or {@code ndjson} (one experiencia per line).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the experiencias in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/experiencias/_export")
+    public ResponseEntity<StreamingResponseBody> exportExperiencias(@RequestParam(defaultValue = "json") String format) {
+        log.debug("REST request to export all Experiencias as {}", format);
+        ExperienciaExportService.Format exportFormat;
+        try {
+            exportFormat = ExperienciaExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        StreamingResponseBody body = outputStream -> experienciaExportService.export(outputStream, exportFormat);
+        return ResponseEntity
+            .ok()
+            .contentType(
+                exportFormat == ExperienciaExportService.Format.NDJSON ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON
+            )
+            .body(body);
+    }
+
     /**
      * {@code GET  /experiencias/:id} : get the "id" experiencia.
      *
@@ -190,6 +396,7 @@ public class ExperienciaResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the experiencia, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/experiencias/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Experiencia> getExperiencia(@PathVariable Long id) {
         log.debug("REST request to get Experiencia : {}", id);
         Optional<Experiencia> experiencia = experienciaRepository.findById(id);
@@ -206,7 +413,7 @@ public class ExperienciaResource {
     public ResponseEntity<Void> deleteExperiencia(@PathVariable Long id) {
         log.debug("REST request to delete Experiencia : {}", id);
         experienciaRepository.deleteById(id);
-        experienciaSearchRepository.deleteById(id);
+        searchIndexer.sync(SearchDocumentType.EXPERIENCIA, id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
@@ -228,4 +435,114 @@ public class ExperienciaResource {
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    /**
+     * {@code SEARCH  /_search/experiencias?query=:query&after=:cursor} : search for a slice of the experiencias
+     * corresponding to the query, using {@code search_after} pagination.
+     * <p>
+     * Each slice costs the same however deep it is, unlike pages. Experiencias are sorted by relevance, or by
+     * {@code id} or {@code fecha}, then by id. An empty cursor starts from the beginning; the cursor of the next slice is
+     * sent in the {@code Link} header. No total count is computed.
+     *
+     * @param query the query of the experiencia search.
+     * @param after the opaque cursor returned by the previous slice, or an empty string for the first one.
+     * @param pageable the slice size and the sort, only {@code id} and {@code fecha} are supported.
+     * @return the result of the search, or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
+     */
+    @GetMapping(value = "/_search/experiencias", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<Experiencia>> searchExperienciasAfter(
+        @RequestParam String query,
+        @RequestParam(KeysetPaginationUtil.AFTER_PARAMETER) String after,
+        Pageable pageable
+    ) {
+        log.debug("REST request to search for a slice of Experiencias for query {} after : {}", query, after);
+        // The cursor holds one value per sort: the relevance or the given ones, then the id if not already sorted by
+        int sortValueCount = pageable.getSort().isUnsorted() ? 1 : 0;
+        for (Sort.Order order : pageable.getSort()) {
+            if (!"id".equals(order.getProperty()) && !"fecha".equals(order.getProperty())) {
+                throw new BadRequestAlertException("Search pagination only supports id and fecha", ENTITY_NAME, "sortinvalid");
+            }
+            sortValueCount++;
+        }
+        if (pageable.getSort().getOrderFor("id") == null) {
+            sortValueCount++;
+        }
+        List<Object> searchAfter = new ArrayList<>();
+        if (!after.isEmpty()) {
+            try {
+                searchAfter.addAll(SearchAfterValues.decode(KeysetPaginationUtil.decodeCursor(after)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+            if (searchAfter.size() != sortValueCount) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+        }
+
+        SearchAfterSlice<Experiencia> slice = experienciaSearchRepository.searchAfter(query, searchAfter, pageable);
+        String nextCursor = slice.hasContent()
+            ? KeysetPaginationUtil.encodeCursor(SearchAfterValues.encode(slice.getLastSortValues()).toArray(new String[0]))
+            : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            nextCursor
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /_suggest/experiencias?query=:prefix} : suggest experiencias while the user types a search.
+     * <p>
+     * The prefix is matched against the start of the words of the titulo and the localizacion, tolerating typos, and is
+     * not parsed as a query string. Suggestions of a prefix are cached for a short time.
+     *
+     * @param query the words typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions in body, best first,
+     * or with status {@code 400 (Bad Request)} if the size is not valid.
+     */
+    @GetMapping("/_suggest/experiencias")
+    public ResponseEntity<List<ExperienciaSuggestionDTO>> suggestExperiencias(
+        @RequestParam String query,
+        @RequestParam(defaultValue = "5") int size
+    ) {
+        log.debug("REST request to suggest Experiencias for : {}", query);
+        if (size < 1) {
+            throw new BadRequestAlertException("The size must be positive", ENTITY_NAME, "sizeinvalid");
+        }
+        // Equivalent prefixes share a cache entry
+        String prefix = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (prefix.length() > MAX_SUGGEST_PREFIX_LENGTH) {
+            prefix = prefix.substring(0, MAX_SUGGEST_PREFIX_LENGTH);
+        }
+        List<ExperienciaSuggestionDTO> suggestions = prefix.isEmpty()
+            ? Collections.emptyList()
+            : experienciaSuggestService.suggest(prefix, size);
+        return ResponseEntity.ok().body(suggestions);
+    }
+
+    /**
+     * {@code GET  /_search/experiencias/_facets?query=:query} : count the experiencias corresponding to the query by
+     * localizacion and by month.
+     * <p>
+     * If the search index is unavailable, all the experiencias are counted, whatever the query, and the {@code source}
+     * of the result is {@code DATABASE}.
+     *
+     * @param query the query of the experiencia search.
+     * @param size the number of localizaciones to count, the most frequent ones.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the counts in body,
+     * or with status {@code 400 (Bad Request)} if the size or the query is not valid.
+     */
+    @GetMapping("/_search/experiencias/_facets")
+    public ResponseEntity<ExperienciaFacetsDTO> getExperienciaFacets(
+        @RequestParam(defaultValue = "*") String query,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        log.debug("REST request to count Experiencias by localizacion and month for query {}", query);
+        if (size < 1 || size > MAX_FACET_SIZE) {
+            throw new BadRequestAlertException("The size must be between 1 and " + MAX_FACET_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        return ResponseEntity.ok().body(experienciaFacetService.facets(query, size));
+    }
 }
@@ -0,0 +1,39 @@
+package es.curso.jhipster.web.rest;
+
+import es.curso.jhipster.security.jwt.JWTKeyRing;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller publishing the public keys verifying the tokens, for services which verify them on their own.
+ */
+@RestController
+@RequestMapping("/api")
+public class JWKSResource {
+
+    private final JWTKeyRing keyRing;
+
+    public JWKSResource(JWTKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * {@code GET  /jwks} : get the public keys verifying the ES256 tokens.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the JSON Web Key Set, which is empty if
+     * tokens are signed with the HMAC secret.
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, List<Map<String, String>>>> getJsonWebKeySet() {
+        return ResponseEntity
+            .ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(Map.of("keys", keyRing.getJsonWebKeys()));
+    }
+}
@@ -2,13 +2,15 @@ package es.curso.jhipster.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
-import es.curso.jhipster.repository.search.UserSearchRepository;
+import es.curso.jhipster.repository.search.SearchAfterSlice;
+import es.curso.jhipster.repository.search.SearchAfterValues;
+import es.curso.jhipster.service.UserSearchService;
 import es.curso.jhipster.service.UserService;
 import es.curso.jhipster.service.dto.UserDTO;
+import es.curso.jhipster.web.rest.errors.BadRequestAlertException;
+import es.curso.jhipster.web.rest.util.KeysetPaginationUtil;
 import java.util.*;
 import java.util.Collections;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -16,8 +18,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.PaginationUtil;
 
@@ -32,11 +36,11 @@ public class PublicUserResource {
     private final Logger log = LoggerFactory.getLogger(PublicUserResource.class);
 
     private final UserService userService;
-    private final UserSearchRepository userSearchRepository;
+    private final UserSearchService userSearchService;
 
-    public PublicUserResource(UserSearchRepository userSearchRepository, UserService userService) {
+    public PublicUserResource(UserSearchService userSearchService, UserService userService) {
         this.userService = userService;
-        this.userSearchRepository = userSearchRepository;
+        this.userSearchService = userSearchService;
     }
 
     /**
@@ -72,12 +76,61 @@ public class PublicUserResource {
 
     /**
      * {@code SEARCH /_search/users/:query} : search for the User corresponding to the query.
+     * <p>
+     * The users are written to the response while they are read from Elasticsearch, up to
+     * {@code application.search.users.max-results} of them.
      *
      * @param query the query to search.
      * @return the result of the search.
      */
     @GetMapping("/_search/users/{query}")
-    public List<UserDTO> search(@PathVariable String query) {
-        return StreamSupport.stream(userSearchRepository.search(query).spliterator(), false).map(UserDTO::new).collect(Collectors.toList());
+    public ResponseEntity<StreamingResponseBody> search(@PathVariable String query) {
+        log.debug("REST request to search for Users matching {}", query);
+        StreamingResponseBody body = outputStream -> userSearchService.search(query, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * {@code SEARCH /_search/users/:query?after=:cursor} : search for a slice of the Users corresponding to the query,
+     * using {@code search_after} pagination.
+     * <p>
+     * Users are sorted by relevance, then by id. An empty cursor starts from the beginning; the cursor of the next slice
+     * is sent in the {@code Link} header. No total count is computed.
+     *
+     * @param query the query to search.
+     * @param after the opaque cursor returned by the previous slice, or an empty string for the first one.
+     * @param pageable the slice size, capped to {@code application.search.users.max-results}.
+     * @return the result of the search, or with status {@code 400 (Bad Request)} if the cursor is not valid.
+     */
+    @GetMapping(value = "/_search/users/{query}", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<UserDTO>> searchAfter(
+        @PathVariable String query,
+        @RequestParam(KeysetPaginationUtil.AFTER_PARAMETER) String after,
+        Pageable pageable
+    ) {
+        log.debug("REST request to search for a slice of Users matching {} after : {}", query, after);
+        List<Object> searchAfter = new ArrayList<>();
+        if (!after.isEmpty()) {
+            try {
+                searchAfter.addAll(SearchAfterValues.decode(KeysetPaginationUtil.decodeCursor(after)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException("Invalid cursor", "userManagement", "cursorinvalid");
+            }
+            // The relevance and the id
+            if (searchAfter.size() != 2) {
+                throw new BadRequestAlertException("Invalid cursor", "userManagement", "cursorinvalid");
+            }
+        }
+
+        SearchAfterSlice<UserDTO> slice = userSearchService.search(query, searchAfter, pageable.getPageSize());
+        String nextCursor = slice.hasContent()
+            ? KeysetPaginationUtil.encodeCursor(SearchAfterValues.encode(slice.getLastSortValues()).toArray(new String[0]))
+            : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            nextCursor
+        );
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 }
@@ -0,0 +1,61 @@
+package es.curso.jhipster.web.rest;
+
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.security.AuthoritiesConstants;
+import es.curso.jhipster.service.search.SearchReindexJob;
+import es.curso.jhipster.service.search.SearchReindexService;
+import es.curso.jhipster.web.rest.errors.BadRequestAlertException;
+import java.net.URI;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for rebuilding the search indices.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class SearchReindexResource {
+
+    private static final String ENTITY_NAME = "searchReindex";
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /admin/_reindex/:entity} : Rebuild the search index of an entity from the database, without search
+     * downtime.
+     * <p>
+     * The progress of the rebuild is exposed by the {@code /management/searchreindex} endpoint.
+     *
+     * @param entity the entity whose index to rebuild: {@code experiencia} or {@code user}.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the new rebuild.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the entity is unknown or its index is already being rebuilt.
+     */
+    @PostMapping("/_reindex/{entity}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<SearchReindexJob> reindex(@PathVariable String entity) {
+        log.debug("REST request to rebuild the search index of : {}", entity);
+        SearchDocumentType type;
+        try {
+            type = SearchDocumentType.valueOf(entity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown searchable entity", ENTITY_NAME, "unknownentity");
+        }
+        SearchReindexJob job = searchReindexService
+            .start(type)
+            .orElseThrow(() -> new BadRequestAlertException("The search index is already being rebuilt", ENTITY_NAME, "reindexrunning"));
+        return ResponseEntity.accepted().location(URI.create("/management/searchreindex")).body(job);
+    }
+}
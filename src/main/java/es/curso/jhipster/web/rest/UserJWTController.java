@@ -1,13 +1,20 @@
 package es.curso.jhipster.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import es.curso.jhipster.security.AuthoritiesConstants;
 import es.curso.jhipster.security.jwt.JWTFilter;
 import es.curso.jhipster.security.jwt.TokenProvider;
+import es.curso.jhipster.security.ratelimit.RateLimiter;
 import es.curso.jhipster.web.rest.vm.LoginVM;
+import java.util.UUID;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
@@ -21,17 +28,27 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api")
 public class UserJWTController {
 
+    private final Logger log = LoggerFactory.getLogger(UserJWTController.class);
+
     private final TokenProvider tokenProvider;
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final RateLimiter rateLimiter;
+
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        RateLimiter rateLimiter
+    ) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        rateLimiter.checkAuthenticate(request.getRemoteAddr(), loginVM.getUsername());
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
@@ -45,6 +62,34 @@ public class UserJWTController {
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
     }
 
+    /**
+     * {@code POST  /logout} : revoke the token of the current request, so that it can no longer be used.
+     *
+     * @param authorization the {@code Authorization} header of the request.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(JWTFilter.AUTHORIZATION_HEADER) String authorization) {
+        if (authorization.startsWith("Bearer ")) {
+            tokenProvider.revokeToken(authorization.substring(7));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code POST  /admin/revoked-tokens/:jti} : revoke a token, identified by its {@code jti} claim.
+     *
+     * @param jti the {@code jti} claim of the token to revoke.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/admin/revoked-tokens/{jti}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> revokeToken(@PathVariable UUID jti) {
+        log.debug("REST request to revoke the token : {}", jti);
+        tokenProvider.revokeToken(jti);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
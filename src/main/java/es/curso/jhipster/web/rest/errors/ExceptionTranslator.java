@@ -1,5 +1,7 @@
 package es.curso.jhipster.web.rest.errors;
 
+import es.curso.jhipster.security.PasswordHashingRejectedException;
+import es.curso.jhipster.security.ratelimit.RateLimitExceededException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -10,10 +12,14 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.rest.RestStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -158,6 +164,37 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         );
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleRateLimitExceededException(RateLimitExceededException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder().withStatus(Status.TOO_MANY_REQUESTS).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleUncategorizedElasticsearchException(
+        UncategorizedElasticsearchException ex,
+        NativeWebRequest request
+    ) {
+        // Such as a malformed search query, which Elasticsearch rejects with a 400 response
+        if (
+            ex.getCause() instanceof ElasticsearchStatusException &&
+            ((ElasticsearchStatusException) ex.getCause()).status() == RestStatus.BAD_REQUEST
+        ) {
+            return create(ex, Problem.builder().withStatus(Status.BAD_REQUEST).build(), request);
+        }
+        return create(ex, request);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
         Problem problem = Problem.builder().withStatus(Status.CONFLICT).with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
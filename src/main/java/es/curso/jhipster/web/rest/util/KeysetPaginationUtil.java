@@ -0,0 +1,74 @@
+package es.curso.jhipster.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (seek) pagination.
+ * <p>
+ * The position in the result set is carried by an opaque cursor holding the sort key of the last returned row, so
+ * the next page is read with a {@code WHERE key > :last} predicate instead of an {@code OFFSET}, and no
+ * {@code COUNT(*)} query is needed.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String KEY_SEPARATOR = "\u001f";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode the sort key values of a row into an opaque, URL-safe cursor.
+     *
+     * @param keys the sort key values, in seek order.
+     * @return the cursor.
+     */
+    public static String encodeCursor(String... keys) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.join(KEY_SEPARATOR, keys).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor built with {@link #encodeCursor(String...)}.
+     *
+     * @param cursor the cursor.
+     * @return the sort key values, in seek order.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static List<String> decodeCursor(String cursor) {
+        String keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        return Arrays.asList(keys.split(KEY_SEPARATOR, -1));
+    }
+
+    /**
+     * Generate the {@code Link} header pointing to the next slice, if there is one.
+     *
+     * @param uriBuilder the current request URI.
+     * @param slice the slice being returned.
+     * @param nextCursor the cursor of the last row of the slice.
+     * @param <T> the type of the slice content.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            String link = uriBuilder
+                .replaceQueryParam("page")
+                .replaceQueryParam(AFTER_PARAMETER, nextCursor)
+                .replaceQueryParam("size", slice.getSize())
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, link, "next"));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utilities used by Spring MVC REST controllers.
+ */
+package es.curso.jhipster.web.rest.util;
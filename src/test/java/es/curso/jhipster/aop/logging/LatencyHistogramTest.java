@@ -0,0 +1,47 @@
+package es.curso.jhipster.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsCoverEveryValue() {
+        for (long value : new long[] { 0, 1, 3, 4, 7, 8, 9, 1000, 123_456_789, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.bucketUpperBound(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    void testValueAtQuantileIsOverestimatedByAtMostAQuarter() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getTotalNanos()).isEqualTo(5050 * 1_000_000.0);
+        assertThat(histogram.getValueAtQuantile(0.5)).isBetween(50_000_000L, 62_500_000L);
+        assertThat(histogram.getValueAtQuantile(0.99)).isBetween(99_000_000L, 123_750_000L);
+        assertThat(histogram.getValueAtQuantile(1)).isBetween(100_000_000L, 125_000_000L);
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        assertThat(new LatencyHistogram().getValueAtQuantile(0.5)).isZero();
+    }
+
+    @Test
+    void testNegativeLatencyIsRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+
+        assertThat(histogram.getValueAtQuantile(0.5)).isZero();
+        assertThat(histogram.getTotalNanos()).isZero();
+    }
+}
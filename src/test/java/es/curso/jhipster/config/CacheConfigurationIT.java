@@ -0,0 +1,77 @@
+package es.curso.jhipster.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.domain.Authority;
+import es.curso.jhipster.domain.User;
+import es.curso.jhipster.repository.UserRepository;
+import es.curso.jhipster.service.ExperienciaSuggestService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link CacheConfiguration}.
+ */
+@IntegrationTest
+class CacheConfigurationIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testConfiguredRegionOverridesDefaults() {
+        CacheRuntimeConfiguration<?, ?> configuration = getRuntimeConfiguration(Authority.class.getName());
+
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(10);
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(null, null)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testUnconfiguredRegionHasDefaults() {
+        CacheRuntimeConfiguration<?, ?> configuration = getRuntimeConfiguration(User.class.getName());
+
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(null, null)).isEqualTo(Duration.ofHours(1));
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(null, null)).isNull();
+    }
+
+    @Test
+    void testCacheSizeIsPublished() {
+        assertThat(meterRegistry.get("cache.size").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge().value()).isNotNegative();
+    }
+
+    @Test
+    void testCacheSizeCountsEntriesUntilCleared() {
+        Cache<Object, Object> cache = cacheManager.getCache(ExperienciaSuggestService.SUGGESTIONS_CACHE);
+        Gauge size = meterRegistry.get("cache.size").tag("cache", ExperienciaSuggestService.SUGGESTIONS_CACHE).gauge();
+        cache.clear();
+
+        cache.put("first", "value");
+        cache.put("second", "value");
+        cache.put("second", "updated value");
+
+        assertThat(size.value()).isEqualTo(2);
+
+        cache.clear();
+
+        assertThat(size.value()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<?, ?> getRuntimeConfiguration(String cacheName) {
+        Eh107Configuration<?, ?> configuration = cacheManager.getCache(cacheName).getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+}
@@ -0,0 +1,65 @@
+package es.curso.jhipster.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionHoldTrackerTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private JdbcDataSource h2DataSource;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:hold;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void testConnectionHeldAwayFromDatabaseIsReported() throws SQLException {
+        applicationProperties.getConnectionPool().setHeldThreshold(Duration.ZERO);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConnectionHoldTracker tracker = new ConnectionHoldTracker(applicationProperties, meterRegistry);
+        HoldTrackingDataSource dataSource = new HoldTrackingDataSource(h2DataSource, tracker);
+
+        Connection connection = dataSource.getConnection();
+        assertThat(tracker.getHeldConnections()).isEqualTo(1);
+        // The connection is held by this thread, which is sampling instead of using it
+        for (int i = 0; i < 2; i++) {
+            tracker.sample();
+        }
+        connection.close();
+
+        assertThat(tracker.getHeldConnections()).isZero();
+        assertThat(tracker.getEvents()).hasSize(1);
+        HeldConnectionEvent event = tracker.getEvents().get(0);
+        assertThat(event.getThreadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(event.getIdleSamples()).isEqualTo(2);
+        assertThat(event.getStackSamples()).hasSize(1);
+        assertThat(event.getStackSamples().get(0)).anyMatch(frame -> frame.contains("ConnectionHoldTrackerTest"));
+        assertThat(meterRegistry.counter("jdbc.connections.held").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testConnectionReleasedWithinThresholdIsNotReported() throws SQLException {
+        applicationProperties.getConnectionPool().setHeldThreshold(Duration.ofHours(1));
+        ConnectionHoldTracker tracker = new ConnectionHoldTracker(applicationProperties, new SimpleMeterRegistry());
+        HoldTrackingDataSource dataSource = new HoldTrackingDataSource(h2DataSource, tracker);
+
+        Connection connection = dataSource.getConnection();
+        tracker.sample();
+        connection.close();
+
+        assertThat(tracker.getHeldConnections()).isZero();
+        assertThat(tracker.getEvents()).isEmpty();
+    }
+}
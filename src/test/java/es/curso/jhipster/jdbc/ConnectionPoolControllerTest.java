@@ -0,0 +1,156 @@
+package es.curso.jhipster.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolControllerTest {
+
+    private static final String POOL_NAME = "controller";
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private SqlStatistics sqlStatistics;
+
+    private HikariDataSource dataSource;
+
+    private ConnectionPoolController controller;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getConnectionPool().setMinSize(5);
+        applicationProperties.getConnectionPool().setMaxSize(12);
+        applicationProperties.getConnectionPool().setShrinkAfter(3);
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatistics = new SqlStatistics(applicationProperties, meterRegistry);
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:poolcontroller;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(POOL_NAME);
+        dataSource.setMaximumPoolSize(10);
+        controller = new ConnectionPoolController(dataSource, applicationProperties, meterRegistry, sqlStatistics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testPoolGrowsWhenThreadsWaitWithinBounds() {
+        assertThat(controller.nextMaximumPoolSize(10, 20, 0, 10, 9)).isEqualTo(11);
+        assertThat(controller.nextMaximumPoolSize(11, 20, 5, 10, 11)).isEqualTo(12);
+    }
+
+    @Test
+    void testPoolShrinksWhenDatabaseIsSaturated() {
+        assertThat(controller.nextMaximumPoolSize(10, 0, 0, 10, 8)).isEqualTo(10);
+
+        assertThat(controller.nextMaximumPoolSize(10, 50, 4, 50, 10)).isEqualTo(9);
+    }
+
+    @Test
+    void testSustainedSlowStatementsKeepShrinkingPool() {
+        assertThat(controller.nextMaximumPoolSize(10, 0, 0, 10, 8)).isEqualTo(10);
+
+        // Statements three times slower than usual for 30 samples, with threads waiting for a connection
+        int maximumPoolSize = 10;
+        for (int i = 0; i < 30; i++) {
+            int next = controller.nextMaximumPoolSize(maximumPoolSize, 50, 4, 30, maximumPoolSize);
+            assertThat(next).isLessThanOrEqualTo(maximumPoolSize);
+            maximumPoolSize = next;
+        }
+
+        assertThat(maximumPoolSize).isEqualTo(5);
+    }
+
+    @Test
+    void testAverageStatementTimeIsNotSeededWithContention() {
+        // Already slow statements with threads waiting for a connection, not taken for usual ones
+        assertThat(controller.nextMaximumPoolSize(10, 50, 0, 30, 10)).isEqualTo(11);
+        assertThat(controller.nextMaximumPoolSize(11, 0, 0, 10, 8)).isEqualTo(11);
+
+        assertThat(controller.nextMaximumPoolSize(11, 50, 0, 30, 11)).isEqualTo(10);
+    }
+
+    @Test
+    void testPoolShrinksWhenUnderused() {
+        assertThat(controller.nextMaximumPoolSize(6, 0, 0, 10, 1)).isEqualTo(6);
+        assertThat(controller.nextMaximumPoolSize(6, 0, 0, 10, 1)).isEqualTo(6);
+        assertThat(controller.nextMaximumPoolSize(6, 0, 0, 10, 1)).isEqualTo(5);
+        for (int i = 0; i < 3; i++) {
+            assertThat(controller.nextMaximumPoolSize(5, 0, 0, 10, 1)).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void testLongHoldsAwayFromDatabaseDoNotShrinkPool() throws SQLException {
+        startPool();
+        controller.sample();
+        record(10, Duration.ofMillis(10), Duration.ofMillis(1));
+        controller.sample();
+
+        // The transactions hold their connection a hundred times longer, calling other services, with fast statements
+        record(10, Duration.ofSeconds(1), Duration.ofMillis(1));
+        controller.sample();
+
+        assertThat(controller.getLastSample().getMeanUsageMillis()).isEqualTo(1000);
+        assertThat(controller.getLastSample().getMeanStatementMillis()).isEqualTo(1);
+        assertThat(controller.getLastSample().isSaturated()).isFalse();
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(10);
+    }
+
+    @Test
+    void testSlowStatementsShrinkPool() throws SQLException {
+        startPool();
+        controller.sample();
+        record(10, Duration.ofMillis(10), Duration.ofMillis(1));
+        controller.sample();
+
+        record(10, Duration.ofMillis(50), Duration.ofMillis(5));
+        controller.sample();
+
+        assertThat(controller.getLastSample().isSaturated()).isTrue();
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(9);
+    }
+
+    @Test
+    void testUnstartedPoolIsNotSampled() {
+        controller.sample();
+
+        assertThat(controller.getLastSample()).isNull();
+    }
+
+    private void startPool() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        // As registered by the Hikari metrics tracker
+        meterRegistry.timer("hikaricp.connections.acquire", "pool", POOL_NAME);
+        meterRegistry.timer("hikaricp.connections.usage", "pool", POOL_NAME);
+    }
+
+    /**
+     * Record the connection usages and statements of some transactions, each running one statement, as the Hikari
+     * metrics tracker and the {@link StatisticsDataSource} would.
+     */
+    private void record(int transactions, Duration usage, Duration statement) {
+        ShapeStatistics shape = sqlStatistics.getShape("select 1");
+        for (int i = 0; i < transactions; i++) {
+            meterRegistry.timer("hikaricp.connections.acquire", "pool", POOL_NAME).record(Duration.ZERO);
+            meterRegistry.timer("hikaricp.connections.usage", "pool", POOL_NAME).record(usage);
+            sqlStatistics.recordExecution(shape, statement.toNanos(), 0);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package es.curso.jhipster.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReadReplicasTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA1_URL = "jdbc:h2:mem:routingreplica1;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA2_URL = "jdbc:h2:mem:routingreplica2;DB_CLOSE_DELAY=-1";
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private HikariDataSource primary;
+
+    private ReadReplicas readReplicas;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getReadReplicas().getTargets().add(createTarget("replica1", REPLICA1_URL));
+        applicationProperties.getReadReplicas().getTargets().add(createTarget("replica2", REPLICA2_URL));
+        meterRegistry = new SimpleMeterRegistry();
+        primary = new HikariDataSource();
+        primary.setJdbcUrl(PRIMARY_URL);
+        primary.setPoolName("Hikari");
+        for (String url : List.of(PRIMARY_URL, REPLICA1_URL, REPLICA2_URL)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(createH2DataSource(url));
+            jdbcTemplate.execute(
+                "create table if not exists replication_heartbeat (node_id varchar(36) primary key, heartbeat bigint not null)"
+            );
+            jdbcTemplate.execute("delete from replication_heartbeat");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (readReplicas != null) {
+            readReplicas.close();
+        }
+        primary.close();
+    }
+
+    @Test
+    void testReadsGoToPrimaryUntilReplicasHaveReplicatedHeartbeat() throws SQLException {
+        DataSource dataSource = createRoutingDataSource("round-robin");
+
+        readReplicas.checkLag();
+
+        assertThat(readReplicas.getLags()).containsExactly(Map.entry("replica1", -1L), Map.entry("replica2", -1L));
+        assertThat(getReadOnlyUrl(dataSource)).contains("routingprimary");
+        assertThat(meterRegistry.counter("jdbc.routing.reads", "target", "primary").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jdbc.replica.available").tag("replica", "replica1").gauge().value()).isZero();
+    }
+
+    @Test
+    void testReadsGoToAvailableReplica() throws SQLException {
+        DataSource dataSource = createRoutingDataSource("least-loaded");
+
+        readReplicas.checkLag();
+        replicate(REPLICA1_URL);
+        readReplicas.checkLag();
+
+        assertThat(readReplicas.getLags().get("replica1")).isNotNegative();
+        assertThat(readReplicas.getLags().get("replica2")).isEqualTo(-1L);
+        assertThat(getReadOnlyUrl(dataSource)).contains("routingreplica1");
+        assertThat(meterRegistry.counter("jdbc.routing.reads", "target", "replica1").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jdbc.replica.available").tag("replica", "replica1").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "Hikari-replica1").gauge()).isNotNull();
+    }
+
+    @Test
+    void testRoundRobinAlternatesBetweenReplicas() throws SQLException {
+        DataSource dataSource = createRoutingDataSource("round-robin");
+
+        readReplicas.checkLag();
+        replicate(REPLICA1_URL);
+        replicate(REPLICA2_URL);
+        readReplicas.checkLag();
+
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            urls.add(getReadOnlyUrl(dataSource));
+        }
+        assertThat(urls).filteredOn(url -> url.contains("routingreplica1")).hasSize(2);
+        assertThat(urls).filteredOn(url -> url.contains("routingreplica2")).hasSize(2);
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() throws SQLException {
+        DataSource dataSource = createRoutingDataSource("round-robin");
+
+        readReplicas.checkLag();
+        replicate(REPLICA1_URL);
+        readReplicas.checkLag();
+        // The replica stops replicating, its heartbeat getting older than the maximum lag
+        new JdbcTemplate(createH2DataSource(REPLICA1_URL)).update("update replication_heartbeat set heartbeat = heartbeat - 60000");
+        readReplicas.checkLag();
+
+        assertThat(readReplicas.getLags().get("replica1")).isGreaterThanOrEqualTo(60000L);
+        assertThat(getReadOnlyUrl(dataSource)).contains("routingprimary");
+    }
+
+    @Test
+    void testReadWriteTransactionsGoToPrimary() throws SQLException {
+        DataSource dataSource = createRoutingDataSource("round-robin");
+
+        readReplicas.checkLag();
+        replicate(REPLICA1_URL);
+        readReplicas.checkLag();
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains("routingprimary");
+        }
+    }
+
+    @Test
+    void testUnsupportedSelectionIsRejected() {
+        applicationProperties.getReadReplicas().setSelection("random");
+
+        assertThatThrownBy(() -> new ReadReplicas(applicationProperties, meterRegistry)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DataSource createRoutingDataSource(String selection) {
+        applicationProperties.getReadReplicas().setSelection(selection);
+        readReplicas = new ReadReplicas(applicationProperties, meterRegistry);
+        return readReplicas.route(primary);
+    }
+
+    private String getReadOnlyUrl(DataSource dataSource) throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    /**
+     * Copy the heartbeats of the primary to a replica, as the replication would.
+     */
+    private void replicate(String replicaUrl) {
+        JdbcTemplate replica = new JdbcTemplate(createH2DataSource(replicaUrl));
+        replica.update("delete from replication_heartbeat");
+        new JdbcTemplate(primary)
+            .queryForList("select node_id, heartbeat from replication_heartbeat")
+            .forEach(row ->
+                replica.update(
+                    "insert into replication_heartbeat (node_id, heartbeat) values (?, ?)",
+                    row.get("NODE_ID"),
+                    row.get("HEARTBEAT")
+                )
+            );
+    }
+
+    private ApplicationProperties.ReadReplicas.Target createTarget(String name, String url) {
+        ApplicationProperties.ReadReplicas.Target target = new ApplicationProperties.ReadReplicas.Target();
+        target.setName(name);
+        target.setUrl(url);
+        return target;
+    }
+
+    private DataSource createH2DataSource(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return dataSource;
+    }
+}
@@ -0,0 +1,38 @@
+package es.curso.jhipster.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+/**
+ * Assertions on the number of SQL statements run by a piece of code, to catch N+1 queries in the tests.
+ * <p>
+ * The statements are counted on the current thread, which is the thread serving the requests of a {@code MockMvc}.
+ */
+public final class SqlBudget {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private SqlBudget() {}
+
+    /**
+     * Run the action, and fail with the statements it ran if they are more than the budget.
+     *
+     * @param maxStatements the budget of the action.
+     * @param action the action, typically a request.
+     * @throws Exception if the action failed.
+     */
+    public static void assertStatementsAtMost(int maxStatements, Action action) throws Exception {
+        SqlRequestStatistics statistics = SqlRequestStatistics.current();
+        List<String> statements = statistics.startCapture();
+        try {
+            action.run();
+        } finally {
+            statistics.stopCapture();
+        }
+        assertThat(statements).as("SQL statements, at most %d expected", maxStatements).hasSizeLessThanOrEqualTo(maxStatements);
+    }
+}
@@ -0,0 +1,32 @@
+package es.curso.jhipster.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlShapeTest {
+
+    @Test
+    void testLiteralsAreReplaced() {
+        assertThat(SqlShape.normalize("select * from jhi_user where login = 'it''s' and id = 42 and score > 1.5e3"))
+            .isEqualTo("select * from jhi_user where login = ? and id = ? and score > ?");
+    }
+
+    @Test
+    void testIdentifiersAreKept() {
+        assertThat(SqlShape.normalize("select user0_.id as id1_5_ from jhi_user user0_ where \"col 1\" = ?"))
+            .isEqualTo("select user0_.id as id1_5_ from jhi_user user0_ where \"col 1\" = ?");
+    }
+
+    @Test
+    void testParameterListsAreCollapsed() {
+        assertThat(SqlShape.normalize("select * from experiencia where id in (?, ?, ?)"))
+            .isEqualTo(SqlShape.normalize("select * from experiencia where id in (1,2)"))
+            .isEqualTo("select * from experiencia where id in (?)");
+    }
+
+    @Test
+    void testWhitespaceIsCollapsed() {
+        assertThat(SqlShape.normalize("  select *\n\tfrom   experiencia  ")).isEqualTo("select * from experiencia");
+    }
+}
@@ -0,0 +1,157 @@
+package es.curso.jhipster.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatisticsDataSourceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SqlStatistics statistics;
+
+    private StatisticsDataSource dataSource;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSql().setRepeatedQueryThreshold(3);
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new SqlStatistics(applicationProperties, meterRegistry);
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:statistics;DB_CLOSE_DELAY=-1");
+        dataSource = new StatisticsDataSource(h2DataSource, statistics);
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table item (id bigint primary key, name varchar(50))");
+            statement.executeUpdate("insert into item values (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+    }
+
+    @AfterEach
+    void teardown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table item");
+        }
+        connection.close();
+    }
+
+    @Test
+    void testStatementsAndRowsAreRecordedByShape() throws SQLException {
+        SqlRequestStatistics request = SqlRequestStatistics.current();
+        long statementsBefore = request.getStatements();
+        long rowsBefore = request.getRows();
+
+        for (long id = 1; id <= 2; id++) {
+            try (PreparedStatement statement = connection.prepareStatement("select * from item where id > ?")) {
+                statement.setLong(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    assertThat(resultSet.getStatement()).isSameAs(statement);
+                    while (resultSet.next()) {
+                        assertThat(resultSet.getString("name")).isNotNull();
+                    }
+                }
+            }
+        }
+
+        assertThat(request.getStatements() - statementsBefore).isEqualTo(2);
+        assertThat(request.getRows() - rowsBefore).isEqualTo(3);
+        List<SqlShapeStatistics> top = statistics.getTop(10);
+        assertThat(top).extracting(SqlShapeStatistics::getSql).contains("select * from item where id > ?");
+        SqlShapeStatistics select = top
+            .stream()
+            .filter(shape -> shape.getSql().equals("select * from item where id > ?"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(select.getExecutions()).isEqualTo(2);
+        assertThat(select.getRows()).isEqualTo(3);
+        assertThat(select.getMaxMillis()).isLessThanOrEqualTo(select.getTotalMillis());
+        SqlShapeStatistics insert = top
+            .stream()
+            .filter(shape -> shape.getSql().startsWith("insert"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(insert.getSql()).isEqualTo("insert into item values (?), (?), (?)");
+        assertThat(insert.getRows()).isEqualTo(3);
+
+        statistics.reset();
+
+        assertThat(statistics.getTop(10)).isEmpty();
+    }
+
+    @Test
+    void testShapesBeyondMaximumAreCountedTogether() throws SQLException {
+        applicationProperties.getSql().setMaxShapes(1);
+        statistics = new SqlStatistics(applicationProperties, meterRegistry);
+        dataSource = new StatisticsDataSource(dataSource.getTargetDataSource(), statistics);
+
+        try (Connection otherConnection = dataSource.getConnection(); Statement statement = otherConnection.createStatement()) {
+            statement.executeQuery("select count(*) from item").close();
+            statement.executeQuery("select max(id) from item").close();
+            statement.executeQuery("select min(id) from item").close();
+        }
+
+        assertThat(statistics.getTop(10))
+            .extracting(SqlShapeStatistics::getSql, SqlShapeStatistics::getExecutions)
+            .containsExactlyInAnyOrder(tuple("select count(*) from item", 1L), tuple(SqlStatistics.OTHER_SHAPE, 2L));
+    }
+
+    @Test
+    void testRepeatedQueriesAreDetectedWithinRequest() throws SQLException {
+        SqlRequestStatistics request = SqlRequestStatistics.current();
+
+        runQueries(3);
+
+        assertThat(meterRegistry.counter("sql.queries.repeated").count()).isZero();
+
+        request.beginRequest();
+        try {
+            runQueries(4);
+        } finally {
+            request.endRequest();
+        }
+
+        assertThat(meterRegistry.counter("sql.queries.repeated").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testStatementsAreCaptured() throws SQLException {
+        SqlRequestStatistics request = SqlRequestStatistics.current();
+        List<String> captured = request.startCapture();
+        try {
+            runQueries(2);
+        } finally {
+            request.stopCapture();
+        }
+        runQueries(1);
+
+        assertThat(captured).containsExactly("select name from item where id = ?", "select name from item where id = ?");
+    }
+
+    private void runQueries(int count) throws SQLException {
+        for (int id = 1; id <= count; id++) {
+            try (PreparedStatement statement = connection.prepareStatement("select name from item where id = ?")) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                }
+            }
+        }
+    }
+}
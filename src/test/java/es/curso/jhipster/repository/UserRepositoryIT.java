@@ -0,0 +1,131 @@
+package es.curso.jhipster.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.domain.User;
+import java.util.Optional;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the caching of the account lookups of {@link UserRepository}, with the query cache enabled.
+ * <p>
+ * Each lookup runs in its own transaction, as the second level cache is only read once an entity is not in the
+ * persistence context.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+    }
+)
+class UserRepositoryIT {
+
+    private static final String LOGIN = "cachedaccount";
+
+    private static final String EMAIL = "cachedaccount@localhost";
+
+    private static final String UPDATED_LOGIN = "updatedaccount";
+
+    private static final String UPDATED_EMAIL = "updatedaccount@localhost";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private Long userId;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId =
+            transactionTemplate.execute(status -> {
+                User user = new User();
+                user.setLogin(LOGIN);
+                user.setPassword(RandomStringUtils.random(60));
+                user.setEmail(EMAIL);
+                user.setActivated(true);
+                return userRepository.saveAndFlush(user).getId();
+            });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteById(userId));
+    }
+
+    @Test
+    void repeatedLookupByLoginIsResolvedFromNaturalIdCache() {
+        assertThat(findOneByLogin(LOGIN)).isPresent();
+        long naturalIdCacheHits = statistics.getNaturalIdCacheHitCount();
+        long naturalIdQueries = statistics.getNaturalIdQueryExecutionCount();
+
+        assertThat(findOneByLogin(LOGIN)).map(User::getId).contains(userId);
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(naturalIdCacheHits + 1);
+        assertThat(statistics.getNaturalIdQueryExecutionCount()).isEqualTo(naturalIdQueries);
+    }
+
+    @Test
+    void repeatedLookupByEmailIsResolvedFromQueryCache() {
+        assertThat(findOneByEmailIgnoreCase(EMAIL)).isPresent();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+        long queries = statistics.getQueryExecutionCount();
+
+        assertThat(findOneByEmailIgnoreCase(EMAIL.toUpperCase())).isPresent();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits);
+
+        assertThat(findOneByEmailIgnoreCase(EMAIL)).map(User::getId).contains(userId);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits + 1);
+        // Only the lookup with another parameter ran a query
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(queries + 1);
+    }
+
+    @Test
+    void loginAndEmailUpdateDropsCachedLookups() {
+        assertThat(findOneByLogin(LOGIN)).isPresent();
+        assertThat(findOneByEmailIgnoreCase(EMAIL)).isPresent();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId).orElseThrow();
+            user.setLogin(UPDATED_LOGIN);
+            user.setEmail(UPDATED_EMAIL);
+        });
+
+        assertThat(findOneByLogin(LOGIN)).isEmpty();
+        assertThat(findOneByLogin(UPDATED_LOGIN)).map(User::getId).contains(userId);
+        assertThat(findOneByEmailIgnoreCase(EMAIL)).isEmpty();
+        assertThat(findOneByEmailIgnoreCase(UPDATED_EMAIL)).map(User::getId).contains(userId);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits);
+    }
+
+    private Optional<User> findOneByLogin(String login) {
+        return transactionTemplate.execute(status -> userRepository.findOneByLogin(login));
+    }
+
+    private Optional<User> findOneByEmailIgnoreCase(String email) {
+        return transactionTemplate.execute(status -> userRepository.findOneByEmailIgnoreCase(email));
+    }
+}
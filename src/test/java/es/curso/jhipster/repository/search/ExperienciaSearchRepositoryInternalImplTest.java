@@ -0,0 +1,42 @@
+package es.curso.jhipster.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Test class for the search requests built by {@link ExperienciaSearchRepositoryInternalImpl}.
+ */
+class ExperienciaSearchRepositoryInternalImplTest {
+
+    @Test
+    void testSearchAfterSortedByFechaSendsEpochMillisAsNumber() {
+        // The sort value of a fecha, as returned by Elasticsearch, then carried by a cursor
+        List<Object> searchAfter = SearchAfterValues.decode(SearchAfterValues.encode(List.of(1633046400000L, 7L)));
+
+        SearchSourceBuilder source = ExperienciaSearchRepositoryInternalImpl.searchAfterSource(
+            "*",
+            searchAfter,
+            PageRequest.of(0, 20, Sort.by("fecha"))
+        );
+
+        assertThat(source.searchAfter()).containsExactly(1633046400000L, 7L);
+        String json = Strings.toString(source);
+        assertThat(json).contains("\"search_after\":[1633046400000,7]");
+        assertThat(json).contains("{\"fecha\":{\"order\":\"asc\"}}", "{\"id\":{\"order\":\"asc\"}}");
+    }
+
+    @Test
+    void testSearchAfterUnsortedSortsByScoreThenId() {
+        SearchSourceBuilder source = ExperienciaSearchRepositoryInternalImpl.searchAfterSource("*", List.of(), PageRequest.of(0, 20));
+
+        assertThat(source.searchAfter()).isNull();
+        assertThat(source.size()).isEqualTo(21);
+        assertThat(source.sorts()).hasSize(2);
+    }
+}
@@ -0,0 +1,37 @@
+package es.curso.jhipster.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SearchAfterValues} utility class.
+ */
+class SearchAfterValuesTest {
+
+    @Test
+    void testRoundTripKeepsTypes() {
+        List<Object> values = Arrays.asList(1.5f, 1633046400000L, "a\u001fb", null, 42);
+
+        List<Object> decoded = SearchAfterValues.decode(SearchAfterValues.encode(values));
+
+        assertThat(decoded).containsExactly(1.5d, 1633046400000L, "a\u001fb", null, 42L);
+        assertThat(decoded.get(1)).isInstanceOf(Long.class);
+    }
+
+    @Test
+    void testDecodeInvalidValues() {
+        assertThatThrownBy(() -> SearchAfterValues.decode(List.of(""))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SearchAfterValues.decode(List.of("1633046400000"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SearchAfterValues.decode(List.of("lnot-a-number"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SearchAfterValues.decode(List.of("nx"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testEncodeUnsupportedValue() {
+        assertThatThrownBy(() -> SearchAfterValues.encode(List.of(new Object()))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
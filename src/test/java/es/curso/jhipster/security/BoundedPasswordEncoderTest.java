@@ -0,0 +1,125 @@
+package es.curso.jhipster.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Security.Password properties = new ApplicationProperties.Security.Password();
+        properties.setHashingThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    void testHashingIsDelegated() {
+        release.countDown();
+
+        assertThat(passwordEncoder.encode("password")).isEqualTo("hash:password");
+        assertThat(passwordEncoder.matches("password", "hash:password")).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding("hash:password")).isTrue();
+    }
+
+    @Test
+    void testHashingIsRejectedWhenSaturated() throws Exception {
+        // One hash running, one queued
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("running"));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        waitForQueued();
+
+        assertThatThrownBy(() -> passwordEncoder.encode("rejected"))
+            .isInstanceOf(PasswordHashingRejectedException.class)
+            .extracting(e -> ((PasswordHashingRejectedException) e).getRetryAfterSeconds())
+            .isEqualTo(3L);
+        assertThat(meterRegistry.get("security.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("hash:running");
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("hash:queued");
+    }
+
+    @Test
+    void testHashUpgradeIsDelegatedToBCrypt() {
+        release.countDown();
+        ApplicationProperties.Security.Password properties = new ApplicationProperties.Security.Password();
+        BoundedPasswordEncoder bcryptPasswordEncoder = new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(6),
+            properties,
+            new SimpleMeterRegistry()
+        );
+        try {
+            String weakHash = new BCryptPasswordEncoder(4).encode("password");
+
+            assertThat(bcryptPasswordEncoder.matches("password", weakHash)).isTrue();
+            assertThat(bcryptPasswordEncoder.upgradeEncoding(weakHash)).isTrue();
+            assertThat(bcryptPasswordEncoder.upgradeEncoding(bcryptPasswordEncoder.encode("password"))).isFalse();
+        } finally {
+            bcryptPasswordEncoder.destroy();
+        }
+    }
+
+    private void waitForQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("executor.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Encoder whose hashing waits for the test to release it.
+     */
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+}
@@ -6,11 +6,13 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import es.curso.jhipster.IntegrationTest;
 import es.curso.jhipster.domain.User;
 import es.curso.jhipster.repository.UserRepository;
+import es.curso.jhipster.service.UserService;
 import java.util.Locale;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,8 +37,16 @@ class DomainUserDetailsServiceIT {
     @Autowired
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     public void init() {
+        cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).clear();
+
         User userOne = new User();
         userOne.setLogin(USER_ONE_LOGIN);
         userOne.setPassword(RandomStringUtils.random(60));
@@ -108,4 +118,30 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatUserDetailsAreCachedUntilUserChanges() {
+        String cachedPassword = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN).getPassword();
+        domainUserDetailsService.loadUserByUsername(USER_ONE_EMAIL);
+        String changedPassword = RandomStringUtils.random(60);
+        userRepository.findOneByLogin(USER_ONE_LOGIN).orElseThrow().setPassword(changedPassword);
+
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN).getPassword()).isEqualTo(cachedPassword);
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_EMAIL).getPassword()).isEqualTo(cachedPassword);
+
+        userService.requestPasswordReset(USER_ONE_EMAIL);
+
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN).getPassword()).isEqualTo(changedPassword);
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_EMAIL.toUpperCase(Locale.ENGLISH)).getPassword())
+            .isEqualTo(changedPassword);
+    }
+
+    @Test
+    void assertThatCachedUserDetailsKeepTheirPasswordOnceErased() {
+        UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        String password = userDetails.getPassword();
+        ((org.springframework.security.core.CredentialsContainer) userDetails).eraseCredentials();
+
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN).getPassword()).isEqualTo(password);
+    }
 }
@@ -0,0 +1,61 @@
+package es.curso.jhipster.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void testPutValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String value = UUID.randomUUID().toString();
+            values.add(value);
+            filter.put(value);
+        }
+
+        assertThat(values).allMatch(filter::mightContain);
+        assertThat(filter.getInsertions()).isEqualTo(1000);
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    void testFalsePositiveProbabilityIsBounded() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Expected around 1000, with a wide margin so that the test is not flaky
+        assertThat(falsePositives).isLessThan(2000);
+    }
+
+    @Test
+    void testSaturation() {
+        BloomFilter filter = new BloomFilter(1, 0.01);
+        filter.put("first");
+        assertThat(filter.isSaturated()).isFalse();
+
+        filter.put("second");
+        assertThat(filter.isSaturated()).isTrue();
+    }
+
+    @Test
+    void testInvalidSizingIsRejected() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(1000, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package es.curso.jhipster.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.security.AuthoritiesConstants;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+class JWTAuthenticationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2021-10-18T12:00:00Z");
+
+    private static final Collection<GrantedAuthority> AUTHORITIES = Collections.singletonList(
+        new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+    );
+
+    private static final User PRINCIPAL = new User("test-user", "", AUTHORITIES);
+
+    private Instant now;
+
+    private JWTAuthenticationCache cache;
+
+    @BeforeEach
+    public void setup() {
+        now = NOW;
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        cache = new JWTAuthenticationCache(2, clock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void testGetReturnsCachedAuthenticationUntilExpiration() {
+        cache.put("token", "token-id", null, PRINCIPAL, AUTHORITIES, NOW.plus(Duration.ofMinutes(1)));
+
+        assertThat(cache.get("token").getTokenId()).isEqualTo("token-id");
+        assertThat(cache.get("token").toAuthentication("token").getName()).isEqualTo("test-user");
+        assertThat(cache.get("other-token")).isNull();
+
+        now = NOW.plus(Duration.ofMinutes(1));
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testPutIgnoresExpiredTokens() {
+        cache.put("token", "token-id", null, PRINCIPAL, AUTHORITIES, NOW);
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testPutEvictsAnEntryWhenFull() {
+        cache.put("first-token", null, null, PRINCIPAL, AUTHORITIES, NOW.plus(Duration.ofMinutes(1)));
+        now = NOW.plusMillis(1);
+        cache.put("second-token", null, null, PRINCIPAL, AUTHORITIES, NOW.plus(Duration.ofMinutes(1)));
+
+        now = NOW.plusMillis(2);
+        cache.put("new-token", null, null, PRINCIPAL, AUTHORITIES, NOW.plus(Duration.ofMinutes(1)));
+
+        assertThat(cache.get("new-token")).isNotNull();
+        assertThat(cache.get("second-token")).isNotNull();
+        assertThat(cache.get("first-token")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testPutKeepsCachingWhenFullOfUnexpiredTokens() {
+        for (int i = 0; i < 100; i++) {
+            // The least recently used entry is evicted, each token being put one millisecond after the previous one
+            now = now.plusMillis(1);
+            cache.put("token-" + i, null, null, PRINCIPAL, AUTHORITIES, NOW.plus(Duration.ofMinutes(1)));
+            assertThat(cache.get("token-" + i)).isNotNull();
+        }
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testClearEmptiesCache() {
+        cache.put("token", "token-id", null, PRINCIPAL, AUTHORITIES, NOW.plus(Duration.ofMinutes(1)));
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.clear();
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
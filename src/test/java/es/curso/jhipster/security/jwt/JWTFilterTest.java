@@ -1,10 +1,13 @@
 package es.curso.jhipster.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import es.curso.jhipster.config.ApplicationProperties;
 import es.curso.jhipster.security.AuthoritiesConstants;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +23,10 @@ import tech.jhipster.config.JHipsterProperties;
 
 class JWTFilterTest {
 
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+
     private TokenProvider tokenProvider;
 
     private JWTFilter jwtFilter;
@@ -29,7 +36,13 @@ class JWTFilterTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new JWTKeyRing(applicationProperties),
+            tokenRevocationService,
+            new SimpleMeterRegistry()
+        );
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
@@ -0,0 +1,125 @@
+package es.curso.jhipster.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JWTKeyRingTest {
+
+    @TempDir
+    Path keyDirectory;
+
+    @Test
+    void testHS512RingHasNoKey() {
+        JWTKeyRing keyRing = new JWTKeyRing(new ApplicationProperties());
+
+        assertThat(keyRing.isAsymmetric()).isFalse();
+        assertThat(keyRing.getSigningKey()).isNull();
+        assertThat(keyRing.getJsonWebKeys()).isEmpty();
+    }
+
+    @Test
+    void testUnsupportedAlgorithmIsRejected() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm("RS256");
+
+        assertThatThrownBy(() -> new JWTKeyRing(applicationProperties)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testKeysAreReloadedFromKeyDirectory() throws IOException {
+        KeyPair firstKeyPair = writeKeyPair("2021-01-01");
+        JWTKeyRing keyRing = new JWTKeyRing(createProperties());
+
+        assertThat(keyRing.getSigningKey().getId()).isEqualTo("2021-01-01");
+
+        writeKeyPair("2021-02-01");
+        keyRing.reload();
+
+        assertThat(keyRing.getSigningKey().getId()).isEqualTo("2021-02-01");
+        assertThat(keyRing.getVerificationKey("2021-01-01")).isEqualTo(firstKeyPair.getPublic());
+        assertThat(keyRing.getJsonWebKeys()).extracting(jsonWebKey -> jsonWebKey.get("kid")).containsExactly("2021-01-01", "2021-02-01");
+
+        Files.delete(keyDirectory.resolve("2021-01-01.key"));
+        Files.delete(keyDirectory.resolve("2021-01-01.pub"));
+        keyRing.reload();
+
+        assertThat(keyRing.getVerificationKey("2021-01-01")).isNull();
+        assertThat(keyRing.getJsonWebKeys()).extracting(jsonWebKey -> jsonWebKey.get("kid")).containsExactly("2021-02-01");
+    }
+
+    @Test
+    void testKeysAreKeptWhenKeyDirectoryHasNoKeyPair() throws IOException {
+        writeKeyPair("2021-01-01");
+        JWTKeyRing keyRing = new JWTKeyRing(createProperties());
+
+        Files.delete(keyDirectory.resolve("2021-01-01.key"));
+        keyRing.reload();
+
+        assertThat(keyRing.getSigningKey().getId()).isEqualTo("2021-01-01");
+    }
+
+    @Test
+    void testEmptyKeyDirectoryIsRejected() {
+        ApplicationProperties applicationProperties = createProperties();
+
+        assertThatThrownBy(() -> new JWTKeyRing(applicationProperties)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testJsonWebKeysArePublished() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm("ES256");
+        JWTKeyRing keyRing = new JWTKeyRing(applicationProperties);
+
+        assertThat(keyRing.getJsonWebKeys()).hasSize(1);
+        Map<String, String> jsonWebKey = keyRing.getJsonWebKeys().get(0);
+        assertThat(jsonWebKey)
+            .containsEntry("kty", "EC")
+            .containsEntry("crv", "P-256")
+            .containsEntry("alg", "ES256")
+            .containsEntry("kid", keyRing.getSigningKey().getId());
+        assertThat(Base64.getUrlDecoder().decode(jsonWebKey.get("x"))).hasSize(32);
+        assertThat(Base64.getUrlDecoder().decode(jsonWebKey.get("y"))).hasSize(32);
+
+        assertThatThrownBy(() -> keyRing.retire(keyRing.getSigningKey().getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ApplicationProperties createProperties() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm("ES256");
+        applicationProperties.getSecurity().getJwt().setKeyDirectory(keyDirectory.toString());
+        return applicationProperties;
+    }
+
+    private KeyPair writeKeyPair(String keyId) throws IOException {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        writePem(keyDirectory.resolve(keyId + ".key"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        writePem(keyDirectory.resolve(keyId + ".pub"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+        return keyPair;
+    }
+
+    private void writePem(Path file, String type, byte[] encoded) throws IOException {
+        String pem =
+            "-----BEGIN " +
+            type +
+            "-----\n" +
+            Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(encoded) +
+            "\n-----END " +
+            type +
+            "-----\n";
+        Files.writeString(file, pem, StandardCharsets.US_ASCII);
+    }
+}
@@ -1,12 +1,21 @@
 package es.curso.jhipster.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import es.curso.jhipster.config.ApplicationProperties;
 import es.curso.jhipster.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
@@ -23,7 +32,10 @@ class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
     private Key key;
+    private SimpleMeterRegistry meterRegistry;
     private TokenProvider tokenProvider;
 
     @BeforeEach
@@ -31,7 +43,14 @@ class TokenProviderTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new JWTKeyRing(applicationProperties),
+            tokenRevocationService,
+            meterRegistry
+        );
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -89,7 +108,13 @@ class TokenProviderTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret(secret);
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new JWTKeyRing(applicationProperties),
+            tokenRevocationService,
+            new SimpleMeterRegistry()
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -101,12 +126,131 @@ class TokenProviderTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new JWTKeyRing(applicationProperties),
+            tokenRevocationService,
+            new SimpleMeterRegistry()
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testResolveAuthenticationCachesValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> first = tokenProvider.resolveAuthentication(token);
+        Optional<Authentication> second = tokenProvider.resolveAuthentication(token);
+
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+        assertThat(second.get().getName()).isEqualTo("anonymous");
+        assertThat(second.get().getCredentials()).hasToString(token);
+        assertThat(second.get().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(second.get()).isNotSameAs(first.get());
+        assertThat(meterRegistry.get("security.jwt.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.jwt.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testResolveAuthenticationRejectsInvalidToken() {
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication("")).isEmpty();
+    }
+
+    @Test
+    void testResolveAuthenticationRejectsRevokedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.resolveAuthentication(token)).isPresent();
+
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(true);
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    @Test
+    void testRevokeTokenRevokesItsId() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String jti = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getId();
+
+        assertThat(jti).isNotNull();
+        assertThat(tokenProvider.revokeToken(token)).isTrue();
+        verify(tokenRevocationService).revoke(eq(jti), eq("anonymous"), any());
+        assertThat(tokenProvider.revokeToken(createTokenWithDifferentSignature())).isFalse();
+    }
+
+    @Test
+    void testES256TokenIsVerifiedUntilItsKeyIsRetired() {
+        JWTKeyRing keyRing = new JWTKeyRing(createES256Properties(false));
+        TokenProvider es256TokenProvider = createES256TokenProvider(keyRing, false);
+        String firstKeyId = keyRing.getSigningKey().getId();
+        String firstToken = es256TokenProvider.createToken(createAuthentication(), false);
+
+        keyRing.rotate("second", Keys.keyPairFor(SignatureAlgorithm.ES256));
+        String secondToken = es256TokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(getHeader(firstToken)).contains("\"kid\":\"" + firstKeyId + "\"").contains("ES256");
+        assertThat(getHeader(secondToken)).contains("\"kid\":\"second\"");
+        assertThat(es256TokenProvider.validateToken(firstToken)).isTrue();
+        assertThat(es256TokenProvider.validateToken(secondToken)).isTrue();
+
+        keyRing.retire(firstKeyId);
+
+        assertThat(es256TokenProvider.validateToken(firstToken)).isFalse();
+        assertThat(es256TokenProvider.validateToken(secondToken)).isTrue();
+    }
+
+    @Test
+    void testCachedES256TokenIsRejectedOnceItsKeyIsRetired() {
+        JWTKeyRing keyRing = new JWTKeyRing(createES256Properties(false));
+        TokenProvider es256TokenProvider = createES256TokenProvider(keyRing, false);
+        String firstKeyId = keyRing.getSigningKey().getId();
+        String token = es256TokenProvider.createToken(createAuthentication(), false);
+        assertThat(es256TokenProvider.resolveAuthentication(token)).isPresent();
+
+        keyRing.rotate("second", Keys.keyPairFor(SignatureAlgorithm.ES256));
+        keyRing.retire(firstKeyId);
+
+        assertThat(es256TokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    @Test
+    void testES256TokenProviderAcceptsHS512TokensOnlyIfConfigured() {
+        String hs512Token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(createES256TokenProvider(new JWTKeyRing(createES256Properties(false)), false).validateToken(hs512Token)).isFalse();
+        assertThat(createES256TokenProvider(new JWTKeyRing(createES256Properties(true)), true).validateToken(hs512Token)).isTrue();
+    }
+
+    private ApplicationProperties createES256Properties(boolean acceptHmacTokens) {
+        ApplicationProperties es256Properties = new ApplicationProperties();
+        es256Properties.getSecurity().getJwt().setAlgorithm("ES256");
+        es256Properties.getSecurity().getJwt().setAcceptHmacTokens(acceptHmacTokens);
+        return es256Properties;
+    }
+
+    private TokenProvider createES256TokenProvider(JWTKeyRing keyRing, boolean acceptHmacTokens) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(Encoders.BASE64.encode(key.getEncoded()));
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(60);
+        return new TokenProvider(
+            jHipsterProperties,
+            createES256Properties(acceptHmacTokens),
+            keyRing,
+            tokenRevocationService,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    private String getHeader(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,97 @@
+package es.curso.jhipster.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.domain.RevokedToken;
+import es.curso.jhipster.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TokenRevocationService}.
+ */
+@IntegrationTest
+@Transactional
+class TokenRevocationServiceIT {
+
+    private static final Instant PAST = Instant.now().minus(1, ChronoUnit.HOURS);
+
+    private static final Instant FUTURE = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        revokedTokenRepository.deleteAllInBatch();
+        tokenRevocationService.rebuild();
+    }
+
+    @Test
+    void revokedTokenIsRevoked() {
+        String jti = UUID.randomUUID().toString();
+
+        tokenRevocationService.revoke(jti, "user", FUTURE);
+
+        assertThat(tokenRevocationService.isRevoked(jti)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(UUID.randomUUID().toString())).isFalse();
+        assertThat(tokenRevocationService.isRevoked(null)).isFalse();
+        assertThat(revokedTokenRepository.findById(jti)).hasValueSatisfying(revokedToken -> {
+            assertThat(revokedToken.getLogin()).isEqualTo("user");
+            assertThat(revokedToken.getExpirationDate()).isEqualTo(FUTURE);
+        });
+    }
+
+    @Test
+    void revocationByAnotherInstanceIsRefreshed() {
+        String jti = UUID.randomUUID().toString();
+        revokedTokenRepository.saveAndFlush(new RevokedToken().jti(jti).expirationDate(FUTURE).revokedDate(Instant.now()));
+
+        // Not in the filter of this instance yet, so the database is not looked up
+        assertThat(tokenRevocationService.isRevoked(jti)).isFalse();
+
+        tokenRevocationService.refresh();
+
+        assertThat(tokenRevocationService.isRevoked(jti)).isTrue();
+    }
+
+    @Test
+    void refreshCountsEachRevocationOnce() {
+        Gauge filterSize = meterRegistry.get("security.jwt.revocation.filter.size").gauge();
+        String jti = UUID.randomUUID().toString();
+
+        tokenRevocationService.revoke(jti, "user", FUTURE);
+        // The revocation is within the refresh overlap of each refresh
+        tokenRevocationService.refresh();
+        tokenRevocationService.refresh();
+
+        assertThat(filterSize.value()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildPurgesExpiredRevocations() {
+        String expiredJti = UUID.randomUUID().toString();
+        String unexpiredJti = UUID.randomUUID().toString();
+        revokedTokenRepository.saveAndFlush(new RevokedToken().jti(expiredJti).expirationDate(PAST).revokedDate(PAST));
+        revokedTokenRepository.saveAndFlush(new RevokedToken().jti(unexpiredJti).expirationDate(FUTURE).revokedDate(PAST));
+
+        tokenRevocationService.rebuild();
+
+        assertThat(revokedTokenRepository.existsById(expiredJti)).isFalse();
+        assertThat(tokenRevocationService.isRevoked(unexpiredJti)).isTrue();
+    }
+}
@@ -0,0 +1,105 @@
+package es.curso.jhipster.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final Instant NOW = Instant.parse("2021-10-18T12:00:00Z");
+
+    // 3 requests per minute
+    private static final long EMISSION_INTERVAL = 20000;
+
+    private static final long BURST_TOLERANCE = 40000;
+
+    private Instant now;
+
+    private Clock clock;
+
+    @BeforeEach
+    public void setup() {
+        now = NOW;
+        clock =
+            new Clock() {
+                @Override
+                public ZoneOffset getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(java.time.ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now;
+                }
+            };
+    }
+
+    @Test
+    void testBurstIsAllowedThenRejectedUntilRefill() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, clock);
+
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isZero();
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isZero();
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isZero();
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isEqualTo(EMISSION_INTERVAL);
+        assertThat(store.tryConsume("other-key", EMISSION_INTERVAL, BURST_TOLERANCE)).isZero();
+
+        now = NOW.plus(Duration.ofSeconds(15));
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isEqualTo(5000);
+
+        now = NOW.plus(Duration.ofSeconds(20));
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isZero();
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE)).isEqualTo(EMISSION_INTERVAL);
+    }
+
+    @Test
+    void testRejectedRequestsAreNotCounted() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, clock);
+
+        for (int i = 0; i < 100; i++) {
+            store.tryConsume("key", EMISSION_INTERVAL, 0);
+        }
+
+        now = NOW.plus(Duration.ofMillis(EMISSION_INTERVAL));
+        assertThat(store.tryConsume("key", EMISSION_INTERVAL, 0)).isZero();
+    }
+
+    @Test
+    void testPurgeExpiredForgetsRefilledKeys() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, clock);
+        store.tryConsume("key", EMISSION_INTERVAL, BURST_TOLERANCE);
+        store.tryConsume("other-key", EMISSION_INTERVAL, BURST_TOLERANCE);
+        store.tryConsume("other-key", EMISSION_INTERVAL, BURST_TOLERANCE);
+
+        now = NOW.plus(Duration.ofMillis(EMISSION_INTERVAL));
+        store.purgeExpired();
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testStoreIsBounded() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(2, clock);
+        store.tryConsume("first-key", EMISSION_INTERVAL, BURST_TOLERANCE);
+        store.tryConsume("second-key", EMISSION_INTERVAL, BURST_TOLERANCE);
+        store.tryConsume("third-key", EMISSION_INTERVAL, BURST_TOLERANCE);
+
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidMaxKeysIsRejected() {
+        assertThatThrownBy(() -> new InMemoryRateLimitStore(0, clock)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
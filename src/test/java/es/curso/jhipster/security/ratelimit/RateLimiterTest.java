@@ -0,0 +1,106 @@
+package es.curso.jhipster.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+class RateLimiterTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private StaticListableBeanFactory beanFactory;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        beanFactory = new StaticListableBeanFactory();
+    }
+
+    @Test
+    void testAuthenticateIsLimitedByLoginAcrossAddresses() {
+        RateLimiter rateLimiter = createRateLimiter();
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.checkAuthenticate("10.0.0." + i, "User");
+        }
+
+        assertThatThrownBy(() -> rateLimiter.checkAuthenticate("10.0.0.6", "user"))
+            .isInstanceOf(RateLimitExceededException.class)
+            .satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfterSeconds()).isEqualTo(12));
+        rateLimiter.checkAuthenticate("10.0.0.6", "other-user");
+        assertThat(meterRegistry.get("security.rate.limit").tag("action", "authenticate").tag("result", "allowed").counter().count())
+            .isEqualTo(6);
+        assertThat(meterRegistry.get("security.rate.limit").tag("action", "authenticate").tag("result", "rejected").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testPasswordResetIsLimitedByAddress() {
+        applicationProperties.getSecurity().getRateLimit().getPasswordResetIp().setCapacity(2);
+        RateLimiter rateLimiter = createRateLimiter();
+
+        rateLimiter.checkPasswordReset("10.0.0.1", "first@example.com");
+        rateLimiter.checkPasswordReset("10.0.0.1", "second@example.com");
+
+        assertThatThrownBy(() -> rateLimiter.checkPasswordReset("10.0.0.1", "third@example.com"))
+            .isInstanceOf(RateLimitExceededException.class);
+        rateLimiter.checkPasswordReset("10.0.0.2", "third@example.com");
+    }
+
+    @Test
+    void testDisabledRateLimiterAllowsEverything() {
+        applicationProperties.getSecurity().getRateLimit().setEnabled(false);
+        RateLimiter rateLimiter = createRateLimiter();
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.checkRegister("10.0.0.1");
+        }
+    }
+
+    @Test
+    void testSharedStoreIsUsed() {
+        // Stands for a store shared by several instances, such as Redis
+        InMemoryRateLimitStore sharedStore = new InMemoryRateLimitStore(100, Clock.systemUTC());
+        beanFactory.addBean("rateLimitStore", sharedStore);
+        applicationProperties.getSecurity().getRateLimit().getRegisterIp().setPeriod(Duration.ofDays(1));
+        RateLimiter firstInstance = createRateLimiter();
+        RateLimiter secondInstance = createRateLimiter();
+
+        for (int i = 0; i < 5; i++) {
+            (i % 2 == 0 ? firstInstance : secondInstance).checkRegister("10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> secondInstance.checkRegister("10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+        assertThat(sharedStore.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testRequestsAreAllowedWhenStoreFails() {
+        beanFactory.addBean(
+            "rateLimitStore",
+            (RateLimitStore) (key, emissionIntervalMillis, burstToleranceMillis) -> {
+                throw new IllegalStateException("Store unavailable");
+            }
+        );
+        RateLimiter rateLimiter = createRateLimiter();
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.checkAuthenticate("10.0.0.1", "user");
+        }
+    }
+
+    private RateLimiter createRateLimiter() {
+        return new RateLimiter(applicationProperties, beanFactory.getBeanProvider(RateLimitStore.class), meterRegistry);
+    }
+}
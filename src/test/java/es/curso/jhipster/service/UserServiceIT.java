@@ -9,9 +9,10 @@ import static org.mockito.Mockito.when;
 import es.curso.jhipster.IntegrationTest;
 import es.curso.jhipster.config.Constants;
 import es.curso.jhipster.domain.User;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
 import es.curso.jhipster.repository.UserRepository;
-import es.curso.jhipster.repository.search.UserSearchRepository;
 import es.curso.jhipster.service.dto.AdminUserDTO;
+import es.curso.jhipster.service.search.SearchIndexer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -22,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
@@ -54,13 +56,8 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
-    /**
-     * This repository is mocked in the es.curso.jhipster.repository.search test package.
-     *
-     * @see es.curso.jhipster.repository.search.UserSearchRepositoryMockConfiguration
-     */
-    @Autowired
-    private UserSearchRepository mockUserSearchRepository;
+    @SpyBean
+    private SearchIndexer searchIndexer;
 
     @Autowired
     private AuditingHandler auditingHandler;
@@ -177,8 +174,8 @@ class UserServiceIT {
         users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
         assertThat(users).isEmpty();
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, times(1)).delete(user);
+        // Verify the Elasticsearch synchronization
+        verify(searchIndexer, times(1)).sync(SearchDocumentType.USER, dbUser.getId());
     }
 
     @Test
@@ -197,7 +194,7 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, never()).delete(user);
+        // Verify the Elasticsearch synchronization
+        verify(searchIndexer, never()).sync(SearchDocumentType.USER, dbUser.getId());
     }
 }
@@ -0,0 +1,104 @@
+package es.curso.jhipster.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class CacheInvalidationBusTest {
+
+    private static final String CACHE_NAME = "usersByLogin";
+
+    private final List<List<CacheInvalidation>> publishedBatches = new ArrayList<>();
+
+    private CacheManager cacheManager;
+
+    private CacheManager otherCacheManager;
+
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setup() {
+        InProcessCacheInvalidationTransport transport = new InProcessCacheInvalidationTransport();
+        transport.subscribe((nodeId, invalidations) -> publishedBatches.add(invalidations));
+        cacheManager = new ConcurrentMapCacheManager(CACHE_NAME);
+        otherCacheManager = new ConcurrentMapCacheManager(CACHE_NAME);
+        bus = createBus(cacheManager, transport);
+        createBus(otherCacheManager, transport);
+        cacheManager.getCache(CACHE_NAME).put("admin", "admin");
+        cacheManager.getCache(CACHE_NAME).put("user", "user");
+        otherCacheManager.getCache(CACHE_NAME).put("admin", "admin");
+        otherCacheManager.getCache(CACHE_NAME).put("user", "user");
+    }
+
+    @Test
+    void testEvictionIsPublishedRightAwayOutsideOfTransaction() {
+        bus.evict(CACHE_NAME, "admin");
+
+        assertThat(cacheManager.getCache(CACHE_NAME).get("admin")).isNull();
+        assertThat(otherCacheManager.getCache(CACHE_NAME).get("admin")).isNull();
+        assertThat(otherCacheManager.getCache(CACHE_NAME).get("user")).isNotNull();
+        assertThat(publishedBatches).containsExactly(List.of(CacheInvalidation.cache(CACHE_NAME, "admin")));
+    }
+
+    @Test
+    void testEvictionsOfTransactionArePublishedAsOneBatchOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.evict(CACHE_NAME, "admin");
+            bus.evict(CACHE_NAME, "admin");
+            bus.clear(CACHE_NAME);
+
+            // Evicted on this instance only until the commit
+            assertThat(cacheManager.getCache(CACHE_NAME).get("user")).isNull();
+            assertThat(otherCacheManager.getCache(CACHE_NAME).get("admin")).isNotNull();
+            assertThat(publishedBatches).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(otherCacheManager.getCache(CACHE_NAME).get("admin")).isNull();
+        assertThat(otherCacheManager.getCache(CACHE_NAME).get("user")).isNull();
+        assertThat(publishedBatches)
+            .containsExactly(List.of(CacheInvalidation.cache(CACHE_NAME, "admin"), CacheInvalidation.cache(CACHE_NAME, null)));
+    }
+
+    @Test
+    void testRolledBackEvictionsAreNotPublished() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.evict(CACHE_NAME, "admin");
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(otherCacheManager.getCache(CACHE_NAME).get("admin")).isNotNull();
+        assertThat(publishedBatches).isEmpty();
+    }
+
+    private CacheInvalidationBus createBus(CacheManager cacheManager, CacheInvalidationTransport transport) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("cacheInvalidationTransport", transport);
+        return new CacheInvalidationBus(
+            cacheManager,
+            mock(EntityManagerFactory.class),
+            beanFactory.getBeanProvider(CacheInvalidationTransport.class),
+            new SimpleMeterRegistry()
+        );
+    }
+}
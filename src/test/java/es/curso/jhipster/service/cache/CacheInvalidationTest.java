@@ -0,0 +1,45 @@
+package es.curso.jhipster.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationTest {
+
+    @Test
+    void testBatchIsEncodedAndDecoded() {
+        List<CacheInvalidation> invalidations = List.of(
+            CacheInvalidation.cache("usersByLogin", "admin"),
+            CacheInvalidation.cache("usersByLogin", null),
+            CacheInvalidation.entity("es.curso.jhipster.domain.User", "1"),
+            CacheInvalidation.collection("es.curso.jhipster.domain.User.authorities", "1"),
+            CacheInvalidation.naturalId("es.curso.jhipster.domain.User"),
+            CacheInvalidation.query()
+        );
+
+        String encoded = CacheInvalidation.encode(invalidations);
+
+        assertThat(encoded).startsWith("C\tusersByLogin\tadmin\nC\tusersByLogin\n");
+        assertThat(CacheInvalidation.decode(encoded)).containsExactlyElementsOf(invalidations);
+    }
+
+    @Test
+    void testSeparatorsAreEscaped() {
+        List<CacheInvalidation> invalidations = List.of(CacheInvalidation.cache("cache\twith\ttabs", "key\nwith\\escapes\\t"));
+
+        assertThat(CacheInvalidation.decode(CacheInvalidation.encode(invalidations))).containsExactlyElementsOf(invalidations);
+    }
+
+    @Test
+    void testEmptyBatch() {
+        assertThat(CacheInvalidation.decode(CacheInvalidation.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    void testMalformedBatchIsRejected() {
+        assertThatThrownBy(() -> CacheInvalidation.decode("X\tregion")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheInvalidation.decode("C")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
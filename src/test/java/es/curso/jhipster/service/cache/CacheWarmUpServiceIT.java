@@ -0,0 +1,123 @@
+package es.curso.jhipster.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link CacheWarmUpService}.
+ */
+@IntegrationTest
+class CacheWarmUpServiceIT {
+
+    @TempDir
+    Path snapshotDirectory;
+
+    @Autowired
+    private ExperienciaRepository experienciaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private javax.cache.CacheManager jCacheManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private Cache usersByLoginCache;
+
+    @BeforeEach
+    public void init() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setSnapshotFile(snapshotDirectory.resolve("warm-up.snapshot").toString());
+        usersByLoginCache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        usersByLoginCache.clear();
+    }
+
+    @Test
+    void recentlyModifiedUsersAreWarmedUp() {
+        CacheWarmUpService cacheWarmUpService = createService();
+        assertThat(cacheWarmUpService.isDone()).isFalse();
+
+        cacheWarmUpService.warmUp();
+
+        assertThat(cacheWarmUpService.isDone()).isTrue();
+        assertThat(usersByLoginCache.get("admin")).isNotNull();
+        assertThat(usersByLoginCache.get("user")).isNotNull();
+        assertThat(meterRegistry.get("cache.warmup.loaded").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).counter().count())
+            .isPositive();
+    }
+
+    @Test
+    void hotKeysAreWarmedUpFirstAndSavedAtShutdown() throws IOException {
+        applicationProperties.getCache().getWarmUp().setUsers(1);
+        Path snapshotFile = snapshotDirectory.resolve("warm-up.snapshot");
+        Files.write(snapshotFile, List.of(UserRepository.USERS_BY_LOGIN_CACHE + "\tuser"), StandardCharsets.UTF_8);
+        CacheWarmUpService cacheWarmUpService = createService();
+
+        cacheWarmUpService.warmUp();
+
+        assertThat(usersByLoginCache.get("user")).isNotNull();
+        assertThat(usersByLoginCache.get("admin")).isNull();
+
+        Files.delete(snapshotFile);
+        cacheWarmUpService.saveSnapshot();
+
+        assertThat(Files.readAllLines(snapshotFile, StandardCharsets.UTF_8))
+            .containsExactly(UserRepository.USERS_BY_LOGIN_CACHE + "\tuser");
+    }
+
+    @Test
+    void readinessIsGatedUntilWarmedUp() {
+        applicationProperties.getCache().getWarmUp().setGateReadiness(true);
+        CacheWarmUpService cacheWarmUpService = createService();
+        CacheWarmUpHealthIndicator healthIndicator = new CacheWarmUpHealthIndicator(cacheWarmUpService, applicationProperties);
+
+        assertThat(healthIndicator.health().getStatus().getCode()).isEqualTo("OUT_OF_SERVICE");
+
+        cacheWarmUpService.warmUp();
+
+        assertThat(healthIndicator.health().getStatus().getCode()).isEqualTo("UP");
+    }
+
+    private CacheWarmUpService createService() {
+        return new CacheWarmUpService(
+            experienciaRepository,
+            userRepository,
+            entityManager,
+            transactionManager,
+            jCacheManager,
+            applicationProperties,
+            meterRegistry
+        );
+    }
+}
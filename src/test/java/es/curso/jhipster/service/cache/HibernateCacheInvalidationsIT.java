@@ -0,0 +1,117 @@
+package es.curso.jhipster.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.domain.User;
+import es.curso.jhipster.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link HibernateCacheInvalidations}, with the query cache enabled.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+    }
+)
+class HibernateCacheInvalidationsIT {
+
+    private static final String OTHER_NODE_ID = "other-node";
+
+    @Autowired
+    private CacheInvalidationTransport transport;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<List<CacheInvalidation>> publishedBatches = new CopyOnWriteArrayList<>();
+
+    private boolean recording;
+
+    private SessionFactoryImplementor sessionFactory;
+
+    private Long userId;
+
+    @BeforeEach
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        transport.subscribe((nodeId, invalidations) -> {
+            if (recording && !OTHER_NODE_ID.equals(nodeId)) {
+                publishedBatches.add(invalidations);
+            }
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        recording = false;
+        if (userId != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.deleteById(userId));
+        }
+    }
+
+    @Test
+    void changesPublishTheirTableSpaces() {
+        recording = true;
+        userId =
+            new TransactionTemplate(transactionManager)
+                .execute(status -> {
+                    User user = new User();
+                    user.setLogin("cacheinvalidations");
+                    user.setPassword(RandomStringUtils.random(60));
+                    user.setEmail("cacheinvalidations@localhost");
+                    user.setActivated(true);
+                    return userRepository.saveAndFlush(user).getId();
+                });
+
+        assertThat(publishedBatches).hasSize(1);
+        assertThat(publishedBatches.get(0)).contains(CacheInvalidation.query("jhi_user")).doesNotContain(CacheInvalidation.query());
+
+        publishedBatches.clear();
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> userRepository.findById(userId).orElseThrow().setFirstName("changed"));
+
+        assertThat(publishedBatches).hasSize(1);
+        assertThat(publishedBatches.get(0))
+            .contains(CacheInvalidation.entity(User.class.getName(), userId.toString()), CacheInvalidation.query("jhi_user"))
+            .doesNotContain(CacheInvalidation.query());
+    }
+
+    @Test
+    void receivedTableSpaceInvalidatesOnlyItsUpdateTimestamp() {
+        TimestampsCache timestampsCache = sessionFactory.getCache().getTimestampsCache();
+        Long cachedAt = sessionFactory.getCache().getRegionFactory().nextTimestamp();
+
+        transport.publish(OTHER_NODE_ID, List.of(CacheInvalidation.query("jhi_user")));
+
+        try (Session session = sessionFactory.openTemporarySession()) {
+            SharedSessionContractImplementor sessionImplementor = (SharedSessionContractImplementor) session;
+            assertThat(timestampsCache.isUpToDate(new String[] { "jhi_user" }, cachedAt, sessionImplementor)).isFalse();
+            assertThat(timestampsCache.isUpToDate(new String[] { "experiencia" }, cachedAt, sessionImplementor)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package es.curso.jhipster.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.CacheInvalidationEvent;
+import es.curso.jhipster.repository.CacheInvalidationEventRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link JdbcCacheInvalidationTransport}.
+ */
+@IntegrationTest
+class JdbcCacheInvalidationTransportIT {
+
+    @Autowired
+    private CacheInvalidationEventRepository cacheInvalidationEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private JdbcCacheInvalidationTransport transport;
+
+    private final List<String> deliveredNodeIds = new ArrayList<>();
+
+    private final List<List<CacheInvalidation>> deliveredBatches = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        cacheInvalidationEventRepository.deleteAllInBatch();
+        transport = new JdbcCacheInvalidationTransport(cacheInvalidationEventRepository, transactionManager, applicationProperties);
+        transport.subscribe((nodeId, invalidations) -> {
+            deliveredNodeIds.add(nodeId);
+            deliveredBatches.add(invalidations);
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        cacheInvalidationEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void publishedBatchIsDeliveredOnce() {
+        List<CacheInvalidation> invalidations = List.of(
+            CacheInvalidation.cache("usersByLogin", "admin"),
+            CacheInvalidation.entity("es.curso.jhipster.domain.User", "1")
+        );
+
+        transport.publish("node", invalidations);
+        transport.poll();
+        transport.poll();
+
+        assertThat(deliveredNodeIds).containsExactly("node");
+        assertThat(deliveredBatches).containsExactly(invalidations);
+    }
+
+    @Test
+    void batchesOlderThanRetentionArePurged() {
+        Instant old = Instant.now().minus(applicationProperties.getCache().getInvalidation().getRetention()).minus(1, ChronoUnit.MINUTES);
+        cacheInvalidationEventRepository.saveAndFlush(
+            new CacheInvalidationEvent().id(UUID.randomUUID().toString()).nodeId("node").createdDate(old).payload("Q\t")
+        );
+        transport.publish("node", List.of(CacheInvalidation.query()));
+
+        transport.purge();
+
+        assertThat(cacheInvalidationEventRepository.count()).isEqualTo(1);
+    }
+}
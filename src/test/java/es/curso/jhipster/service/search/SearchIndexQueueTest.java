@@ -0,0 +1,83 @@
+package es.curso.jhipster.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SearchIndexQueue}.
+ */
+class SearchIndexQueueTest {
+
+    private static final long NO_WAIT = 0L;
+
+    @Test
+    void testOfferCoalescesTheSameDocument() throws Exception {
+        SearchIndexQueue queue = new SearchIndexQueue(10);
+
+        assertThat(queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 1L), 1L, NO_WAIT, TimeUnit.NANOSECONDS)).isTrue();
+        assertThat(queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 1L), 2L, NO_WAIT, TimeUnit.NANOSECONDS)).isTrue();
+        assertThat(queue.offer(new SearchDocumentKey(SearchDocumentType.USER, 1L), 3L, NO_WAIT, TimeUnit.NANOSECONDS)).isTrue();
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.getCoalesced()).isEqualTo(1);
+        assertThat(queue.take(1, NO_WAIT, false).get(0).getEventIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testOfferFailsWhenFull() throws Exception {
+        SearchIndexQueue queue = new SearchIndexQueue(1);
+        queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 1L), 4L, NO_WAIT, TimeUnit.NANOSECONDS);
+
+        assertThat(queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 2L), 5L, 10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 1L), 6L, NO_WAIT, TimeUnit.NANOSECONDS)).isTrue();
+    }
+
+    @Test
+    void testTakeReturnsAFullBatchInOrder() throws Exception {
+        SearchIndexQueue queue = new SearchIndexQueue(10);
+        for (long id = 1; id <= 3; id++) {
+            queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, id), id, NO_WAIT, TimeUnit.NANOSECONDS);
+        }
+
+        List<SearchIndexQueue.Entry> batch = queue.take(2, TimeUnit.SECONDS.toNanos(10), false);
+
+        assertThat(batch).extracting(entry -> entry.getKey().getId()).containsExactly(1L, 2L);
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testTakeReturnsAPartialBatchOnTimeout() throws Exception {
+        SearchIndexQueue queue = new SearchIndexQueue(10);
+        queue.offer(new SearchDocumentKey(SearchDocumentType.USER, 1L), 8L, NO_WAIT, TimeUnit.NANOSECONDS);
+
+        assertThat(queue.take(10, TimeUnit.MILLISECONDS.toNanos(10), false)).hasSize(1);
+        assertThat(queue.take(10, NO_WAIT, false)).isEmpty();
+    }
+
+    @Test
+    void testRetryIsDelayedUnlessBackoffIsIgnored() throws Exception {
+        SearchIndexQueue queue = new SearchIndexQueue(10);
+        queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 1L), 9L, NO_WAIT, TimeUnit.NANOSECONDS);
+        SearchIndexQueue.Entry entry = queue.take(1, NO_WAIT, false).get(0);
+
+        queue.retry(entry, TimeUnit.MINUTES.toNanos(1));
+
+        assertThat(queue.take(1, NO_WAIT, false)).isEmpty();
+        List<SearchIndexQueue.Entry> batch = queue.take(1, NO_WAIT, true);
+        assertThat(batch).containsExactly(entry);
+        assertThat(batch.get(0).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void testCloseStopsWaitingForAFullBatch() throws Exception {
+        SearchIndexQueue queue = new SearchIndexQueue(10);
+        queue.offer(new SearchDocumentKey(SearchDocumentType.EXPERIENCIA, 1L), 10L, NO_WAIT, TimeUnit.NANOSECONDS);
+        queue.close();
+
+        assertThat(queue.take(10, TimeUnit.MINUTES.toNanos(1), false)).hasSize(1);
+    }
+}
@@ -0,0 +1,148 @@
+package es.curso.jhipster.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SearchIndexWorker}.
+ */
+class SearchIndexWorkerTest {
+
+    private static final long VERIFY_TIMEOUT_MILLIS = 5000L;
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private SearchDocumentSynchronizer synchronizer;
+
+    private SearchIndexer searchIndexer;
+
+    private SearchIndexWorker worker;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Search.Indexer properties = applicationProperties.getSearch().getIndexer();
+        properties.setFlushInterval(Duration.ofMillis(10));
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        searchOutboxEventRepository = mock(SearchOutboxEventRepository.class);
+        when(searchOutboxEventRepository.save(any(SearchOutboxEvent.class)))
+            .thenAnswer(invocation -> {
+                SearchOutboxEvent event = invocation.getArgument(0);
+                event.setId(eventIds.incrementAndGet());
+                return event;
+            });
+        synchronizer = mock(SearchDocumentSynchronizer.class);
+    }
+
+    @AfterEach
+    void stopWorker() {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void testFailedDocumentIsRetriedUntilSynchronized() {
+        when(synchronizer.sync(SearchDocumentType.EXPERIENCIA, Set.of(1L))).thenReturn(Map.of(1L, "unavailable"), Map.of());
+        startWorker();
+
+        searchIndexer.sync(SearchDocumentType.EXPERIENCIA, 1L);
+
+        verify(synchronizer, timeout(VERIFY_TIMEOUT_MILLIS).times(2)).sync(SearchDocumentType.EXPERIENCIA, Set.of(1L));
+        verify(searchOutboxEventRepository, timeout(VERIFY_TIMEOUT_MILLIS)).markAllProcessed(eq(List.of(1L)), anyInstant());
+        assertThat(meterRegistry.counter("search.indexer.retried").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("search.indexer.indexed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("search.indexer.failed").count()).isZero();
+    }
+
+    @Test
+    void testDocumentIsLeftToTheRelayAfterMaxAttempts() {
+        when(synchronizer.sync(SearchDocumentType.EXPERIENCIA, Set.of(1L))).thenReturn(Map.of(1L, "unavailable"));
+        startWorker();
+
+        searchIndexer.sync(SearchDocumentType.EXPERIENCIA, 1L);
+
+        verify(synchronizer, timeout(VERIFY_TIMEOUT_MILLIS).times(3)).sync(SearchDocumentType.EXPERIENCIA, Set.of(1L));
+        worker.stop();
+        assertThat(meterRegistry.counter("search.indexer.retried").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("search.indexer.failed").count()).isEqualTo(1);
+        verify(synchronizer, times(3)).sync(SearchDocumentType.EXPERIENCIA, Set.of(1L));
+        verify(searchOutboxEventRepository, never()).markAllProcessed(anyCollection(), anyInstant());
+    }
+
+    @Test
+    void testQueuedDocumentsAreFlushedOnStop() throws Exception {
+        applicationProperties.getSearch().getIndexer().setFlushInterval(Duration.ofMinutes(1));
+        startWorker();
+        for (long id = 1; id <= 3; id++) {
+            searchIndexer.sync(SearchDocumentType.EXPERIENCIA, id);
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        worker.stop(stopped::countDown);
+
+        assertThat(stopped.getCount()).isZero();
+        assertThat(worker.isRunning()).isFalse();
+        assertThat(searchIndexer.getQueue().size()).isZero();
+        verify(synchronizer).sync(SearchDocumentType.EXPERIENCIA, Set.of(1L, 2L, 3L));
+        verify(searchOutboxEventRepository).markAllProcessed(eq(List.of(1L, 2L, 3L)), anyInstant());
+    }
+
+    @Test
+    void testRetriesAreFlushedOnStopWithoutWaitingForTheBackoff() throws Exception {
+        applicationProperties.getSearch().getIndexer().setInitialBackoff(Duration.ofMinutes(1));
+        when(synchronizer.sync(SearchDocumentType.USER, Set.of(1L))).thenReturn(Map.of(1L, "unavailable"), Map.of());
+        startWorker();
+        searchIndexer.sync(SearchDocumentType.USER, 1L);
+        verify(synchronizer, timeout(VERIFY_TIMEOUT_MILLIS)).sync(SearchDocumentType.USER, Set.of(1L));
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        worker.stop(stopped::countDown);
+
+        assertThat(stopped.getCount()).isZero();
+        verify(synchronizer, times(2)).sync(SearchDocumentType.USER, Set.of(1L));
+        verify(searchOutboxEventRepository).markAllProcessed(eq(List.of(1L)), anyInstant());
+    }
+
+    private void startWorker() {
+        searchIndexer = new SearchIndexer(searchOutboxEventRepository, applicationProperties, meterRegistry);
+        worker = new SearchIndexWorker(searchIndexer, synchronizer, searchOutboxEventRepository, applicationProperties, meterRegistry);
+        worker.start();
+    }
+
+    private static Instant anyInstant() {
+        return any(Instant.class);
+    }
+}
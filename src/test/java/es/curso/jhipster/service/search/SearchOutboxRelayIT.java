@@ -0,0 +1,144 @@
+package es.curso.jhipster.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link SearchOutboxRelay}.
+ */
+@IntegrationTest
+@Transactional
+class SearchOutboxRelayIT {
+
+    private static final Instant PAST = Instant.now().minus(1, ChronoUnit.HOURS);
+
+    private static final Instant FUTURE = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    @Autowired
+    private SearchOutboxRelay searchOutboxRelay;
+
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    @Autowired
+    private ExperienciaRepository experienciaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * This repository is mocked in the es.curso.jhipster.repository.search test package.
+     *
+     * @see es.curso.jhipster.repository.search.ExperienciaSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private ExperienciaSearchRepository mockExperienciaSearchRepository;
+
+    private Experiencia experiencia;
+
+    @BeforeEach
+    public void init() {
+        searchOutboxEventRepository.deleteAllInBatch();
+        experiencia = experienciaRepository.saveAndFlush(new Experiencia().titulo("AAAAAAAAAA"));
+    }
+
+    @Test
+    void relayIndexesExistingDocumentsAndDeletesRemovedOnes() {
+        Long removedId = experiencia.getId() + 1000;
+        createEvent(experiencia.getId(), PAST);
+        createEvent(experiencia.getId(), PAST);
+        createEvent(removedId, PAST);
+        SearchOutboxEvent notDue = createEvent(experiencia.getId(), FUTURE);
+
+        searchOutboxRelay.relay();
+
+        verify(mockExperienciaSearchRepository, times(1)).bulkSync(List.of(experiencia), Set.of(removedId));
+        assertThat(searchOutboxEventRepository.findAll()).hasSize(4);
+        assertThat(searchOutboxEventRepository.findAll())
+            .filteredOn(event -> event.getProcessedDate() == null)
+            .containsExactly(notDue);
+    }
+
+    @Test
+    void relayPurgesProcessedEventsOlderThanTheRetention() {
+        SearchOutboxEvent expired = createEvent(experiencia.getId(), PAST);
+        expired.setProcessedDate(Instant.now().minus(7, ChronoUnit.HOURS));
+        SearchOutboxEvent retained = createEvent(experiencia.getId(), PAST);
+        retained.setProcessedDate(Instant.now().minus(1, ChronoUnit.HOURS));
+        searchOutboxEventRepository.flush();
+
+        searchOutboxRelay.relay();
+
+        verify(mockExperienciaSearchRepository, never()).bulkSync(anyCollection(), anyCollection());
+        assertThat(searchOutboxEventRepository.findAll()).containsExactly(retained);
+    }
+
+    @Test
+    void relayKeepsFailedEventsForALaterAttempt() {
+        SearchOutboxEvent event = createEvent(experiencia.getId(), PAST);
+        when(mockExperienciaSearchRepository.bulkSync(anyCollection(), anyCollection()))
+            .thenReturn(Collections.singletonMap(experiencia.getId(), "mapper_parsing_exception"));
+
+        searchOutboxRelay.relay();
+
+        SearchOutboxEvent failed = searchOutboxEventRepository.findById(event.getId()).orElseThrow();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptDate()).isAfter(Instant.now());
+    }
+
+    @Test
+    void oldestDueCreatedDateIgnoresProcessedAndNotDueEvents() {
+        SearchOutboxEvent processed = createEvent(experiencia.getId(), PAST);
+        processed.setCreatedDate(PAST.minus(2, ChronoUnit.HOURS));
+        processed.setProcessedDate(PAST);
+        SearchOutboxEvent notDue = createEvent(experiencia.getId(), FUTURE);
+        notDue.setCreatedDate(PAST.minus(1, ChronoUnit.HOURS));
+        SearchOutboxEvent due = createEvent(experiencia.getId(), PAST);
+        due.setCreatedDate(PAST.truncatedTo(ChronoUnit.SECONDS));
+        searchOutboxEventRepository.flush();
+
+        assertThat(searchOutboxEventRepository.findOldestDueCreatedDate(Instant.now())).contains(due.getCreatedDate());
+    }
+
+    @Test
+    void relayReportsNoLagWhenNoEventIsDue() {
+        SearchOutboxEvent processed = createEvent(experiencia.getId(), PAST);
+        processed.setProcessedDate(Instant.now());
+        createEvent(experiencia.getId(), FUTURE);
+        searchOutboxEventRepository.flush();
+
+        searchOutboxRelay.relay();
+
+        assertThat(meterRegistry.get("search.outbox.lag").timeGauge().value(TimeUnit.MILLISECONDS)).isZero();
+    }
+
+    private SearchOutboxEvent createEvent(Long documentId, Instant nextAttemptDate) {
+        return searchOutboxEventRepository.saveAndFlush(
+            new SearchOutboxEvent()
+                .documentType(SearchDocumentType.EXPERIENCIA)
+                .documentId(documentId)
+                .createdDate(PAST)
+                .nextAttemptDate(nextAttemptDate)
+        );
+    }
+}
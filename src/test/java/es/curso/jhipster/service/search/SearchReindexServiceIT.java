@@ -0,0 +1,131 @@
+package es.curso.jhipster.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.SearchOutboxEvent;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.SearchOutboxEventRepository;
+import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.repository.search.SearchIndexAdminRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link SearchReindexService}.
+ * <p>
+ * Not transactional, as the chunks are read by other threads.
+ */
+@IntegrationTest
+class SearchReindexServiceIT {
+
+    private static final String ALIAS_NAME = "experiencia";
+
+    @Autowired
+    private SearchReindexService searchReindexService;
+
+    @Autowired
+    private ExperienciaRepository experienciaRepository;
+
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    /**
+     * This repository is mocked in the es.curso.jhipster.repository.search test package.
+     *
+     * @see es.curso.jhipster.repository.search.SearchIndexAdminRepositoryMockConfiguration
+     */
+    @Autowired
+    private SearchIndexAdminRepository mockSearchIndexAdminRepository;
+
+    /**
+     * This repository is mocked in the es.curso.jhipster.repository.search test package.
+     *
+     * @see es.curso.jhipster.repository.search.ExperienciaSearchRepositoryMockConfiguration
+     */
+    @Autowired
+    private ExperienciaSearchRepository mockExperienciaSearchRepository;
+
+    private final List<Experiencia> experiencias = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        searchOutboxEventRepository.deleteAllInBatch();
+        for (int i = 0; i < 3; i++) {
+            experiencias.add(experienciaRepository.saveAndFlush(new Experiencia().titulo("AAAAAAAAAA")));
+        }
+        when(mockSearchIndexAdminRepository.getAliasName(Experiencia.class)).thenReturn(ALIAS_NAME);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        experienciaRepository.deleteAll(experiencias);
+        searchOutboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void reindexBuildsANewIndexThenSwapsTheAlias() {
+        SearchReindexJob job = new SearchReindexJob(SearchDocumentType.EXPERIENCIA, ALIAS_NAME + "_1");
+
+        searchReindexService.run(job);
+
+        assertThat(job.getStatus()).isEqualTo(SearchReindexJob.Status.SUCCEEDED);
+        assertThat(job.getIndexed()).isEqualTo(experienciaRepository.count());
+        assertThat(job.getProgress()).isEqualTo(1);
+        verify(mockSearchIndexAdminRepository).createIndexForBulkLoad(Experiencia.class, job.getIndexName());
+        verify(mockSearchIndexAdminRepository).finishBulkLoad(eq(job.getIndexName()), anyInt(), anyLong(), any(TimeUnit.class));
+        verify(mockSearchIndexAdminRepository).swapAlias(ALIAS_NAME, job.getIndexName());
+        verify(mockSearchIndexAdminRepository, never()).deleteIndices(anyCollection());
+    }
+
+    @Test
+    void reindexKeepsTheAliasWhenDocumentsFail() {
+        SearchReindexJob job = new SearchReindexJob(SearchDocumentType.EXPERIENCIA, ALIAS_NAME + "_1");
+        when(mockSearchIndexAdminRepository.bulkSync(anyString(), anyCollection(), any(), anyCollection()))
+            .thenReturn(Collections.singletonMap(experiencias.get(0).getId(), "mapper_parsing_exception"));
+
+        searchReindexService.run(job);
+
+        assertThat(job.getStatus()).isEqualTo(SearchReindexJob.Status.FAILED);
+        assertThat(job.getFailed()).isEqualTo(1);
+        verify(mockSearchIndexAdminRepository, never()).swapAlias(anyString(), anyString());
+        verify(mockSearchIndexAdminRepository).deleteIndices(List.of(job.getIndexName()));
+    }
+
+    @Test
+    void reindexReplaysTheChangesProcessedByOtherInstancesDuringTheRebuild() {
+        SearchReindexJob job = new SearchReindexJob(SearchDocumentType.EXPERIENCIA, ALIAS_NAME + "_1");
+        Long removedId = experiencias.get(2).getId() + 1000;
+        // Deleted and synchronized with the previous index by another instance
+        Instant now = Instant.now();
+        searchOutboxEventRepository.saveAndFlush(
+            new SearchOutboxEvent()
+                .documentType(SearchDocumentType.EXPERIENCIA)
+                .documentId(removedId)
+                .createdDate(now)
+                .nextAttemptDate(now)
+                .processedDate(now)
+        );
+
+        searchReindexService.run(job);
+
+        assertThat(job.getStatus()).isEqualTo(SearchReindexJob.Status.SUCCEEDED);
+        verify(mockSearchIndexAdminRepository).bulkSync(eq(job.getIndexName()), eq(List.of()), any(), eq(Set.of(removedId)));
+        verify(mockExperienciaSearchRepository).bulkSync(List.of(), Set.of(removedId));
+    }
+}
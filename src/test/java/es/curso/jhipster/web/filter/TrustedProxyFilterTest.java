@@ -0,0 +1,85 @@
+package es.curso.jhipster.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import es.curso.jhipster.security.ratelimit.RateLimitExceededException;
+import es.curso.jhipster.security.ratelimit.RateLimitStore;
+import es.curso.jhipster.security.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class TrustedProxyFilterTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private TrustedProxyFilter filter;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().setTrustedProxies("10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}");
+        filter = new TrustedProxyFilter(applicationProperties);
+    }
+
+    @Test
+    void testClientAddressIsReadFromTrustedProxy() throws Exception {
+        assertThat(getRemoteAddress("10.0.0.1", "203.0.113.7")).isEqualTo("203.0.113.7");
+        // Through two proxies
+        assertThat(getRemoteAddress("10.0.0.1", "203.0.113.7, 10.0.0.2")).isEqualTo("203.0.113.7");
+        assertThat(getRemoteAddress("10.0.0.1", null)).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void testAddressesForgedByClientAreIgnored() throws Exception {
+        // The client sent its own X-Forwarded-For header, to which the proxy appended the client address
+        assertThat(getRemoteAddress("10.0.0.1", "198.51.100.1, 203.0.113.7")).isEqualTo("203.0.113.7");
+        // The client sent the request directly
+        assertThat(getRemoteAddress("203.0.113.7", "198.51.100.1")).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void testRateLimitBucketIsKeyedOnForwardedFor() throws Exception {
+        applicationProperties.getSecurity().getRateLimit().getRegisterIp().setCapacity(1);
+        RateLimiter rateLimiter = new RateLimiter(
+            applicationProperties,
+            new StaticListableBeanFactory().getBeanProvider(RateLimitStore.class),
+            new SimpleMeterRegistry()
+        );
+        // As AccountResource.registerAccount does
+        FilterChain register = (request, response) -> rateLimiter.checkRegister(request.getRemoteAddr());
+
+        // Two clients behind the same proxy have their own bucket
+        filter.doFilter(createRequest("10.0.0.1", "203.0.113.7"), new MockHttpServletResponse(), register);
+        filter.doFilter(createRequest("10.0.0.1", "203.0.113.8"), new MockHttpServletResponse(), register);
+
+        assertThatThrownBy(() -> filter.doFilter(createRequest("10.0.0.2", "203.0.113.7"), new MockHttpServletResponse(), register))
+            .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    private String getRemoteAddress(String remoteAddress, String forwardedFor) throws Exception {
+        AtomicReference<String> address = new AtomicReference<>();
+        filter.doFilter(
+            createRequest(remoteAddress, forwardedFor),
+            new MockHttpServletResponse(),
+            (request, response) -> address.set(request.getRemoteAddr())
+        );
+        return address.get();
+    }
+
+    private MockHttpServletRequest createRequest(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/register");
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader(TrustedProxyFilter.X_FORWARDED_FOR, forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package es.curso.jhipster.web.profiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import es.curso.jhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import javax.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestProfilerFilterTest {
+
+    private static final FilterChain CHAIN = (request, response) -> {
+        RequestProfile.enter(RequestPhase.JWT);
+        RequestProfile.exit(RequestPhase.JWT);
+        RequestProfile.enter(RequestPhase.HANDLER);
+        RequestProfile.enter(RequestPhase.CONTROLLER);
+        RequestProfile.enter(RequestPhase.DATABASE);
+        RequestProfile.enter(RequestPhase.DATABASE);
+        RequestProfile.exit(RequestPhase.DATABASE);
+        RequestProfile.exit(RequestPhase.DATABASE);
+        RequestProfile.exit(RequestPhase.CONTROLLER);
+        RequestProfile.exit(RequestPhase.HANDLER);
+    };
+
+    private ApplicationProperties applicationProperties;
+
+    private SlowRequestLog slowRequestLog;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getProfiler().setCapacity(2);
+        slowRequestLog = new SlowRequestLog(applicationProperties);
+    }
+
+    @Test
+    void testRequestOverBudgetIsCaptured() throws Exception {
+        applicationProperties.getProfiler().setDefaultBudget(Duration.ZERO);
+        RequestProfilerFilter filter = createFilter();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/experiencias/1"), new MockHttpServletResponse(), CHAIN);
+
+        assertThat(slowRequestLog.getSlowRequests()).hasSize(1);
+        SlowRequest slowRequest = slowRequestLog.getSlowRequests().get(0);
+        assertThat(slowRequest.getMethod()).isEqualTo("GET");
+        assertThat(slowRequest.getPath()).isEqualTo("/api/experiencias/1");
+        assertThat(slowRequest.getStatus()).isEqualTo(200);
+        assertThat(slowRequest.getDurationMillis()).isPositive();
+        assertThat(slowRequest.getPhaseMillis())
+            .containsOnlyKeys("jwt", "security", "handler", "controller", "handler_overhead", "database", "search");
+        assertThat(slowRequest.getPhaseMillis().get("security")).isGreaterThanOrEqualTo(slowRequest.getPhaseMillis().get("jwt"));
+        assertThat(slowRequest.getPhaseMillis().get("handler")).isGreaterThanOrEqualTo(slowRequest.getPhaseMillis().get("controller"));
+        assertThat(slowRequest.getPhaseMillis().get("controller")).isGreaterThanOrEqualTo(slowRequest.getPhaseMillis().get("database"));
+        assertThat(slowRequest.getPhaseMillis().get("search")).isZero();
+        assertThat(slowRequest.getStatements()).isZero();
+        assertThat(RequestProfile.current().isActive()).isFalse();
+    }
+
+    @Test
+    void testRequestWithinRouteBudgetIsNotCaptured() throws Exception {
+        applicationProperties.getProfiler().setDefaultBudget(Duration.ZERO);
+        applicationProperties.getProfiler().getBudgets().put("/api/experiencias/**", Duration.ofMinutes(1));
+        RequestProfilerFilter filter = createFilter();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/experiencias/1"), new MockHttpServletResponse(), CHAIN);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/account"), new MockHttpServletResponse(), CHAIN);
+
+        assertThat(slowRequestLog.getSlowRequests()).extracting(SlowRequest::getPath).containsExactly("/api/account");
+    }
+
+    @Test
+    void testOldestSlowRequestsAreOverwritten() throws Exception {
+        applicationProperties.getProfiler().setDefaultBudget(Duration.ZERO);
+        RequestProfilerFilter filter = createFilter();
+
+        for (String path : new String[] { "/api/first", "/api/second", "/api/third" }) {
+            filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), CHAIN);
+        }
+
+        assertThat(slowRequestLog.getSlowRequests()).extracting(SlowRequest::getPath).containsExactly("/api/third", "/api/second");
+    }
+
+    @Test
+    void testPhasesOutsideOfRequestAreIgnored() {
+        RequestProfile.enter(RequestPhase.DATABASE);
+        RequestProfile.exit(RequestPhase.DATABASE);
+
+        assertThat(RequestProfile.current().isActive()).isFalse();
+    }
+
+    private RequestProfilerFilter createFilter() {
+        return new RequestProfilerFilter(applicationProperties, slowRequestLog, new SimpleMeterRegistry());
+    }
+}
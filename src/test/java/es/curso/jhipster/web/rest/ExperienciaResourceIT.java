@@ -1,22 +1,42 @@
 package es.curso.jhipster.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import es.curso.jhipster.IntegrationTest;
 import es.curso.jhipster.domain.Experiencia;
+import es.curso.jhipster.domain.enumeration.SearchDocumentType;
+import es.curso.jhipster.jdbc.SqlBudget;
 import es.curso.jhipster.repository.ExperienciaRepository;
+import es.curso.jhipster.repository.search.ExperienciaFacets;
 import es.curso.jhipster.repository.search.ExperienciaSearchRepository;
+import es.curso.jhipster.repository.search.SearchAfterSlice;
+import es.curso.jhipster.service.ExperienciaFacetService;
+import es.curso.jhipster.service.search.SearchIndexer;
+import es.curso.jhipster.web.rest.util.KeysetPaginationUtil;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.rest.RestStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,11 +44,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -70,6 +98,12 @@ class ExperienciaResourceIT {
     @Autowired
     private ExperienciaSearchRepository mockExperienciaSearchRepository;
 
+    @SpyBean
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -132,7 +166,52 @@ class ExperienciaResourceIT {
         assertThat(testExperiencia.getFecha()).isEqualTo(DEFAULT_FECHA);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(1)).save(testExperiencia);
+        verify(searchIndexer, times(1)).sync(SearchDocumentType.EXPERIENCIA, testExperiencia.getId());
+    }
+
+    @Test
+    void bulkSaveExperiencias() throws Exception {
+        int databaseSizeBeforeCreate = experienciaRepository.findAll().size();
+        Experiencia invalid = createEntity(em).titulo(null);
+        byte[] body = TestUtil.convertObjectToJsonBytes(Arrays.asList(createEntity(em), invalid, createUpdatedEntity(em)));
+
+        // Bulk create, chunks are committed as they are written
+        String response = restExperienciaMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400, 201)))
+            .andExpect(jsonPath("$.[1].message").value(containsString("titulo")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        List<Integer> ids = JsonPath.read(response, "$.[?(@.status == 201)].id");
+
+        try {
+            assertThat(experienciaRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+            verify(mockExperienciaSearchRepository, times(1)).bulkIndex(anyCollection());
+
+            // Bulk update with newline delimited JSON, the unknown id is reported but does not fail the chunk
+            Experiencia updated = createUpdatedEntity(em).titulo("CCCCCCCCCC");
+            updated.setId(ids.get(0).longValue());
+            Experiencia unknown = createUpdatedEntity(em);
+            unknown.setId(Long.MAX_VALUE);
+            String ndjson =
+                new String(TestUtil.convertObjectToJsonBytes(updated), StandardCharsets.UTF_8) +
+                "\n" +
+                new String(TestUtil.convertObjectToJsonBytes(unknown), StandardCharsets.UTF_8) +
+                "\n";
+            restExperienciaMockMvc
+                .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].status").value(contains(200, 404)));
+            assertThat(experienciaRepository.findById(ids.get(0).longValue()))
+                .get()
+                .extracting(Experiencia::getTitulo)
+                .isEqualTo("CCCCCCCCCC");
+        } finally {
+            ids.forEach(id -> experienciaRepository.deleteById(id.longValue()));
+        }
     }
 
     @Test
@@ -153,7 +232,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -191,6 +270,122 @@ class ExperienciaResourceIT {
             .andExpect(jsonPath("$.[*].fecha").value(hasItem(DEFAULT_FECHA.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllExperienciasRunsABoundedNumberOfStatements() throws Exception {
+        // Initialize the database with more experiencias than a page
+        for (int i = 0; i < 25; i++) {
+            experienciaRepository.save(createEntity(em));
+        }
+        experienciaRepository.flush();
+        em.clear();
+
+        // Get a page of experiencias and their count, whatever their number
+        SqlBudget.assertStatementsAtMost(
+            2,
+            () -> restExperienciaMockMvc.perform(get(ENTITY_API_URL + "?sort=id,desc")).andExpect(status().isOk())
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllExperienciasWithKeysetPagination() throws Exception {
+        // Initialize the database
+        Experiencia first = experienciaRepository.saveAndFlush(createEntity(em));
+        Experiencia second = experienciaRepository.saveAndFlush(createEntity(em));
+        Experiencia third = experienciaRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice
+        MvcResult result = restExperienciaMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andReturn();
+
+        // Follow the cursor of the Link header
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"");
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restExperienciaMockMvc
+            .perform(get(URI.create(next)))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllExperienciasWithKeysetPaginationOnFecha() throws Exception {
+        // Initialize the database
+        Experiencia undated = experienciaRepository.saveAndFlush(createEntity(em).fecha(null));
+        Experiencia updated = experienciaRepository.saveAndFlush(createEntity(em).fecha(UPDATED_FECHA));
+        Experiencia dated = experienciaRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice, crossing from undated to dated experiencias
+        MvcResult result = restExperienciaMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=2&sort=fecha"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(undated.getId().intValue(), dated.getId().intValue())))
+            .andReturn();
+
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restExperienciaMockMvc
+            .perform(get(URI.create(next)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(updated.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllExperienciasWithInvalidCursor() throws Exception {
+        restExperienciaMockMvc.perform(get(ENTITY_API_URL + "?after=not-a-cursor")).andExpect(status().isBadRequest());
+        restExperienciaMockMvc.perform(get(ENTITY_API_URL + "?after=&sort=titulo")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportExperiencias() throws Exception {
+        // Initialize the database, committed as the export runs in its own transaction
+        experienciaRepository.saveAndFlush(experiencia);
+
+        try {
+            MvcResult result = restExperienciaMockMvc
+                .perform(get(ENTITY_API_URL + "/_export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restExperienciaMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(experiencia.getId().intValue())))
+                .andExpect(jsonPath("$.[*].titulo").value(hasItem(DEFAULT_TITULO)))
+                .andExpect(jsonPath("$.[*].fecha").value(hasItem(DEFAULT_FECHA.toString())));
+
+            result =
+                restExperienciaMockMvc
+                    .perform(get(ENTITY_API_URL + "/_export?format=ndjson"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String ndjson = restExperienciaMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            assertThat(ndjson.split("\n")).anyMatch(line -> line.contains("\"id\":" + experiencia.getId() + ","));
+        } finally {
+            experienciaRepository.deleteById(experiencia.getId());
+        }
+    }
+
+    @Test
+    void exportExperienciasWithUnsupportedFormat() throws Exception {
+        restExperienciaMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getExperiencia() throws Exception {
@@ -248,7 +443,7 @@ class ExperienciaResourceIT {
         assertThat(testExperiencia.getFecha()).isEqualTo(UPDATED_FECHA);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository).save(testExperiencia);
+        verify(searchIndexer).sync(SearchDocumentType.EXPERIENCIA, testExperiencia.getId());
     }
 
     @Test
@@ -271,7 +466,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -294,7 +489,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -313,7 +508,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -404,7 +599,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -427,7 +622,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -448,7 +643,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(0)).save(experiencia);
+        verify(searchIndexer, times(0)).sync(any(), any());
     }
 
     @Test
@@ -469,7 +664,7 @@ class ExperienciaResourceIT {
         assertThat(experienciaList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Experiencia in Elasticsearch
-        verify(mockExperienciaSearchRepository, times(1)).deleteById(experiencia.getId());
+        verify(searchIndexer, times(1)).sync(SearchDocumentType.EXPERIENCIA, experiencia.getId());
     }
 
     @Test
@@ -492,4 +687,157 @@ class ExperienciaResourceIT {
             .andExpect(jsonPath("$.[*].localizacion").value(hasItem(DEFAULT_LOCALIZACION)))
             .andExpect(jsonPath("$.[*].fecha").value(hasItem(DEFAULT_FECHA.toString())));
     }
+
+    @Test
+    @Transactional
+    void searchExperienciaAfter() throws Exception {
+        // Initialize the database
+        experienciaRepository.saveAndFlush(experiencia);
+        List<Object> lastSortValues = List.of(1.0f, experiencia.getId());
+        String nextCursor = KeysetPaginationUtil.encodeCursor("d1.0", "l" + experiencia.getId());
+        when(mockExperienciaSearchRepository.searchAfter("titulo:" + DEFAULT_TITULO, List.of(), PageRequest.of(0, 20)))
+            .thenReturn(new SearchAfterSlice<>(Collections.singletonList(experiencia), PageRequest.of(0, 20), true, lastSortValues));
+
+        // Search the first slice
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=titulo:" + DEFAULT_TITULO + "&after="))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + nextCursor)))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(experiencia.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchExperienciaAfterSortedByFecha() throws Exception {
+        // Initialize the database
+        experienciaRepository.saveAndFlush(experiencia);
+        // Elasticsearch returns the sort value of a date as epoch milliseconds, which must be sent back as a number
+        long fechaMillis = DEFAULT_FECHA.atStartOfDay(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by("fecha"));
+        when(mockExperienciaSearchRepository.searchAfter("*", List.of(), pageRequest))
+            .thenReturn(
+                new SearchAfterSlice<>(Collections.singletonList(experiencia), pageRequest, true, List.of(fechaMillis, experiencia.getId()))
+            );
+        when(mockExperienciaSearchRepository.searchAfter("*", List.of(fechaMillis, experiencia.getId()), pageRequest))
+            .thenReturn(new SearchAfterSlice<>(Collections.emptyList(), pageRequest, false, List.of()));
+
+        MvcResult result = restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=*&after=&sort=fecha,asc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(experiencia.getId().intValue())))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        String nextCursor = link.replaceAll(".*[?&]after=([A-Za-z0-9_-]+).*", "$1");
+
+        // The next slice resumes after the typed sort values
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=*&after=" + nextCursor + "&sort=fecha,asc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+        verify(mockExperienciaSearchRepository).searchAfter("*", List.of(fechaMillis, experiencia.getId()), pageRequest);
+    }
+
+    @Test
+    void searchExperienciaAfterWithInvalidCursor() throws Exception {
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=*&after=" + KeysetPaginationUtil.encodeCursor("d1.0")))
+            .andExpect(status().isBadRequest());
+
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=*&after=" + KeysetPaginationUtil.encodeCursor("1.0", "1")))
+            .andExpect(status().isBadRequest());
+
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=*&after=&sort=titulo,asc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggestExperiencias() throws Exception {
+        Experiencia suggestion = new Experiencia().id(1L).titulo("Madrid de noche").localizacion("Madrid");
+        when(mockExperienciaSearchRepository.suggest(eq("madrid de"), eq(5), any())).thenReturn(List.of(suggestion));
+
+        // Equivalent prefixes are normalized, and the second one is served from the cache
+        for (String query : List.of("Madrid  de", " madrid de ")) {
+            restExperienciaMockMvc
+                .perform(get("/api/_suggest/experiencias").param("query", query))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(contains(1)))
+                .andExpect(jsonPath("$.[*].titulo").value(contains("Madrid de noche")))
+                .andExpect(jsonPath("$.[*].fecha").doesNotExist());
+        }
+        verify(mockExperienciaSearchRepository, times(1)).suggest(eq("madrid de"), eq(5), any());
+
+        restExperienciaMockMvc
+            .perform(get("/api/_suggest/experiencias").param("query", "madrid").param("size", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getExperienciaFacets() throws Exception {
+        when(mockExperienciaSearchRepository.facets("titulo:madrid", 10))
+            .thenReturn(new ExperienciaFacets(3, Map.of("Madrid", 3L), Map.of("2021-03", 2L)));
+
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/_facets?query=titulo:madrid"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.source").value("ELASTICSEARCH"))
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.localizaciones.[*].key").value(contains("Madrid")))
+            .andExpect(jsonPath("$.months.[0].key").value("2021-03"))
+            .andExpect(jsonPath("$.months.[0].count").value(2));
+    }
+
+    @Test
+    @Transactional
+    void getExperienciaFacetsFromDatabaseWhenElasticsearchIsUnavailable() throws Exception {
+        assertExperienciaFacetsFromDatabaseWhenElasticsearchFails(new DataAccessResourceFailureException("Connection refused"));
+
+        restExperienciaMockMvc.perform(get(ENTITY_SEARCH_API_URL + "/_facets?size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getExperienciaFacetsWithMalformedQuery() throws Exception {
+        cacheManager.getCache(ExperienciaFacetService.FACETS_CACHE).clear();
+        when(mockExperienciaSearchRepository.facets(eq("titulo:("), anyInt()))
+            .thenThrow(
+                new UncategorizedElasticsearchException(
+                    "Elasticsearch exception [type=search_phase_execution_exception, reason=all shards failed]",
+                    new ElasticsearchStatusException("Failed to parse query [titulo:(]", RestStatus.BAD_REQUEST)
+                )
+            );
+
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/_facets").param("query", "titulo:("))
+            .andExpect(status().isBadRequest());
+
+        assertThat(cacheManager.getCache(ExperienciaFacetService.FACETS_CACHE).get(10)).isNull();
+    }
+
+    @Test
+    @Transactional
+    void getExperienciaFacetsFromDatabaseWhenIndexIsMissing() throws Exception {
+        assertExperienciaFacetsFromDatabaseWhenElasticsearchFails(new NoSuchIndexException("experiencia", null));
+    }
+
+    private void assertExperienciaFacetsFromDatabaseWhenElasticsearchFails(Exception failure) throws Exception {
+        // Initialize the database
+        experienciaRepository.saveAndFlush(experiencia);
+        experienciaRepository.saveAndFlush(createEntity(em).fecha(DEFAULT_FECHA.plusMonths(1)));
+        experienciaRepository.saveAndFlush(createEntity(em).localizacion(UPDATED_LOCALIZACION));
+        cacheManager.getCache(ExperienciaFacetService.FACETS_CACHE).clear();
+        when(mockExperienciaSearchRepository.facets(any(), anyInt())).thenThrow(failure);
+
+        restExperienciaMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "/_facets?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.source").value("DATABASE"))
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.localizaciones.[*].key").value(contains(DEFAULT_LOCALIZACION, UPDATED_LOCALIZACION)))
+            .andExpect(jsonPath("$.localizaciones.[*].count").value(contains(2, 1)))
+            .andExpect(jsonPath("$.months.[*].count").value(contains(2, 1)));
+    }
 }
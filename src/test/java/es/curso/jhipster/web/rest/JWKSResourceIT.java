@@ -0,0 +1,47 @@
+package es.curso.jhipster.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.security.jwt.JWTKeyRing;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link JWKSResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class JWKSResourceIT {
+
+    @Autowired
+    private MockMvc restJWKSMockMvc;
+
+    @Autowired
+    private JWTKeyRing keyRing;
+
+    @Test
+    void getJsonWebKeySetWithoutAuthentication() throws Exception {
+        restJWKSMockMvc
+            .perform(get("/api/jwks"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=300, public"))
+            .andExpect(jsonPath("$.keys").isArray());
+    }
+
+    @Test
+    void rotatedKeyIsPublished() throws Exception {
+        keyRing.rotate("rotated-key", Keys.keyPairFor(SignatureAlgorithm.ES256));
+
+        restJWKSMockMvc
+            .perform(get("/api/jwks"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.keys[?(@.kid == 'rotated-key')].kty").value("EC"))
+            .andExpect(jsonPath("$.keys[?(@.kid == 'rotated-key')].crv").value("P-256"));
+    }
+}
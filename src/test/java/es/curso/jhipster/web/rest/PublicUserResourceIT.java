@@ -1,24 +1,33 @@
 package es.curso.jhipster.web.rest;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import es.curso.jhipster.IntegrationTest;
 import es.curso.jhipster.domain.User;
 import es.curso.jhipster.repository.UserRepository;
+import es.curso.jhipster.repository.search.SearchAfterSlice;
 import es.curso.jhipster.repository.search.UserSearchRepository;
 import es.curso.jhipster.security.AuthoritiesConstants;
+import es.curso.jhipster.web.rest.util.KeysetPaginationUtil;
+import java.util.List;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -105,4 +114,45 @@ class PublicUserResourceIT {
             .andExpect(status().isBadRequest());
         restUserMockMvc.perform(get("/api/users?sort=id,desc").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
     }
+
+    @Test
+    void searchUsersStreamsAllSlices() throws Exception {
+        User first = new User();
+        first.setId(1L);
+        first.setLogin("first");
+        User second = new User();
+        second.setId(2L);
+        second.setLogin("second");
+        when(mockUserSearchRepository.search("login:*", List.of(), 100))
+            .thenReturn(new SearchAfterSlice<>(List.of(first), PageRequest.of(0, 100), true, List.of(1.0f, 1L)));
+        when(mockUserSearchRepository.search("login:*", List.of(1.0f, 1L), 100))
+            .thenReturn(new SearchAfterSlice<>(List.of(second), PageRequest.of(0, 100), false, List.of(1.0f, 2L)));
+
+        MvcResult result = restUserMockMvc.perform(get("/api/_search/users/login:*")).andExpect(request().asyncStarted()).andReturn();
+        restUserMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].login").value(contains("first", "second")))
+            .andExpect(jsonPath("$.[*].email").doesNotExist());
+    }
+
+    @Test
+    void searchUsersAfter() throws Exception {
+        User first = new User();
+        first.setId(1L);
+        first.setLogin("first");
+        when(mockUserSearchRepository.search("login:*", List.of(), 1))
+            .thenReturn(new SearchAfterSlice<>(List.of(first), PageRequest.of(0, 1), true, List.of(1.0f, 1L)));
+
+        restUserMockMvc
+            .perform(get("/api/_search/users/login:*?after=&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + KeysetPaginationUtil.encodeCursor("d1.0", "l1"))))
+            .andExpect(jsonPath("$.[*].login").value(contains("first")));
+
+        restUserMockMvc
+            .perform(get("/api/_search/users/login:*?after=" + KeysetPaginationUtil.encodeCursor("d1.0")))
+            .andExpect(status().isBadRequest());
+    }
 }
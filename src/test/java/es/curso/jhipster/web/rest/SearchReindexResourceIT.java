@@ -0,0 +1,38 @@
+package es.curso.jhipster.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import es.curso.jhipster.IntegrationTest;
+import es.curso.jhipster.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchReindexResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class SearchReindexResourceIT {
+
+    @Autowired
+    private MockMvc restSearchReindexMockMvc;
+
+    @Test
+    void reindexUnknownEntity() throws Exception {
+        restSearchReindexMockMvc
+            .perform(post("/api/admin/_reindex/unknown"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.unknownentity"));
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.USER)
+    void reindexRequiresAdmin() throws Exception {
+        restSearchReindexMockMvc.perform(post("/api/admin/_reindex/experiencia")).andExpect(status().isForbidden());
+    }
+}
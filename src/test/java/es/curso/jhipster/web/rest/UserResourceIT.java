@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import es.curso.jhipster.IntegrationTest;
 import es.curso.jhipster.domain.Authority;
 import es.curso.jhipster.domain.User;
+import es.curso.jhipster.jdbc.SqlBudget;
 import es.curso.jhipster.repository.UserRepository;
 import es.curso.jhipster.repository.search.UserSearchRepository;
 import es.curso.jhipster.security.AuthoritiesConstants;
@@ -270,6 +271,29 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersRunsABoundedNumberOfStatements() throws Exception {
+        // Initialize the database with more users than a page, each with an authority
+        Authority authority = em.find(Authority.class, AuthoritiesConstants.USER);
+        for (int i = 0; i < 25; i++) {
+            User otherUser = createEntity(em);
+            otherUser.setAuthorities(new HashSet<>(Set.of(authority)));
+            userRepository.save(otherUser);
+        }
+        userRepository.flush();
+        em.clear();
+
+        // Get a page of users, their authorities in at most two batches, and their count, whatever their number
+        SqlBudget.assertStatementsAtMost(
+            4,
+            () ->
+                restUserMockMvc
+                    .perform(get("/api/admin/users?sort=id,desc").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+        );
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
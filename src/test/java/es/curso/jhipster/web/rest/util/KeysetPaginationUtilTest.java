@@ -0,0 +1,52 @@
+package es.curso.jhipster.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Test class for the {@link KeysetPaginationUtil} utility class.
+ */
+class KeysetPaginationUtilTest {
+
+    @Test
+    void testCursorRoundTrip() {
+        String cursor = KeysetPaginationUtil.encodeCursor("f", "", "42");
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetPaginationUtil.decodeCursor(cursor)).containsExactly("f", "", "42");
+    }
+
+    @Test
+    void testDecodeInvalidCursor() {
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("@@@")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testNextLinkHeader() {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost/api/experiencias?after=&page=3&size=2");
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            uriBuilder,
+            new SliceImpl<>(Arrays.asList(1, 2), PageRequest.of(0, 2), true),
+            "abc"
+        );
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<http://localhost/api/experiencias?after=abc&size=2>; rel=\"next\"");
+    }
+
+    @Test
+    void testNoLinkHeaderOnLastSlice() {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost/api/experiencias?after=");
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            uriBuilder,
+            new SliceImpl<>(Collections.singletonList(1), PageRequest.of(0, 2), false),
+            "abc"
+        );
+        assertThat(headers.containsKey(HttpHeaders.LINK)).isFalse();
+    }
+}